@@ -5,6 +5,7 @@
 package com.jcabi.http;
 
 import com.jcabi.aspects.Immutable;
+import jakarta.ws.rs.core.HttpHeaders;
 import java.util.Map;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -19,6 +20,88 @@ import lombok.ToString;
 @EqualsAndHashCode(of = { "left", "right" })
 public final class ImmutableHeader implements Map.Entry<String, String> {
 
+    /**
+     * Well-known header names, in their normalized form.
+     */
+    private static final String[] KNOWN = {
+        HttpHeaders.ACCEPT,
+        HttpHeaders.ACCEPT_CHARSET,
+        HttpHeaders.ACCEPT_ENCODING,
+        HttpHeaders.ACCEPT_LANGUAGE,
+        HttpHeaders.ALLOW,
+        HttpHeaders.AUTHORIZATION,
+        HttpHeaders.CACHE_CONTROL,
+        HttpHeaders.CONTENT_DISPOSITION,
+        HttpHeaders.CONTENT_ENCODING,
+        HttpHeaders.CONTENT_ID,
+        HttpHeaders.CONTENT_LANGUAGE,
+        HttpHeaders.CONTENT_LENGTH,
+        HttpHeaders.CONTENT_LOCATION,
+        HttpHeaders.CONTENT_TYPE,
+        HttpHeaders.COOKIE,
+        HttpHeaders.DATE,
+        HttpHeaders.ETAG,
+        HttpHeaders.EXPECT,
+        HttpHeaders.EXPIRES,
+        HttpHeaders.HOST,
+        HttpHeaders.IF_MATCH,
+        HttpHeaders.IF_MODIFIED_SINCE,
+        HttpHeaders.IF_NONE_MATCH,
+        HttpHeaders.IF_UNMODIFIED_SINCE,
+        HttpHeaders.LAST_EVENT_ID_HEADER,
+        HttpHeaders.LAST_MODIFIED,
+        HttpHeaders.LINK,
+        HttpHeaders.LOCATION,
+        HttpHeaders.RETRY_AFTER,
+        HttpHeaders.SET_COOKIE,
+        HttpHeaders.USER_AGENT,
+        HttpHeaders.VARY,
+        HttpHeaders.WWW_AUTHENTICATE,
+        "Accept-Ranges",
+        "Access-Control-Allow-Credentials",
+        "Access-Control-Allow-Headers",
+        "Access-Control-Allow-Methods",
+        "Access-Control-Allow-Origin",
+        "Access-Control-Expose-Headers",
+        "Access-Control-Max-Age",
+        "Age",
+        "Connection",
+        "Content-Range",
+        "Keep-Alive",
+        "Origin",
+        "Pragma",
+        "Proxy-Authenticate",
+        "Proxy-Authorization",
+        "Range",
+        "RateLimit",
+        "RateLimit-Limit",
+        "RateLimit-Policy",
+        "RateLimit-Remaining",
+        "RateLimit-Reset",
+        "Referer",
+        "Server",
+        "Strict-Transport-Security",
+        "Trailer",
+        "Transfer-Encoding",
+        "Upgrade",
+        "Via",
+        "Warning",
+        "X-Content-Type-Options",
+        "X-Forwarded-For",
+        "X-Frame-Options",
+        "X-Powered-By",
+        "X-RateLimit-Limit",
+        "X-RateLimit-Remaining",
+        "X-RateLimit-Reset",
+        "X-Requested-With",
+    };
+
+    /**
+     * Open-addressing hash table of well-known names, by case-insensitive
+     * hash code; its size is a power of two.
+     */
+    private static final String[] TABLE = ImmutableHeader.table();
+
     /**
      * Key.
      */
@@ -56,19 +139,101 @@ public final class ImmutableHeader implements Map.Entry<String, String> {
 
     /**
      * Normalize key.
+     *
+     * <p>Well-known header names, like {@code Content-Type}, are not
+     * copied: the same canonical instance is returned for all of them,
+     * so comparing them is mostly a matter of identity check.
+     *
      * @param key The key to normalize
      * @return Normalized key
      */
     @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
     public static String normalize(final String key) {
-        final char[] chars = key.toCharArray();
-        chars[0] = ImmutableHeader.upper(chars[0]);
-        for (int pos = 1; pos < chars.length; ++pos) {
-            if (chars[pos - 1] == '-') {
-                chars[pos] = ImmutableHeader.upper(chars[pos]);
+        String norm = ImmutableHeader.known(key);
+        if (norm == null) {
+            final char[] chars = key.toCharArray();
+            chars[0] = ImmutableHeader.upper(chars[0]);
+            for (int pos = 1; pos < chars.length; ++pos) {
+                if (chars[pos - 1] == '-') {
+                    chars[pos] = ImmutableHeader.upper(chars[pos]);
+                }
+            }
+            norm = new String(chars);
+        }
+        return norm;
+    }
+
+    /**
+     * Find a well-known header name, which is exactly what
+     * {@link #normalize(String)} would produce for the key.
+     * @param key The key to find
+     * @return The canonical instance or NULL if it's not known
+     */
+    private static String known(final String key) {
+        final int mask = ImmutableHeader.TABLE.length - 1;
+        int idx = ImmutableHeader.hash(key) & mask;
+        String found = null;
+        while (ImmutableHeader.TABLE[idx] != null) {
+            if (ImmutableHeader.same(ImmutableHeader.TABLE[idx], key)) {
+                found = ImmutableHeader.TABLE[idx];
+                break;
+            }
+            idx = idx + 1 & mask;
+        }
+        return found;
+    }
+
+    /**
+     * Does the key normalize to the given name, without normalizing it?
+     * @param name Normalized name
+     * @param key The key to check
+     * @return TRUE if the key would normalize to the name
+     */
+    private static boolean same(final String name, final String key) {
+        boolean same = name.length() == key.length();
+        for (int pos = 0; same && pos < key.length(); ++pos) {
+            char chr = key.charAt(pos);
+            if (pos == 0 || key.charAt(pos - 1) == '-') {
+                chr = ImmutableHeader.upper(chr);
+            }
+            same = chr == name.charAt(pos);
+        }
+        return same;
+    }
+
+    /**
+     * Case-insensitive hash code of a name.
+     * @param name The name
+     * @return Hash code, mixed
+     */
+    private static int hash(final String name) {
+        int hash = 0;
+        for (int pos = 0; pos < name.length(); ++pos) {
+            // @checkstyle MagicNumber (1 line)
+            hash = 31 * hash + ImmutableHeader.upper(name.charAt(pos));
+        }
+        return hash ^ hash >>> 16;
+    }
+
+    /**
+     * Build the table of well-known names.
+     * @return The table
+     */
+    private static String[] table() {
+        int size = 1;
+        // @checkstyle MagicNumber (1 line)
+        while (size < ImmutableHeader.KNOWN.length * 4) {
+            size <<= 1;
+        }
+        final String[] table = new String[size];
+        for (final String name : ImmutableHeader.KNOWN) {
+            int idx = ImmutableHeader.hash(name) & size - 1;
+            while (table[idx] != null) {
+                idx = idx + 1 & size - 1;
             }
+            table[idx] = name;
         }
-        return new String(chars);
+        return table;
     }
 
     /**
@@ -50,18 +50,18 @@ public interface Response {
     Map<String, List<String>> headers();
 
     /**
-     * Get body as a string, assuming it's {@code UTF-8} (if there is something
-     * else that can't be translated into a UTF-8 string a runtime exception
-     * will be thrown).
+     * Get body as a string, decoded with the charset declared in
+     * {@code Content-Type} header, or {@code UTF-8} if there is none (if
+     * there is something that can't be translated into a string a runtime
+     * exception will be thrown).
      *
      * <p><strong>DISCLAIMER</strong>:
-     * The only encoding supported here is UTF-8. If the body of response
-     * contains any chars that can't be used and should be replaced with
-     * a "replacement character", a {@link RuntimeException} will be thrown. If
-     * you need to use some other encodings, use
-     * {@link #binary()} instead.
+     * If the body of response contains any bytes that are not valid in
+     * its charset and should be replaced with a "replacement character",
+     * a {@link RuntimeException} will be thrown. If you need raw bytes,
+     * use {@link #binary()} instead.
      *
-     * @return The body, as a UTF-8 string
+     * @return The body, as a string
      */
     String body();
 
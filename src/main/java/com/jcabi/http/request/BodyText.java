@@ -0,0 +1,286 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.request;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Text of an HTTP response body.
+ *
+ * <p>The body is decoded with the charset declared in the
+ * {@code Content-Type} header ({@code UTF-8} if nothing is declared or
+ * the declared charset is not supported by the JVM). Decoding is strict:
+ * malformed or unmappable input is reported as an exception instead of
+ * being replaced with {@code U+FFFD}. The decoded string is computed
+ * once and then reused.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 2.0
+ */
+final class BodyText {
+
+    /**
+     * Content-Type header name.
+     */
+    private static final String CONTENT_TYPE = "Content-Type";
+
+    /**
+     * Charset parameter of Content-Type header.
+     */
+    private static final String PARAM = "charset=";
+
+    /**
+     * Raw bytes, never moved, always read through duplicates.
+     */
+    private final transient ByteBuffer bytes;
+
+    /**
+     * Charset to decode with.
+     */
+    private final transient Charset charset;
+
+    /**
+     * Decoded text, once it is decoded.
+     */
+    private final transient AtomicReference<String> text;
+
+    /**
+     * Ctor.
+     * @param headers Response headers
+     * @param body Raw body, not copied
+     */
+    BodyText(final Iterable<Map.Entry<String, String>> headers,
+        final byte[] body) {
+        this(headers, ByteBuffer.wrap(body));
+    }
+
+    /**
+     * Ctor.
+     * @param headers Response headers
+     * @param body Raw body from its position to its limit, not copied
+     */
+    BodyText(final Iterable<Map.Entry<String, String>> headers,
+        final ByteBuffer body) {
+        this.bytes = body.slice();
+        this.charset = BodyText.declared(headers);
+        this.text = new AtomicReference<>();
+    }
+
+    /**
+     * Charset the body is decoded with.
+     * @return Charset
+     */
+    public Charset charset() {
+        return this.charset;
+    }
+
+    /**
+     * Decoded body.
+     * @return The text
+     */
+    public String string() {
+        String str = this.text.get();
+        if (str == null) {
+            str = this.decoded();
+            this.text.compareAndSet(null, str);
+        }
+        return str;
+    }
+
+    /**
+     * Streaming reader of the body, which doesn't build the entire
+     * string in memory.
+     * @return Reader, which throws
+     *  {@link java.nio.charset.MalformedInputException} on broken text
+     */
+    public Reader reader() {
+        return new InputStreamReader(
+            new BodyText.Stream(this.bytes.duplicate()), this.decoder()
+        );
+    }
+
+    /**
+     * Decode the bytes.
+     * @return The text
+     */
+    private String decoded() {
+        final String str;
+        final boolean ascii = this.ascii();
+        if (ascii && this.bytes.hasArray()) {
+            str = new String(
+                this.bytes.array(), this.bytes.arrayOffset(),
+                this.bytes.remaining(), StandardCharsets.ISO_8859_1
+            );
+        } else if (ascii) {
+            str = StandardCharsets.ISO_8859_1.decode(this.bytes.duplicate())
+                .toString();
+        } else {
+            final ByteBuffer input = this.bytes.duplicate();
+            try {
+                str = this.decoder().decode(input).toString();
+            } catch (final CharacterCodingException ex) {
+                throw new IllegalStateException(
+                    String.format(
+                        "broken %s text at byte #%d, line #%d (%d bytes)",
+                        this.charset.name(),
+                        input.position(),
+                        this.lines(input.position()) + 1,
+                        this.bytes.remaining()
+                    ),
+                    ex
+                );
+            }
+        }
+        return str;
+    }
+
+    /**
+     * Strict decoder.
+     * @return Decoder
+     */
+    private CharsetDecoder decoder() {
+        return this.charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+
+    /**
+     * Whether bytes are pure ASCII and the charset maps them as such,
+     * which lets us skip the decoder entirely.
+     * @return TRUE if the fast path is possible
+     */
+    private boolean ascii() {
+        boolean ascii = StandardCharsets.UTF_8.equals(this.charset)
+            || StandardCharsets.US_ASCII.equals(this.charset)
+            || StandardCharsets.ISO_8859_1.equals(this.charset);
+        final int size = this.bytes.remaining();
+        for (int pos = 0; ascii && pos < size; ++pos) {
+            ascii = this.bytes.get(pos) >= 0;
+        }
+        return ascii;
+    }
+
+    /**
+     * Count line breaks before the given position.
+     * @param end Position to stop at
+     * @return Number of line breaks
+     */
+    private int lines(final int end) {
+        int lines = 0;
+        for (int pos = 0; pos < end; ++pos) {
+            if (this.bytes.get(pos) == '\n') {
+                ++lines;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Find the charset declared in Content-Type header.
+     * @param headers Headers
+     * @return Charset, UTF-8 by default
+     */
+    private static Charset declared(
+        final Iterable<Map.Entry<String, String>> headers) {
+        Charset charset = StandardCharsets.UTF_8;
+        for (final Map.Entry<String, String> header : headers) {
+            if (BodyText.CONTENT_TYPE.equalsIgnoreCase(header.getKey())) {
+                final String value = header.getValue()
+                    .toLowerCase(Locale.ENGLISH);
+                final int start = value.indexOf(BodyText.PARAM);
+                if (start >= 0) {
+                    charset = BodyText.forName(
+                        value.substring(start + BodyText.PARAM.length())
+                    );
+                }
+                break;
+            }
+        }
+        return charset;
+    }
+
+    /**
+     * Charset by the value of {@code charset} parameter.
+     * @param param Value of the parameter, maybe followed by others
+     * @return Charset, UTF-8 if it's unknown
+     */
+    private static Charset forName(final String param) {
+        String name = param;
+        final int end = name.indexOf(';');
+        if (end >= 0) {
+            name = name.substring(0, end);
+        }
+        name = name.trim().replace("\"", "");
+        Charset charset;
+        try {
+            charset = Charset.forName(name);
+        } catch (final IllegalCharsetNameException
+            | UnsupportedCharsetException ex) {
+            charset = StandardCharsets.UTF_8;
+        }
+        return charset;
+    }
+
+    /**
+     * Input stream of a byte buffer.
+     *
+     * @since 2.0
+     */
+    private static final class Stream extends InputStream {
+        /**
+         * The buffer, moved while read.
+         */
+        private final transient ByteBuffer buffer;
+
+        /**
+         * Ctor.
+         * @param buf The buffer, owned by the stream
+         */
+        Stream(final ByteBuffer buf) {
+            super();
+            this.buffer = buf;
+        }
+
+        @Override
+        public int read() {
+            int next = -1;
+            if (this.buffer.hasRemaining()) {
+                // @checkstyle MagicNumber (1 line)
+                next = this.buffer.get() & 0xff;
+            }
+            return next;
+        }
+
+        @Override
+        public int read(final byte[] buf, final int off, final int len) {
+            int count = -1;
+            if (this.buffer.hasRemaining()) {
+                count = Math.min(len, this.buffer.remaining());
+                this.buffer.get(buf, off, count);
+            }
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+    }
+
+}
@@ -11,8 +11,9 @@ import com.jcabi.http.RequestBody;
 import com.jcabi.http.Response;
 import com.jcabi.immutable.Array;
 import com.jcabi.log.Logger;
+import java.io.Reader;
 import java.lang.reflect.InvocationTargetException;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -30,11 +31,6 @@ import lombok.EqualsAndHashCode;
 @Loggable(Loggable.DEBUG)
 public final class DefaultResponse implements Response {
 
-    /**
-     * UTF-8 error marker.
-     */
-    private static final String ERR = "\uFFFD";
-
     /**
      * Request.
      */
@@ -56,11 +52,15 @@ public final class DefaultResponse implements Response {
     private final transient Array<Map.Entry<String, String>> hdrs;
 
     /**
-     * Content received.
+     * Content received, never moved, always read through duplicates.
      */
-    @Immutable.Array
     //@checkstyle ParameterNumber (15 lines)
-    private final transient byte[] content;
+    private final transient ByteBuffer content;
+
+    /**
+     * Text of the body, decoded on demand.
+     */
+    private final transient BodyText text;
 
     /**
      * Public ctor.
@@ -73,11 +73,33 @@ public final class DefaultResponse implements Response {
     public DefaultResponse(final Request request, final int status,
         final String reason, final Array<Map.Entry<String, String>> headers,
         final byte[] body) {
+        this(request, status, reason, headers, ByteBuffer.wrap(body.clone()));
+    }
+
+    /**
+     * Public ctor.
+     *
+     * <p>The body is not copied, the buffer may be a direct or
+     * memory-mapped one, and it must not be modified afterwards. Only the
+     * bytes between its position and its limit are the body. They are
+     * copied to the heap only when {@link #binary()} is called.
+     *
+     * @param request The request
+     * @param status HTTP status
+     * @param reason HTTP reason phrase
+     * @param headers HTTP headers
+     * @param body Body of HTTP response
+     * @since 2.0
+     */
+    public DefaultResponse(final Request request, final int status,
+        final String reason, final Array<Map.Entry<String, String>> headers,
+        final ByteBuffer body) {
         this.req = request;
         this.code = status;
         this.phrase = reason;
         this.hdrs = headers;
-        this.content = body.clone();
+        this.content = body.slice();
+        this.text = new BodyText(headers, this.content);
     }
 
     @Override
@@ -107,25 +129,42 @@ public final class DefaultResponse implements Response {
         return map;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The body is decoded with the charset declared in
+     * {@code Content-Type} header, or UTF-8 if there is none. The text is
+     * decoded only once, consecutive calls return the same string.
+     */
     @Override
     public String body() {
-        final String body = new String(this.content, StandardCharsets.UTF_8);
-        if (body.contains(DefaultResponse.ERR)) {
-            throw new IllegalStateException(
-                Logger.format(
-                    "broken Unicode text at line #%d in '%[text]s' (%d bytes)",
-                    body.length() - body.replace("\n", "").length(),
-                    body,
-                    this.content.length
-                )
-            );
-        }
-        return body;
+        return this.text.string();
+    }
+
+    /**
+     * Get body as a stream of chars, decoded with the same charset
+     * as {@link #body()}, without building the entire string in memory.
+     * @return Reader of the body
+     * @since 2.0
+     */
+    public Reader reader() {
+        return this.text.reader();
     }
 
     @Override
     public byte[] binary() {
-        return this.content.clone();
+        final byte[] bytes = new byte[this.content.remaining()];
+        this.content.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Get length of the body, without copying it.
+     * @return Number of bytes
+     * @since 2.0
+     */
+    public int length() {
+        return this.content.remaining();
     }
 
     // @checkstyle MethodName (4 lines)
@@ -161,7 +200,7 @@ public final class DefaultResponse implements Response {
             );
         }
         return text.append('\n')
-            .append(new RequestBody.Printable(this.content))
+            .append(new RequestBody.Printable(this.binary()))
             .toString();
     }
 
@@ -4,6 +4,7 @@
  */
 package com.jcabi.http.wire;
 
+import com.google.common.cache.Cache;
 import com.jcabi.http.Request;
 import com.jcabi.http.Response;
 import com.jcabi.http.Wire;
@@ -11,20 +12,33 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This is the base class to handle http responses with 304 state.
  *
+ * <p>Since 2.0, responses are keyed by HTTP method and normalized URI
+ * only, and kept in a bounded storage, the same as in {@link CachingWire}.
+ * Least recently used entries are evicted when the total size of bodies
+ * is above the limit, 16Mb by default.
+ *
  * @since 2.0
  */
-public abstract class AbstractHeaderBasedCachingWire implements Wire {
+public abstract class AbstractHeaderBasedCachingWire
+    implements Wire, Measured {
+
+    /**
+     * Default maximum total size of bodies in bytes.
+     */
+    private static final long SIZE = 16L << 20;
 
     /**
      * Cache.
      */
-    private final transient Map<Request, Response> cache;
+    private final transient Cache<Callable<Response>, Response> cache;
 
     /**
      * Original wire.
@@ -42,6 +56,11 @@ public abstract class AbstractHeaderBasedCachingWire implements Wire {
      */
     private final transient String cmch;
 
+    /**
+     * Statistics of the cache.
+     */
+    private final transient CacheStats stats;
+
     /**
      * Ctor.
      * @param scvh Server Response Version Header name
@@ -50,11 +69,43 @@ public abstract class AbstractHeaderBasedCachingWire implements Wire {
      */
     AbstractHeaderBasedCachingWire(
         final String scvh, final String cmch, final Wire wire
+    ) {
+        this(scvh, cmch, wire, 0L, AbstractHeaderBasedCachingWire.SIZE);
+    }
+
+    /**
+     * Ctor.
+     * @param scvh Server Response Version Header name
+     * @param cmch Client Modification Check Header name
+     * @param wire Original wire
+     * @param max Maximum number of entries, zero if unbounded
+     * @param size Maximum total size of bodies in bytes, zero if unbounded
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    AbstractHeaderBasedCachingWire(
+        final String scvh, final String cmch, final Wire wire,
+        final long max, final long size
+    ) {
+        this(scvh, cmch, wire, CachingWire.storage(max, size, 0L, 0L).build());
+    }
+
+    /**
+     * Ctor.
+     * @param scvh Server Response Version Header name
+     * @param cmch Client Modification Check Header name
+     * @param wire Original wire
+     * @param storage Cache, which may be shared with other caching wires,
+     *  each of them keeps responses under keys of its own
+     */
+    AbstractHeaderBasedCachingWire(
+        final String scvh, final String cmch, final Wire wire,
+        final Cache<Callable<Response>, Response> storage
     ) {
         this.scvh = scvh;
         this.cmch = cmch;
         this.origin = wire;
-        this.cache = new ConcurrentHashMap<>();
+        this.cache = storage;
+        this.stats = CacheStats.of(storage);
     }
 
     // @checkstyle ParameterNumber (3 lines)
@@ -77,6 +128,11 @@ public abstract class AbstractHeaderBasedCachingWire implements Wire {
         return rsp;
     }
 
+    @Override
+    public final CacheStats stats() {
+        return this.stats;
+    }
+
     /**
      * Check cache and update if needed.
      *
@@ -96,22 +152,36 @@ public abstract class AbstractHeaderBasedCachingWire implements Wire {
         final Collection<Map.Entry<String, String>> headers,
         final InputStream content, final int connect, final int read
     ) throws IOException {
+        final Callable<Response> key = new CachingWire.Key(
+            this.getClass(),
+            new Fingerprint(method, home, Collections.emptyList()),
+            this.origin, connect, read
+        );
+        final Response cached = this.cache.getIfPresent(key);
         final Response rsp;
-        if (this.cache.containsKey(req)) {
-            rsp = this.validateCacheWithServer(
-                req, home, method, headers, content, connect, read
-            );
+        this.stats.request();
+        if (cached == null) {
+            final long start = System.nanoTime();
+            try {
+                rsp = this.origin.send(
+                    req, home, method, headers, content, connect, read
+                );
+            } finally {
+                this.stats.miss(System.nanoTime() - start);
+            }
+            this.updateCache(key, rsp);
         } else {
-            rsp = this.origin.send(
-                req, home, method, headers, content, connect, read
+            rsp = this.validateCacheWithServer(
+                key, cached, req, home, method, headers, content, connect, read
             );
-            this.updateCache(req, rsp);
         }
         return rsp;
     }
 
     /**
      * Check response and update cache or evict from cache if needed.
+     * @param key Key in the cache
+     * @param cached Cached response
      * @param req Request
      * @param home URI to fetch
      * @param method HTTP method
@@ -121,38 +191,48 @@ public abstract class AbstractHeaderBasedCachingWire implements Wire {
      * @param read The read timeout
      * @return Response obtained
      * @throws IOException if fails
-     * @checkstyle ParameterNumber (8 lines)
+     * @checkstyle ParameterNumber (9 lines)
      */
     private Response validateCacheWithServer(
+        final Callable<Response> key, final Response cached,
         final Request req, final String home, final String method,
         final Collection<Map.Entry<String, String>> headers,
         final InputStream content, final int connect, final int read
     ) throws IOException {
-        final Response cached = this.cache.get(req);
         final Collection<Map.Entry<String, String>> hdrs = this.enrich(
             headers, cached
         );
-        Response result = this.origin.send(
-            req, home, method, hdrs, content, connect, read
-        );
+        final long start = System.nanoTime();
+        Response result;
+        try {
+            result = this.origin.send(
+                req, home, method, hdrs, content, connect, read
+            );
+        } catch (final IOException ex) {
+            this.stats.miss(System.nanoTime() - start);
+            throw ex;
+        }
+        this.stats.revalidated();
         if (result.status() == HttpURLConnection.HTTP_NOT_MODIFIED) {
             result = cached;
         } else {
-            this.updateCache(req, result);
+            this.stats.miss(System.nanoTime() - start);
+            this.updateCache(key, result);
         }
         return result;
     }
 
     /**
      * Add, update or evict response in cache.
-     * @param req The request to be used as key
+     * @param key Key in the cache
      * @param rsp The response to add/update
      */
-    private void updateCache(final Request req, final Response rsp) {
+    private void updateCache(final Callable<Response> key,
+        final Response rsp) {
         if (rsp.headers().containsKey(this.scvh)) {
-            this.cache.put(req, rsp);
+            this.cache.put(key, rsp);
         } else if (rsp.status() == HttpURLConnection.HTTP_OK) {
-            this.cache.remove(req);
+            this.cache.invalidate(key);
         }
     }
 
@@ -161,7 +241,8 @@ public abstract class AbstractHeaderBasedCachingWire implements Wire {
      *
      * @param headers Original headers
      * @param rsp Cached response
-     * @return Map with extra header
+     * @return Map with extra header, or original headers if the response
+     *  has no version
      */
     private Collection<Map.Entry<String, String>> enrich(
         final Collection<Map.Entry<String, String>> headers, final Response rsp
@@ -169,15 +250,21 @@ public abstract class AbstractHeaderBasedCachingWire implements Wire {
         final Collection<String> list = rsp.headers().get(
             this.scvh
         );
-        final Map<String, String> map =
-            new ConcurrentHashMap<>(headers.size() + 1);
-        for (final Map.Entry<String, String> entry : headers) {
-            map.put(entry.getKey(), entry.getValue());
+        final Collection<Map.Entry<String, String>> enriched;
+        if (list == null || list.isEmpty()) {
+            enriched = headers;
+        } else {
+            final Map<String, String> map =
+                new ConcurrentHashMap<>(headers.size() + 1);
+            for (final Map.Entry<String, String> entry : headers) {
+                map.put(entry.getKey(), entry.getValue());
+            }
+            map.put(
+                this.cmch, list.iterator().next()
+            );
+            enriched = map.entrySet();
         }
-        map.put(
-            this.cmch, list.iterator().next()
-        );
-        return map.entrySet();
+        return enriched;
     }
 
     /**
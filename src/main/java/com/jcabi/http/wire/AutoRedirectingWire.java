@@ -31,6 +31,9 @@ import lombok.ToString;
  * <p>If the maximum number of retries are reached, the last response
  * received is returned to the caller, regardless of its status code.
  *
+ * <p>Since 2.0, the body of the request is sent again on every next
+ * attempt, the same way as in {@link RetryWire}.
+ *
  * <pre> String html = new JdkRequest("http://goggle.com")
  *   .through(AutoRedirectingWire.class)
  *   .header(HttpHeaders.ACCEPT, MediaType.TEXT_PLAIN)
@@ -81,36 +84,43 @@ public final class AutoRedirectingWire implements Wire {
         final InputStream content,
         final int connect,
         final int read) throws IOException {
+        final Replayable body = new Replayable(content);
         Response response = this.origin.send(
-            req, home, method, headers, content, connect, read
+            req, home, method, headers, body, connect, read
         );
         int attempt = 1;
         final URI uri = URI.create(home);
-        while (attempt < this.max) {
-            if (response.status() < HttpURLConnection.HTTP_MULT_CHOICE
-                || response.status() >= HttpURLConnection.HTTP_BAD_REQUEST) {
-                break;
-            }
-            final List<String> locations = response.headers().get(
-                HttpHeaders.LOCATION
-            );
-            if (locations == null || locations.size() != 1) {
-                break;
-            }
-            URI location = URI.create(locations.get(0));
-            if (!location.isAbsolute()) {
-                location = uri.resolve(location);
-            }
-            response = this.origin.send(
-                req, location.toString(),
-                method, headers, content, connect, read
-            );
-            try {
-                TimeUnit.SECONDS.sleep((long) attempt);
-            } catch (final InterruptedException ex) {
-                throw new IOException(ex);
+        try {
+            while (attempt < this.max) {
+                if (response.status() < HttpURLConnection.HTTP_MULT_CHOICE
+                    || response.status()
+                    >= HttpURLConnection.HTTP_BAD_REQUEST) {
+                    break;
+                }
+                final List<String> locations = response.headers().get(
+                    HttpHeaders.LOCATION
+                );
+                if (locations == null || locations.size() != 1
+                    || !body.rewind()) {
+                    break;
+                }
+                URI location = URI.create(locations.get(0));
+                if (!location.isAbsolute()) {
+                    location = uri.resolve(location);
+                }
+                response = this.origin.send(
+                    req, location.toString(),
+                    method, headers, body, connect, read
+                );
+                try {
+                    TimeUnit.SECONDS.sleep((long) attempt);
+                } catch (final InterruptedException ex) {
+                    throw new IOException(ex);
+                }
+                ++attempt;
             }
-            ++attempt;
+        } finally {
+            body.release();
         }
         return response;
     }
@@ -0,0 +1,76 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Budget of extra requests, a token bucket.
+ *
+ * <p>Tokens are kept in thousandths, every request adds a share
+ * of a token, every extra request, like a retry or a hedge, takes a whole
+ * one. The bucket is full at the start.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 2.0
+ */
+final class Budget {
+
+    /**
+     * Thousandths of a token in one extra request.
+     */
+    private static final long TOKEN = 1000L;
+
+    /**
+     * Maximum number of extra requests in the bucket.
+     */
+    private static final long BURST = 10L;
+
+    /**
+     * Thousandths of a token added by every request.
+     */
+    private final transient long share;
+
+    /**
+     * Thousandths of tokens in the bucket.
+     */
+    private final transient AtomicLong tokens;
+
+    /**
+     * Ctor.
+     * @param percent Share of extra requests in traffic, in percent
+     */
+    Budget(final int percent) {
+        // @checkstyle MagicNumber (1 line)
+        this.share = Budget.TOKEN * percent / 100L;
+        this.tokens = new AtomicLong(Budget.TOKEN * Budget.BURST);
+    }
+
+    /**
+     * A request was made.
+     */
+    void deposit() {
+        this.tokens.accumulateAndGet(
+            this.share,
+            (now, add) -> Math.min(Budget.TOKEN * Budget.BURST, now + add)
+        );
+    }
+
+    /**
+     * Take a token for an extra request, if there is one.
+     * @return TRUE if it was taken
+     */
+    boolean withdraw() {
+        long now = this.tokens.get();
+        boolean taken = false;
+        while (!taken && now >= Budget.TOKEN) {
+            taken = this.tokens.compareAndSet(now, now - Budget.TOKEN);
+            now = this.tokens.get();
+        }
+        return taken;
+    }
+
+}
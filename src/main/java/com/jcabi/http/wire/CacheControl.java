@@ -0,0 +1,104 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Directives of {@code Cache-Control} HTTP header (RFC 9111 §5.2).
+ *
+ * <p>Directive names are case-insensitive, values may be quoted,
+ * the header may be repeated. Unknown directives are kept, but ignored
+ * by the callers.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+final class CacheControl {
+
+    /**
+     * Directives, by lower-case names.
+     */
+    private final transient Map<String, String> directives;
+
+    /**
+     * Ctor.
+     * @param values Values of all {@code Cache-Control} headers
+     */
+    CacheControl(final Iterable<String> values) {
+        this.directives = new ConcurrentHashMap<>(0);
+        for (final String value : values) {
+            this.parse(value);
+        }
+    }
+
+    /**
+     * Is this directive present?
+     * @param name Name of the directive
+     * @return TRUE if it is
+     */
+    public boolean has(final String name) {
+        return this.directives.containsKey(name);
+    }
+
+    /**
+     * Value of a delta-seconds directive, like {@code max-age}.
+     * @param name Name of the directive
+     * @return Seconds, or -1 if it's absent, has no value or it is invalid
+     */
+    public long seconds(final String name) {
+        final String value = this.directives.get(name);
+        long seconds = -1L;
+        if (value != null && !value.isEmpty()) {
+            try {
+                seconds = Math.max(0L, Long.parseLong(value));
+            } catch (final NumberFormatException ex) {
+                seconds = -1L;
+            }
+        }
+        return seconds;
+    }
+
+    /**
+     * Parse one header value.
+     * @param value The value
+     */
+    private void parse(final String value) {
+        boolean quoted = false;
+        int start = 0;
+        for (int pos = 0; pos <= value.length(); ++pos) {
+            if (pos == value.length()
+                || value.charAt(pos) == ',' && !quoted) {
+                this.directive(value.substring(start, pos));
+                start = pos + 1;
+            } else if (value.charAt(pos) == '"') {
+                quoted = !quoted;
+            }
+        }
+    }
+
+    /**
+     * Add one directive.
+     * @param text Text of the directive, like {@code max-age=60}
+     */
+    private void directive(final String text) {
+        final int equals = text.indexOf('=');
+        final String name;
+        String arg = "";
+        if (equals < 0) {
+            name = text.trim();
+        } else {
+            name = text.substring(0, equals).trim();
+            arg = text.substring(equals + 1).trim().replace("\"", "");
+        }
+        if (!name.isEmpty()) {
+            this.directives.put(name.toLowerCase(Locale.ENGLISH), arg);
+        }
+    }
+
+}
@@ -0,0 +1,372 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.jcabi.http.Response;
+import com.jcabi.http.request.DefaultResponse;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Statistics of a caching wire.
+ *
+ * <p>Every caching wire keeps its statistics in lock-free counters, which
+ * are shared by all equal wires, or by all wires with the same storage:
+ *
+ * <pre> CacheStats stats = new CachingWire(wire).stats();
+ * double rate = stats.getHitRate();</pre>
+ *
+ * <p>They can be registered as an MBean, to be seen in JMX
+ * under {@code com.jcabi.http:type=CacheStats}, or taken as an immutable
+ * {@link CacheStats.Snapshot}, for example to be scraped periodically:
+ *
+ * <pre> stats.register("users");
+ * CacheStats.Snapshot now = stats.snapshot();</pre>
+ *
+ * <p>Hits, misses, revalidations and load time are counted as requests
+ * go. A request that fails on its way to the origin is a miss too. Evictions and bytes are taken from the storage when asked, so
+ * evictions are counted only by the storages that record them, like the
+ * ones the wires make for themselves, and bytes only by those that keep
+ * track of their size.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 2.0
+ */
+@ToString(of = { "requests", "misses", "revalidations" })
+public final class CacheStats implements CacheStatsMBean {
+
+    /**
+     * Statistics of in-memory storages, by their identities.
+     */
+    private static final LoadingCache<Cache<?, Response>, CacheStats>
+        STORAGES = CacheBuilder.newBuilder().weakKeys().build(
+            new CacheLoader<Cache<?, Response>, CacheStats>() {
+                @Override
+                public CacheStats load(final Cache<?, Response> key) {
+                    final WeakReference<Cache<?, Response>> ref =
+                        new WeakReference<>(key);
+                    return new CacheStats(
+                        () -> CacheStats.bytes(ref),
+                        () -> CacheStats.evictions(ref)
+                    );
+                }
+            }
+        );
+
+    /**
+     * Requests that reached the cache.
+     */
+    private final transient LongAdder requests;
+
+    /**
+     * Requests served by the origin.
+     */
+    private final transient LongAdder misses;
+
+    /**
+     * Revalidations with the origin.
+     */
+    private final transient LongAdder revalidations;
+
+    /**
+     * Nanoseconds spent loading.
+     */
+    private final transient LongAdder loading;
+
+    /**
+     * Total size of bodies in the storage.
+     */
+    private final transient LongSupplier size;
+
+    /**
+     * Evictions from the storage.
+     */
+    private final transient LongSupplier evicted;
+
+    /**
+     * Ctor.
+     * @param bytes Total size of bodies in the storage
+     * @param evictions Evictions from the storage
+     */
+    CacheStats(final LongSupplier bytes, final LongSupplier evictions) {
+        this.requests = new LongAdder();
+        this.misses = new LongAdder();
+        this.revalidations = new LongAdder();
+        this.loading = new LongAdder();
+        this.size = bytes;
+        this.evicted = evictions;
+    }
+
+    /**
+     * Statistics of this in-memory storage.
+     * @param storage The storage
+     * @return Statistics, the same for the same storage
+     */
+    static CacheStats of(final Cache<?, Response> storage) {
+        return CacheStats.STORAGES.getUnchecked(storage);
+    }
+
+    /**
+     * Size of the body, as it is kept in memory.
+     *
+     * <p>The body is not copied, unless the response is of a kind
+     * this method doesn't know.
+     *
+     * @param rsp The response
+     * @return Bytes
+     */
+    static long length(final Response rsp) {
+        final long length;
+        if (rsp instanceof Deflated) {
+            length = ((Deflated) rsp).compressed().remaining();
+        } else if (rsp instanceof DefaultResponse) {
+            length = ((DefaultResponse) rsp).length();
+        } else if (rsp instanceof OffHeapWire.Stored) {
+            length = ((OffHeapWire.Stored) rsp).length();
+        } else {
+            length = rsp.binary().length;
+        }
+        return length;
+    }
+
+    /**
+     * A request reached the cache.
+     */
+    void request() {
+        this.requests.increment();
+    }
+
+    /**
+     * The request was served by the origin.
+     * @param nanos Nanoseconds spent loading the response
+     */
+    void miss(final long nanos) {
+        this.misses.increment();
+        this.loading.add(nanos);
+    }
+
+    /**
+     * A cached response was revalidated with the origin.
+     */
+    void revalidated() {
+        this.revalidations.increment();
+    }
+
+    @Override
+    public long getHits() {
+        final long missed = this.misses.sum();
+        return Math.max(0L, this.requests.sum() - missed);
+    }
+
+    @Override
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    @Override
+    public double getHitRate() {
+        return CacheStats.rate(this.getHits(), this.getMisses());
+    }
+
+    @Override
+    public long getEvictions() {
+        return this.evicted.getAsLong();
+    }
+
+    @Override
+    public long getRevalidations() {
+        return this.revalidations.sum();
+    }
+
+    @Override
+    public long getLoadTime() {
+        return this.loading.sum();
+    }
+
+    @Override
+    public long getBytes() {
+        return this.size.getAsLong();
+    }
+
+    /**
+     * Take the values of all statistics at once.
+     * @return Snapshot
+     */
+    public CacheStats.Snapshot snapshot() {
+        return new CacheStats.Snapshot(this);
+    }
+
+    /**
+     * Register the statistics in the platform MBean server, replacing
+     * the ones registered with the same name before.
+     * @param name Name of the cache
+     * @return Name of the MBean
+     */
+    public ObjectName register(final String name) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName mbean = new ObjectName(
+                String.format(
+                    "com.jcabi.http:type=CacheStats,name=%s",
+                    ObjectName.quote(name)
+                )
+            );
+            if (server.isRegistered(mbean)) {
+                server.unregisterMBean(mbean);
+            }
+            server.registerMBean(this, mbean);
+            return mbean;
+        } catch (final JMException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Share of hits.
+     * @param hits Number of hits
+     * @param misses Number of misses
+     * @return Ratio, from zero to one, or zero if there were no requests
+     */
+    private static double rate(final long hits, final long misses) {
+        double rate = 0.0;
+        if (hits + misses > 0L) {
+            rate = (double) hits / (hits + misses);
+        }
+        return rate;
+    }
+
+    /**
+     * Total size of bodies in the storage.
+     * @param ref The storage, if it's still there
+     * @return Bytes
+     */
+    private static long bytes(final WeakReference<Cache<?, Response>> ref) {
+        final Cache<?, Response> cache = ref.get();
+        long bytes = 0L;
+        if (cache != null) {
+            for (final Response rsp : cache.asMap().values()) {
+                bytes += CacheStats.length(rsp);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Evictions from the storage.
+     * @param ref The storage, if it's still there
+     * @return Number of evictions
+     */
+    private static long evictions(
+        final WeakReference<Cache<?, Response>> ref) {
+        final Cache<?, Response> cache = ref.get();
+        long evictions = 0L;
+        if (cache != null) {
+            evictions = cache.stats().evictionCount();
+        }
+        return evictions;
+    }
+
+    /**
+     * Values of all statistics at one moment.
+     *
+     * <p>The class is immutable and thread-safe.
+     *
+     * @since 2.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    public static final class Snapshot implements CacheStatsMBean {
+        /**
+         * Hits.
+         */
+        private final long hits;
+
+        /**
+         * Misses.
+         */
+        private final long misses;
+
+        /**
+         * Evictions.
+         */
+        private final long evictions;
+
+        /**
+         * Revalidations.
+         */
+        private final long revalidations;
+
+        /**
+         * Nanoseconds spent loading.
+         */
+        private final long loading;
+
+        /**
+         * Total size of bodies.
+         */
+        private final long bytes;
+
+        /**
+         * Ctor.
+         * @param stats Live statistics
+         */
+        Snapshot(final CacheStats stats) {
+            this.misses = stats.getMisses();
+            this.hits = stats.getHits();
+            this.evictions = stats.getEvictions();
+            this.revalidations = stats.getRevalidations();
+            this.loading = stats.getLoadTime();
+            this.bytes = stats.getBytes();
+        }
+
+        @Override
+        public long getHits() {
+            return this.hits;
+        }
+
+        @Override
+        public long getMisses() {
+            return this.misses;
+        }
+
+        @Override
+        public double getHitRate() {
+            return CacheStats.rate(this.hits, this.misses);
+        }
+
+        @Override
+        public long getEvictions() {
+            return this.evictions;
+        }
+
+        @Override
+        public long getRevalidations() {
+            return this.revalidations;
+        }
+
+        @Override
+        public long getLoadTime() {
+            return this.loading;
+        }
+
+        @Override
+        public long getBytes() {
+            return this.bytes;
+        }
+    }
+
+}
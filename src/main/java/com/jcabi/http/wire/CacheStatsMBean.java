@@ -0,0 +1,60 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+/**
+ * Statistics of a caching wire, as seen by JMX.
+ *
+ * <p>The names of the methods follow JMX conventions, so that every one
+ * of them is an attribute of the MBean, see {@link CacheStats}.
+ *
+ * @since 2.0
+ */
+public interface CacheStatsMBean {
+
+    /**
+     * How many requests were served from the cache.
+     * @return Number of hits
+     */
+    long getHits();
+
+    /**
+     * How many requests were served by the origin, since the response
+     * was not in the cache or was changed there.
+     * @return Number of misses
+     */
+    long getMisses();
+
+    /**
+     * Share of requests served from the cache.
+     * @return Ratio, from zero to one, or zero if there were no requests
+     */
+    double getHitRate();
+
+    /**
+     * How many entries were evicted from memory, because of the limits.
+     * @return Number of entries
+     */
+    long getEvictions();
+
+    /**
+     * How many cached responses were revalidated with the origin.
+     * @return Number of revalidations
+     */
+    long getRevalidations();
+
+    /**
+     * Time spent loading responses of misses from the origin.
+     * @return Nanoseconds
+     */
+    long getLoadTime();
+
+    /**
+     * Total size of bodies in the cache.
+     * @return Bytes
+     */
+    long getBytes();
+
+}
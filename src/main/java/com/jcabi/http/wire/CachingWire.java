@@ -7,19 +7,36 @@ package com.jcabi.http.wire;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.http.Request;
 import com.jcabi.http.Response;
 import com.jcabi.http.Wire;
+import com.jcabi.http.request.JdkRequest;
 import jakarta.ws.rs.core.HttpHeaders;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -57,6 +74,45 @@ import lombok.ToString;
  * constructed as an HTTP method, space, path of the URI together with
  * query part.
  *
+ * <p>Since 2.0, the expression may capture a named group {@code path},
+ * then only the entries with this path or paths below it are flushed,
+ * whatever their query parts and hosts are:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(CachingWire.class, "POST (?&lt;path&gt;/users/[^/?]+).*")
+ *   .fetch();</pre>
+ *
+ * <p>Since 2.0, the cache can be bounded by the number of entries and
+ * the total size of bodies in bytes, and entries can expire after
+ * a number of seconds since they were written or last accessed
+ * (zero means "no limit"):
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(CachingWire.class, "POST .*", 1000L, 1L &lt;&lt; 24, 60L, 0L)
+ *   .fetch();</pre>
+ *
+ * <p>Expired and evicted entries are cleaned up in the background.
+ *
+ * <p>Entries are keyed by HTTP method, normalized URI with sorted query
+ * parameters and request headers. By default all headers are significant,
+ * but you can limit them to the ones that really change the response:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(CachingWire.class, "$never", storage,
+ *     new String[] {"Accept", "Accept-Language"})
+ *   .fetch();</pre>
+ *
+ * <p>The cache keeps only those keys and responses, it doesn't keep
+ * requests, their headers or bodies.
+ *
+ * <p>Since 2.0, a snapshot of the cache can be saved into a file, for
+ * example on shutdown or periodically, and loaded back on start, to warm
+ * the cache up before taking traffic, see {@link #save(Path)} and
+ * {@link #load(Path)}.
+ *
+ * <p>Since 2.0, hits, misses, evictions and the size of the cache are
+ * counted, see {@link #stats()}. Wires with the same storage share them.
+ *
  * <p>The class is immutable and thread-safe.
  * @since 1.0
  * @todo #179:30m This implementation depends on Guava. Investigate for a
@@ -66,21 +122,24 @@ import lombok.ToString;
  */
 @Immutable
 @ToString
-@EqualsAndHashCode(of = {"origin", "regex"})
+@EqualsAndHashCode(
+    of = {"origin", "regex", "entries", "bytes", "ttl", "idle", "vary"}
+)
 @SuppressWarnings("PMD.OnlyOneConstructorShouldDoInitialization")
-public final class CachingWire implements Wire {
+public final class CachingWire implements Wire, Measured {
 
     /**
      * Loader.
      */
-    private static final CacheLoader<Wire,
+    private static final CacheLoader<CachingWire,
         LoadingCache<Callable<Response>, Response>> LOADER =
-        new CacheLoader<Wire, LoadingCache<Callable<Response>, Response>>() {
+        new CacheLoader<CachingWire,
+            LoadingCache<Callable<Response>, Response>>() {
             @Override
             public LoadingCache<Callable<Response>, Response> load(
-                final Wire key
+                final CachingWire key
             ) {
-                return CacheBuilder.newBuilder().build(
+                return key.storage().build(
                     new CacheLoader<Callable<Response>, Response>() {
                         @Override
                         public Response load(final Callable<Response> query)
@@ -95,10 +154,56 @@ public final class CachingWire implements Wire {
     /**
      * Default cache.
      */
-    private static final LoadingCache<Wire,
+    private static final LoadingCache<CachingWire,
         LoadingCache<Callable<Response>, Response>> CACHE =
         CacheBuilder.newBuilder().build(CachingWire.LOADER);
 
+    /**
+     * Path indexes of all storages, by their identities.
+     */
+    private static final LoadingCache<LoadingCache<Callable<Response>,
+        Response>, PathIndex<Callable<Response>>> INDEXES =
+        CacheBuilder.newBuilder().weakKeys().build(
+            new CacheLoader<LoadingCache<Callable<Response>, Response>,
+                PathIndex<Callable<Response>>>() {
+                @Override
+                public PathIndex<Callable<Response>> load(
+                    final LoadingCache<Callable<Response>, Response> key
+                ) {
+                    return new PathIndex<>();
+                }
+            }
+        );
+
+    /**
+     * Keys of entries loaded from snapshots, with the times they were
+     * written, by storages.
+     */
+    private static final LoadingCache<LoadingCache<Callable<Response>,
+        Response>, ConcurrentMap<Callable<Response>, Long>> RESTORED =
+        CacheBuilder.newBuilder().weakKeys().build(
+            new CacheLoader<LoadingCache<Callable<Response>, Response>,
+                ConcurrentMap<Callable<Response>, Long>>() {
+                @Override
+                public ConcurrentMap<Callable<Response>, Long> load(
+                    final LoadingCache<Callable<Response>, Response> key
+                ) {
+                    return new ConcurrentHashMap<>(0);
+                }
+            }
+        );
+
+    /**
+     * Background cleaner of expired and evicted entries.
+     */
+    private static final ScheduledExecutorService CLEANER =
+        CachingWire.cleaner();
+
+    /**
+     * Magic number and version of the snapshot format.
+     */
+    private static final int SNAPSHOT = 0x4a435331;
+
     /**
      * Default flushing regex.
      */
@@ -131,11 +236,58 @@ public final class CachingWire implements Wire {
      */
     private final transient String regex;
 
+    /**
+     * Compiled flushing regular expression.
+     */
+    private final transient Flush flush;
+
+    /**
+     * Maximum number of entries, zero if unbounded.
+     */
+    private final transient long entries;
+
+    /**
+     * Maximum total size of bodies in bytes, zero if unbounded.
+     */
+    private final transient long bytes;
+
+    /**
+     * Seconds to keep an entry after it's written, zero if forever.
+     */
+    private final transient long ttl;
+
+    /**
+     * Seconds to keep an entry after it's accessed, zero if forever.
+     */
+    private final transient long idle;
+
+    /**
+     * Names of significant headers, empty if all of them are.
+     */
+    @Immutable.Array
+    private final transient String[] vary;
+
     /**
      * Cache.
      */
     private final LoadingCache<Callable<Response>, Response> cache;
 
+    /**
+     * Keys of the cache, by paths.
+     */
+    private final transient PathIndex<Callable<Response>> index;
+
+    /**
+     * Keys of entries loaded from snapshots, with the times they were
+     * written.
+     */
+    private final transient ConcurrentMap<Callable<Response>, Long> restored;
+
+    /**
+     * Statistics of the cache.
+     */
+    private final transient CacheStats stats;
+
     /**
      * Public ctor.
      * @param wire Original wire
@@ -151,9 +303,41 @@ public final class CachingWire implements Wire {
      * @since 1.5
      */
     public CachingWire(final Wire wire, final String flsh) {
+        this(wire, flsh, 0L, 0L, 0L, 0L);
+    }
+
+    /**
+     * Public ctor.
+     *
+     * <p>If both {@code max} and {@code size} are set, every entry is
+     * counted as at least {@code size / max} bytes, so that neither
+     * of the limits is exceeded.
+     *
+     * @param wire Original wire
+     * @param flsh Flushing regular expression
+     * @param max Maximum number of entries, zero if unbounded
+     * @param size Maximum total size of bodies in bytes, zero if unbounded
+     * @param write Seconds to keep an entry after it's written, zero
+     *  if forever
+     * @param access Seconds to keep an entry after it's read, zero
+     *  if forever
+     * @since 2.0
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public CachingWire(final Wire wire, final String flsh, final long max,
+        final long size, final long write, final long access) {
         this.origin = wire;
         this.regex = flsh;
-        this.cache = CACHE.getUnchecked(this);
+        this.entries = max;
+        this.bytes = size;
+        this.ttl = write;
+        this.idle = access;
+        this.vary = new String[0];
+        this.flush = new Flush(flsh);
+        this.cache = CachingWire.CACHE.getUnchecked(this);
+        this.index = CachingWire.INDEXES.getUnchecked(this.cache);
+        this.restored = CachingWire.RESTORED.getUnchecked(this.cache);
+        this.stats = CacheStats.of(this.cache);
     }
 
     /**
@@ -180,10 +364,37 @@ public final class CachingWire implements Wire {
         final Wire wire,
         final String flsh,
         final LoadingCache<Callable<Response>, Response> storage
+    ) {
+        this(wire, flsh, storage, new String[0]);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param flsh Flushing regular expression
+     * @param storage Cache
+     * @param headers Names of headers significant for the cache key,
+     *  all headers are significant if it's empty
+     * @since 2.0
+     */
+    public CachingWire(
+        final Wire wire,
+        final String flsh,
+        final LoadingCache<Callable<Response>, Response> storage,
+        final String... headers
     ) {
         this.origin = wire;
         this.regex = flsh;
+        this.entries = 0L;
+        this.bytes = 0L;
+        this.ttl = 0L;
+        this.idle = 0L;
+        this.vary = headers.clone();
+        this.flush = new Flush(flsh);
         this.cache = storage;
+        this.index = CachingWire.INDEXES.getUnchecked(this.cache);
+        this.restored = CachingWire.RESTORED.getUnchecked(this.cache);
+        this.stats = CacheStats.of(this.cache);
     }
 
     // @checkstyle ParameterNumber (5 lines)
@@ -202,17 +413,42 @@ public final class CachingWire implements Wire {
         if (uri.getQuery() != null) {
             label.append('?').append(uri.getQuery());
         }
-        if (label.toString().matches(this.regex)) {
+        final String target = this.flush.path(label.toString());
+        if (this.flush.everything(target)) {
             this.cache.invalidateAll();
+            this.index.remove(target);
+        } else if (!target.isEmpty()) {
+            this.cache.invalidateAll(this.index.remove(target));
         }
         final Response rsp;
         if (method.equals(Request.GET) && !CachingWire.bypass(headers)) {
+            final CachingWire.Key key = new CachingWire.Key(
+                CachingWire.class,
+                new Fingerprint(method, home, headers, this.vary), this.origin,
+                connect, read
+            );
+            final Callable<Response> query = new CachingWire.Query(
+                this.origin, req, home, headers, content, connect, read
+            );
+            this.stats.request();
+            if (!this.restored.isEmpty()) {
+                this.expire(key, System.currentTimeMillis());
+            }
             try {
                 rsp = this.cache.get(
-                    new CachingWire.Query(
-                        this.origin, req, home, headers, content,
-                        connect, read
-                    )
+                    key,
+                    () -> {
+                        final long start = System.nanoTime();
+                        final Response loaded;
+                        try {
+                            loaded = query.call();
+                        } finally {
+                            this.stats.miss(System.nanoTime() - start);
+                        }
+                        this.restored.remove(key);
+                        this.index.add(key.print.path(), key);
+                        return loaded;
+                    }
                 );
             } catch (final ExecutionException ex) {
                 throw new IOException(ex);
@@ -226,6 +462,118 @@ public final class CachingWire implements Wire {
         return rsp;
     }
 
+    @Override
+    public CacheStats stats() {
+        return this.stats;
+    }
+
+    /**
+     * Save a snapshot of the cache into the file.
+     *
+     * <p>The file is written into a temporary one first and then moved
+     * into its place, so it's never seen incomplete. Every entry is saved
+     * with its key and the time it was written.
+     *
+     * @param file The file
+     * @return How many entries were saved
+     * @throws IOException If fails
+     * @since 2.0
+     */
+    public int save(final Path file) throws IOException {
+        final Path temp = Files.createTempFile(
+            file.toAbsolutePath().getParent(), ".", ".tmp"
+        );
+        int saved = 0;
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp))
+            )) {
+                out.writeInt(CachingWire.SNAPSHOT);
+                for (final Map.Entry<Callable<Response>, Response> entry
+                    : this.cache.asMap().entrySet()) {
+                    if (entry.getKey() instanceof CachingWire.Key
+                        && ((CachingWire.Key) entry.getKey()).kind
+                        == CachingWire.class) {
+                        final CachingWire.Key key =
+                            (CachingWire.Key) entry.getKey();
+                        out.writeBoolean(true);
+                        out.writeLong(key.written);
+                        CachingWire.write(out, key.print.toString());
+                        CachingWire.write(out, key.print.path());
+                        final byte[] bytes = FcEntry.encode(entry.getValue());
+                        out.writeInt(bytes.length);
+                        out.write(bytes);
+                        ++saved;
+                    }
+                }
+                out.writeBoolean(false);
+            }
+            FcEntry.move(temp, file);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return saved;
+    }
+
+    /**
+     * Load a snapshot of the cache from the file, saved by
+     * {@link #save(Path)}.
+     *
+     * <p>Entries that are in the cache already are not replaced. Entries
+     * older than the TTL of this wire are skipped; others keep the time
+     * they were written, and are removed from the cache when the TTL is
+     * over, counted from that time, not from the time they were loaded:
+     * when they are requested, or by the background cleaner, within a
+     * second. Only their keys and times are tracked for that.
+     * Entries are loaded for the origin wire of this one, and only wires
+     * over an equal origin find them.
+     *
+     * @param file The file
+     * @return How many entries were loaded
+     * @throws IOException If fails or the file is broken
+     * @since 2.0
+     */
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    public int load(final Path file) throws IOException {
+        int loaded = 0;
+        try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(file))
+        )) {
+            if (in.readInt() != CachingWire.SNAPSHOT) {
+                throw new IOException(
+                    String.format("%s is not a snapshot of cache", file)
+                );
+            }
+            final long now = System.currentTimeMillis();
+            while (in.readBoolean()) {
+                final long written = in.readLong();
+                final Fingerprint print = Fingerprint.restore(
+                    CachingWire.string(in), CachingWire.string(in)
+                );
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                if (this.ttl == 0L
+                    || now - written <= TimeUnit.SECONDS.toMillis(this.ttl)) {
+                    final CachingWire.Key key = new CachingWire.Key(
+                        CachingWire.class, print, written, this.origin, 0, 0
+                    );
+                    final Response rsp = FcEntry.decode(
+                        new JdkRequest(print.uri()), ByteBuffer.wrap(bytes),
+                        file
+                    );
+                    if (this.cache.asMap().putIfAbsent(key, rsp) == null) {
+                        this.index.add(print.path(), key);
+                        if (this.ttl > 0L) {
+                            this.restored.put(key, written);
+                        }
+                        ++loaded;
+                    }
+                }
+            }
+        }
+        return loaded;
+    }
+
     /**
      * Invalidate the entire cache.
      * @since 1.15
@@ -235,6 +583,134 @@ public final class CachingWire implements Wire {
         CachingWire.CACHE.invalidateAll();
     }
 
+    /**
+     * Remove the entry loaded from a snapshot, if its TTL is over,
+     * counted from the time it was written.
+     * @param key Key of the entry
+     * @param now Current time, in milliseconds
+     */
+    private void expire(final Callable<Response> key, final long now) {
+        final Long written = this.restored.get(key);
+        if (written != null
+            && now - written > TimeUnit.SECONDS.toMillis(this.ttl)) {
+            this.restored.remove(key, written);
+            this.cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Make a builder of storage, according to the limits.
+     * @return Builder
+     */
+    private CacheBuilder<Object, Object> storage() {
+        return CachingWire.storage(
+            this.entries, this.bytes, this.ttl, this.idle
+        );
+    }
+
+    /**
+     * Make a builder of storage, according to the limits.
+     *
+     * <p>If both {@code max} and {@code size} are set, every entry is
+     * counted as at least {@code size / max} bytes.
+     *
+     * @param max Maximum number of entries, zero if unbounded
+     * @param size Maximum total size of bodies in bytes, zero if unbounded
+     * @param write Seconds to keep an entry after it's written, zero
+     *  if forever
+     * @param access Seconds to keep an entry after it's read, zero
+     *  if forever
+     * @return Builder
+     */
+    static CacheBuilder<Object, Object> storage(final long max,
+        final long size, final long write, final long access) {
+        final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+            .recordStats();
+        if (size > 0L) {
+            long min = 0L;
+            if (max > 0L) {
+                min = (size + max - 1L) / max;
+            }
+            builder.maximumWeight(size).weigher(new BodyWeigher(min));
+        } else if (max > 0L) {
+            builder.maximumSize(max);
+        }
+        if (write > 0L) {
+            builder.expireAfterWrite(write, TimeUnit.SECONDS);
+        }
+        if (access > 0L) {
+            builder.expireAfterAccess(access, TimeUnit.SECONDS);
+        }
+        return builder;
+    }
+
+    /**
+     * Start background cleaner of all caches.
+     * @return Executor
+     */
+    private static ScheduledExecutorService cleaner() {
+        final ScheduledExecutorService service =
+            Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("CachingWire-cleaner-%d")
+                    .build()
+            );
+        service.scheduleWithFixedDelay(
+            () -> {
+                final long now = System.currentTimeMillis();
+                for (final Map.Entry<CachingWire,
+                    LoadingCache<Callable<Response>, Response>> entry
+                    : CachingWire.CACHE.asMap().entrySet()) {
+                    entry.getValue().cleanUp();
+                    for (final Callable<Response> key
+                        : entry.getKey().restored.keySet()) {
+                        entry.getKey().expire(key, now);
+                    }
+                }
+                for (final Map.Entry<LoadingCache<Callable<Response>,
+                    Response>, PathIndex<Callable<Response>>> entry
+                    : CachingWire.INDEXES.asMap().entrySet()) {
+                    // @checkstyle MagicNumber (2 lines)
+                    if (entry.getValue().size()
+                        > entry.getKey().size() * 2L + 16L) {
+                        entry.getValue().retain(
+                            entry.getKey().asMap().keySet()
+                        );
+                    }
+                }
+            },
+            1L, 1L, TimeUnit.SECONDS
+        );
+        return service;
+    }
+
+    /**
+     * Write a string, prefixed by its length in bytes.
+     * @param out Where to write
+     * @param text The string
+     * @throws IOException If fails
+     */
+    private static void write(final DataOutputStream out, final String text)
+        throws IOException {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a string, prefixed by its length in bytes.
+     * @param in Where to read from
+     * @return The string
+     * @throws IOException If fails
+     */
+    private static String string(final DataInputStream in)
+        throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
     /**
      * Should the cache be bypassed for this request?
      *
@@ -277,7 +753,6 @@ public final class CachingWire implements Wire {
      * @since 1.8.3
      */
     @ToString
-    @EqualsAndHashCode(of = {"origin", "request", "uri", "headers"})
     private static final class Query implements Callable<Response> {
         /**
          * Origin wire.
@@ -349,4 +824,129 @@ public final class CachingWire implements Wire {
         }
     }
 
+    /**
+     * Key in the cache.
+     *
+     * <p>It is a {@link Callable}, because the storage is keyed by them;
+     * it sends the request of its fingerprint through the wire again, with
+     * the timeouts of the original request, when the storage refreshes the
+     * entry by itself. Responses sent by the wire are loaded by
+     * {@link CachingWire.Query}. Other caching wires use it too, to keep
+     * their responses in the same kind of storage. Every kind of wire has
+     * keys of its own, and so does every origin wire, so that wires
+     * sharing a storage never take each other's responses.
+     *
+     * @since 2.0
+     */
+    @ToString(of = { "kind", "print" })
+    @EqualsAndHashCode(of = { "kind", "print", "origin" })
+    static final class Key implements Callable<Response> {
+        /**
+         * Kind of the wire the key belongs to.
+         */
+        private final transient Class<? extends Wire> kind;
+
+        /**
+         * Fingerprint of the request.
+         */
+        private final transient Fingerprint print;
+
+        /**
+         * When the key was made, in milliseconds; for the key in the
+         * storage it's when the entry was written.
+         */
+        private final transient long written;
+
+        /**
+         * Wire to send the request through.
+         */
+        private final transient Wire origin;
+
+        /**
+         * Connect timeout.
+         */
+        private final transient int connect;
+
+        /**
+         * Read timeout.
+         */
+        private final transient int read;
+
+        /**
+         * Ctor.
+         * @param type Kind of the wire the key belongs to
+         * @param fingerprint Fingerprint of the request
+         * @param wire Wire to send the request through
+         * @param cnct Connect timeout
+         * @param rdd Read timeout
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Key(final Class<? extends Wire> type, final Fingerprint fingerprint,
+            final Wire wire, final int cnct, final int rdd) {
+            this(
+                type, fingerprint, System.currentTimeMillis(), wire, cnct, rdd
+            );
+        }
+
+        /**
+         * Ctor.
+         * @param type Kind of the wire the key belongs to
+         * @param fingerprint Fingerprint of the request
+         * @param time When the entry was written, in milliseconds
+         * @param wire Wire to send the request through
+         * @param cnct Connect timeout
+         * @param rdd Read timeout
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Key(final Class<? extends Wire> type, final Fingerprint fingerprint,
+            final long time, final Wire wire, final int cnct, final int rdd) {
+            this.kind = type;
+            this.print = fingerprint;
+            this.written = time;
+            this.origin = wire;
+            this.connect = cnct;
+            this.read = rdd;
+        }
+
+        @Override
+        public Response call() throws IOException {
+            final String uri = this.print.uri();
+            return this.origin.send(
+                new JdkRequest(uri), uri, this.print.method(),
+                this.print.headers(), new ByteArrayInputStream(new byte[0]),
+                this.connect, this.read
+            );
+        }
+    }
+
+    /**
+     * Weigher of responses by the size of their bodies, as they are kept
+     * in memory, see {@link CacheStats#length(Response)}.
+     *
+     * @since 2.0
+     */
+    private static final class BodyWeigher
+        implements Weigher<Callable<Response>, Response> {
+        /**
+         * Minimum weight of an entry.
+         */
+        private final transient long min;
+
+        /**
+         * Ctor.
+         * @param least Minimum weight of an entry
+         */
+        BodyWeigher(final long least) {
+            this.min = least;
+        }
+
+        @Override
+        public int weigh(final Callable<Response> key, final Response value) {
+            return (int) Math.min(
+                Integer.MAX_VALUE,
+                Math.max(this.min, CacheStats.length(value))
+            );
+        }
+    }
+
 }
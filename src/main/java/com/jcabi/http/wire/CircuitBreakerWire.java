@@ -0,0 +1,591 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.immutable.Array;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Wire that stops sending requests to a host that keeps failing
+ * ("circuit breaker").
+ *
+ * <p>Outcomes of the last requests to every host are kept in a sliding
+ * window. When the window is at least half full and the share of failed
+ * requests in it, or the share of slow ones, reaches its threshold, the
+ * circuit of the host opens, and requests to it fail fast, without going
+ * to the server, instead of blocking for the whole read timeout:
+ *
+ * <pre> String html = new JdkRequest("http://goggle.com")
+ *   .through(CircuitBreakerWire.class)
+ *   .fetch()
+ *   .body();</pre>
+ *
+ * <p>A request fails if it throws {@link IOException} or its response
+ * has a 5xx status, and it's slow if it takes longer than the slow call
+ * duration. After the open duration, one request is let through to probe
+ * the host: if it succeeds the circuit closes, with a clean window,
+ * otherwise it opens again. By default the window has 100 requests, the
+ * thresholds are 50% of failed and 100% of slow requests, a request is
+ * slow after 10 seconds and the circuit stays open for 30 seconds. The
+ * threshold of failures and the open duration, in milliseconds, are
+ * configurable:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(CircuitBreakerWire.class, 25, 5000L)
+ *   .fetch();</pre>
+ *
+ * <p>And so is the rest of it, the size of the window, the threshold of
+ * slow requests and the slow call duration. While the circuit is open,
+ * requests throw {@link IOException}, or, if a fallback is asked for, get
+ * a {@code 503} response with {@code Retry-After}, which
+ * {@link RetryWire} understands:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(CircuitBreakerWire.class, 20, 50, 80, 2000L, 5000L, true)
+ *   .fetch();</pre>
+ *
+ * <p>Equal wires share their circuits, while any of them is in use. The
+ * state of a circuit is changed only by compare-and-set, there are no
+ * locks.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = "origin")
+@EqualsAndHashCode(
+    of = { "origin", "size", "failures", "slows", "slow", "open", "fallback" }
+)
+@SuppressWarnings("PMD.TooManyMethods")
+public final class CircuitBreakerWire implements Wire {
+
+    /**
+     * Default size of the window.
+     */
+    private static final int SIZE = 100;
+
+    /**
+     * Default threshold of failed requests, in percent.
+     */
+    private static final int FAILURES = 50;
+
+    /**
+     * Default threshold of slow requests, in percent.
+     */
+    private static final int SLOWS = 100;
+
+    /**
+     * Default slow call duration, in milliseconds.
+     */
+    private static final long SLOW = 10_000L;
+
+    /**
+     * Default open duration, in milliseconds.
+     */
+    private static final long OPEN = 30_000L;
+
+    /**
+     * Circuits of all wires, kept while there are wires using them.
+     */
+    private static final LoadingCache<CircuitBreakerWire,
+        CircuitBreakerWire.Circuits> CIRCUITS =
+        CacheBuilder.newBuilder().weakValues().build(
+            new CacheLoader<CircuitBreakerWire, CircuitBreakerWire.Circuits>() {
+                @Override
+                public CircuitBreakerWire.Circuits load(
+                    final CircuitBreakerWire key) {
+                    return new CircuitBreakerWire.Circuits();
+                }
+            }
+        );
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Size of the window.
+     */
+    private final transient int size;
+
+    /**
+     * Threshold of failed requests, in percent.
+     */
+    private final transient int failures;
+
+    /**
+     * Threshold of slow requests, in percent.
+     */
+    private final transient int slows;
+
+    /**
+     * Slow call duration, in milliseconds.
+     */
+    private final transient long slow;
+
+    /**
+     * Open duration, in milliseconds.
+     */
+    private final transient long open;
+
+    /**
+     * Respond with 503 instead of throwing, while open?
+     */
+    private final transient boolean fallback;
+
+    /**
+     * Circuits of hosts.
+     */
+    private final transient CircuitBreakerWire.Circuits circuits;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     */
+    public CircuitBreakerWire(final Wire wire) {
+        this(wire, CircuitBreakerWire.FAILURES, CircuitBreakerWire.OPEN);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param failed Threshold of failed requests, in percent
+     * @param millis Open duration, in milliseconds
+     */
+    public CircuitBreakerWire(final Wire wire, final int failed,
+        final long millis) {
+        this(
+            wire, CircuitBreakerWire.SIZE, failed, CircuitBreakerWire.SLOWS,
+            CircuitBreakerWire.SLOW, millis, false
+        );
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param window Size of the window, in requests
+     * @param failed Threshold of failed requests, in percent
+     * @param slowed Threshold of slow requests, in percent
+     * @param duration Slow call duration, in milliseconds
+     * @param millis Open duration, in milliseconds
+     * @param respond Respond with 503 instead of throwing, while open
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public CircuitBreakerWire(final Wire wire, final int window,
+        final int failed, final int slowed, final long duration,
+        final long millis, final boolean respond) {
+        this.origin = wire;
+        this.size = window;
+        this.failures = failed;
+        this.slows = slowed;
+        this.slow = duration;
+        this.open = millis;
+        this.fallback = respond;
+        this.circuits = CircuitBreakerWire.CIRCUITS.getUnchecked(this);
+    }
+
+    // @checkstyle ParameterNumber (5 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content,
+        final int connect,
+        final int read) throws IOException {
+        final CircuitBreakerWire.Circuit circuit = this.circuit(home);
+        final long start = System.nanoTime();
+        final CircuitBreakerWire.Phase permit = circuit.acquire(start);
+        final Response rsp;
+        if (permit == null) {
+            this.circuits.rejected.increment();
+            rsp = this.reject(req, home, circuit.phase.get(), start);
+        } else {
+            boolean failed = true;
+            try {
+                rsp = this.origin.send(
+                    req, home, method, headers, content, connect, read
+                );
+                failed = rsp.status() >= HttpURLConnection.HTTP_INTERNAL_ERROR;
+            } finally {
+                final long now = System.nanoTime();
+                circuit.record(
+                    permit, failed,
+                    now - start > TimeUnit.MILLISECONDS.toNanos(this.slow),
+                    now
+                );
+            }
+        }
+        return rsp;
+    }
+
+    /**
+     * State of the circuit of the host.
+     * @param home URI of the host
+     * @return State
+     */
+    public CircuitBreakerWire.State state(final String home) {
+        return this.circuit(home).phase.get().state;
+    }
+
+    /**
+     * How many requests failed fast, since the start.
+     * @return Number of requests that didn't go to the server
+     */
+    public long rejected() {
+        return this.circuits.rejected.sum();
+    }
+
+    /**
+     * State of a circuit.
+     *
+     * @since 2.0
+     */
+    public enum State {
+        /**
+         * Requests go through.
+         */
+        CLOSED,
+
+        /**
+         * Requests fail fast.
+         */
+        OPEN,
+
+        /**
+         * One request probes the host, others fail fast.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Circuit of the host.
+     * @param home URI of the host
+     * @return Circuit
+     */
+    private CircuitBreakerWire.Circuit circuit(final String home) {
+        final URI uri = URI.create(home);
+        return this.circuits.hosts.computeIfAbsent(
+            String.format("%s:%d", uri.getHost(), uri.getPort()),
+            host -> new CircuitBreakerWire.Circuit(this)
+        );
+    }
+
+    /**
+     * Fail fast.
+     * @param req Request
+     * @param home URI to fetch
+     * @param phase Current phase of the circuit
+     * @param now Current time, in nanoseconds
+     * @return Response with 503 status
+     * @throws IOException If there is no fallback
+     */
+    private Response reject(final Request req, final String home,
+        final CircuitBreakerWire.Phase phase, final long now)
+        throws IOException {
+        if (!this.fallback) {
+            throw new IOException(
+                String.format(
+                    "circuit of %s is open", URI.create(home).getHost()
+                )
+            );
+        }
+        final long left = TimeUnit.MILLISECONDS.toNanos(this.open)
+            - (now - phase.since);
+        return new DefaultResponse(
+            req, HttpURLConnection.HTTP_UNAVAILABLE, "Circuit Open",
+            new Array<>(
+                Collections.singletonList(
+                    new AbstractMap.SimpleImmutableEntry<>(
+                        "Retry-After",
+                        Long.toString(
+                            Math.max(
+                                1L,
+                                (long) Math.ceil(
+                                    // @checkstyle MagicNumber (1 line)
+                                    Math.max(0L, left) / 1_000_000_000.0
+                                )
+                            )
+                        )
+                    )
+                )
+            ),
+            new byte[0]
+        );
+    }
+
+    /**
+     * Circuits and counters of one wire.
+     *
+     * @since 2.0
+     */
+    private static final class Circuits {
+        /**
+         * Circuits by host and port.
+         */
+        private final ConcurrentMap<String, CircuitBreakerWire.Circuit>
+            hosts = new ConcurrentHashMap<>(0);
+
+        /**
+         * Requests that failed fast.
+         */
+        private final LongAdder rejected = new LongAdder();
+    }
+
+    /**
+     * Circuit of one host.
+     *
+     * <p>The current phase is replaced as a whole, by compare-and-set.
+     * While the circuit is closed, the phase stays the same object, so
+     * requests only add their outcomes to its window.
+     *
+     * @since 2.0
+     */
+    private static final class Circuit {
+        /**
+         * Current phase.
+         */
+        private final AtomicReference<CircuitBreakerWire.Phase> phase;
+
+        /**
+         * Size of windows.
+         */
+        private final int size;
+
+        /**
+         * Threshold of failed requests, in percent.
+         */
+        private final int failures;
+
+        /**
+         * Threshold of slow requests, in percent.
+         */
+        private final int slows;
+
+        /**
+         * Open duration, in nanoseconds.
+         */
+        private final long open;
+
+        /**
+         * Ctor.
+         * @param wire The wire
+         */
+        Circuit(final CircuitBreakerWire wire) {
+            this.size = wire.size;
+            this.failures = wire.failures;
+            this.slows = wire.slows;
+            this.open = TimeUnit.MILLISECONDS.toNanos(wire.open);
+            this.phase = new AtomicReference<>(
+                new CircuitBreakerWire.Phase(
+                    CircuitBreakerWire.State.CLOSED, System.nanoTime(),
+                    new CircuitBreakerWire.Window(this.size)
+                )
+            );
+        }
+
+        /**
+         * Ask for permission to send a request.
+         * @param now Current time, in nanoseconds
+         * @return Phase the request is sent in, or NULL if it must fail fast
+         */
+        CircuitBreakerWire.Phase acquire(final long now) {
+            CircuitBreakerWire.Phase permit = null;
+            boolean again = true;
+            while (again) {
+                final CircuitBreakerWire.Phase current = this.phase.get();
+                again = false;
+                if (current.state == CircuitBreakerWire.State.CLOSED) {
+                    permit = current;
+                } else if (now - current.since >= this.open) {
+                    final CircuitBreakerWire.Phase probe =
+                        new CircuitBreakerWire.Phase(
+                            CircuitBreakerWire.State.HALF_OPEN, now,
+                            current.window
+                        );
+                    if (this.phase.compareAndSet(current, probe)) {
+                        permit = probe;
+                    } else {
+                        again = true;
+                    }
+                }
+            }
+            return permit;
+        }
+
+        /**
+         * Record outcome of a request.
+         * @param permit Phase the request was sent in
+         * @param failed Did it fail?
+         * @param slowed Was it slow?
+         * @param now Current time, in nanoseconds
+         */
+        void record(final CircuitBreakerWire.Phase permit,
+            final boolean failed, final boolean slowed, final long now) {
+            if (permit.state == CircuitBreakerWire.State.CLOSED) {
+                permit.window.add(failed, slowed);
+                if (permit.window.tripped(this.failures, this.slows)) {
+                    this.phase.compareAndSet(
+                        permit,
+                        new CircuitBreakerWire.Phase(
+                            CircuitBreakerWire.State.OPEN, now, permit.window
+                        )
+                    );
+                }
+            } else if (failed || slowed) {
+                this.phase.compareAndSet(
+                    permit,
+                    new CircuitBreakerWire.Phase(
+                        CircuitBreakerWire.State.OPEN, now, permit.window
+                    )
+                );
+            } else {
+                this.phase.compareAndSet(
+                    permit,
+                    new CircuitBreakerWire.Phase(
+                        CircuitBreakerWire.State.CLOSED, now,
+                        new CircuitBreakerWire.Window(this.size)
+                    )
+                );
+            }
+        }
+    }
+
+    /**
+     * Phase of a circuit, immutable.
+     *
+     * @since 2.0
+     */
+    private static final class Phase {
+        /**
+         * State.
+         */
+        private final CircuitBreakerWire.State state;
+
+        /**
+         * When it started, in nanoseconds.
+         */
+        private final long since;
+
+        /**
+         * Window of outcomes.
+         */
+        private final CircuitBreakerWire.Window window;
+
+        /**
+         * Ctor.
+         * @param current State
+         * @param start When it started, in nanoseconds
+         * @param outcomes Window of outcomes
+         */
+        Phase(final CircuitBreakerWire.State current, final long start,
+            final CircuitBreakerWire.Window outcomes) {
+            this.state = current;
+            this.since = start;
+            this.window = outcomes;
+        }
+    }
+
+    /**
+     * Sliding window of outcomes of the last requests.
+     *
+     * <p>Outcomes are kept in a ring, as bits: the first one is set if the
+     * request failed, the second one if it was slow. Counters are adjusted
+     * by the difference between the new outcome and the one it replaces.
+     *
+     * @since 2.0
+     */
+    private static final class Window {
+        /**
+         * Outcomes.
+         */
+        private final AtomicIntegerArray ring;
+
+        /**
+         * Number of outcomes added.
+         */
+        private final AtomicLong count = new AtomicLong();
+
+        /**
+         * Failed requests in the ring.
+         */
+        private final AtomicInteger failed = new AtomicInteger();
+
+        /**
+         * Slow requests in the ring.
+         */
+        private final AtomicInteger slowed = new AtomicInteger();
+
+        /**
+         * Ctor.
+         * @param size Size of the ring
+         */
+        Window(final int size) {
+            this.ring = new AtomicIntegerArray(Math.max(1, size));
+        }
+
+        /**
+         * Add an outcome.
+         * @param failure Did the request fail?
+         * @param slow Was it slow?
+         */
+        void add(final boolean failure, final boolean slow) {
+            int outcome = 0;
+            if (failure) {
+                outcome |= 1;
+            }
+            if (slow) {
+                outcome |= 2;
+            }
+            final int old = this.ring.getAndSet(
+                (int) (this.count.getAndIncrement() % this.ring.length()),
+                outcome
+            );
+            this.failed.addAndGet((outcome & 1) - (old & 1));
+            this.slowed.addAndGet((outcome >> 1) - (old >> 1));
+        }
+
+        /**
+         * Is any threshold reached?
+         * @param failures Threshold of failed requests, in percent
+         * @param slows Threshold of slow requests, in percent
+         * @return TRUE if the circuit must open
+         */
+        boolean tripped(final int failures, final int slows) {
+            final long total = Math.min(this.count.get(), this.ring.length());
+            // @checkstyle MagicNumber (4 lines)
+            return total * 2L >= this.ring.length()
+                && (this.failed.get() * 100L >= failures * total
+                || this.slowed.get() * 100L >= slows * total);
+        }
+    }
+
+}
@@ -0,0 +1,243 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Wire that merges concurrent identical requests into one.
+ *
+ * <p>When a popular resource is requested by many threads at the same
+ * time, only the first of them goes to the server, while the others wait
+ * for its response and get exactly the same {@link Response} object:
+ *
+ * <pre> String html = new JdkRequest("http://goggle.com")
+ *   .through(CoalescingWire.class)
+ *   .fetch()
+ *   .body();</pre>
+ *
+ * <p>Only {@code GET} and {@code HEAD} requests are merged, others go
+ * through as is. Requests are identical when their methods, normalized
+ * URIs and significant headers are equal. All headers are significant
+ * by default, but you can limit them:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(CoalescingWire.class, (Object) new String[] {"Accept"})
+ *   .fetch();</pre>
+ *
+ * <p>If the request fails, all waiting threads get an {@link IOException}
+ * with the same cause. If a waiting thread is interrupted, it stops waiting
+ * with {@link InterruptedIOException}, while the request itself and other
+ * waiting threads are not affected. Requests are merged only while
+ * they are in flight, responses are not cached.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = "origin")
+@EqualsAndHashCode(of = { "origin", "vary" })
+public final class CoalescingWire implements Wire {
+
+    /**
+     * Requests in flight of all wires.
+     */
+    private static final LoadingCache<CoalescingWire, CoalescingWire.Flights>
+        FLIGHTS = CacheBuilder.newBuilder().build(
+            new CacheLoader<CoalescingWire, CoalescingWire.Flights>() {
+                @Override
+                public CoalescingWire.Flights load(final CoalescingWire key) {
+                    return new CoalescingWire.Flights();
+                }
+            }
+        );
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Names of significant headers, empty if all of them are.
+     */
+    @Immutable.Array
+    private final transient String[] vary;
+
+    /**
+     * Requests in flight.
+     */
+    private final transient CoalescingWire.Flights flights;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     */
+    public CoalescingWire(final Wire wire) {
+        this(wire, new String[0]);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param headers Names of headers significant for identity of requests,
+     *  all headers are significant if it's empty
+     */
+    public CoalescingWire(final Wire wire, final String... headers) {
+        this.origin = wire;
+        this.vary = headers.clone();
+        this.flights = CoalescingWire.FLIGHTS.getUnchecked(this);
+    }
+
+    // @checkstyle ParameterNumber (5 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content,
+        final int connect,
+        final int read) throws IOException {
+        final Response rsp;
+        if (method.equals(Request.GET) || method.equals(Request.HEAD)) {
+            final Fingerprint key =
+                new Fingerprint(method, home, headers, this.vary);
+            final CompletableFuture<Response> mine = new CompletableFuture<>();
+            final CompletableFuture<Response> theirs =
+                this.flights.calls.putIfAbsent(key, mine);
+            if (theirs == null) {
+                this.flights.upstream.increment();
+                rsp = this.lead(
+                    key, mine, req, home, method, headers, content,
+                    connect, read
+                );
+            } else {
+                this.flights.merged.increment();
+                rsp = CoalescingWire.follow(theirs);
+            }
+        } else {
+            rsp = this.origin.send(
+                req, home, method, headers, content, connect, read
+            );
+        }
+        return rsp;
+    }
+
+    /**
+     * How many requests were merged into others, since the start.
+     * @return Number of requests that didn't go to the server
+     */
+    public long coalesced() {
+        return this.flights.merged.sum();
+    }
+
+    /**
+     * How many requests went to the server, since the start.
+     * @return Number of requests that did go to the server
+     */
+    public long upstream() {
+        return this.flights.upstream.sum();
+    }
+
+    /**
+     * Make the request and share its result with the followers.
+     * @param key Identity of the request
+     * @param future Future the followers are waiting for
+     * @param req Request
+     * @param home URI to fetch
+     * @param method HTTP method
+     * @param headers Headers
+     * @param content HTTP body
+     * @param connect The connect timeout
+     * @param read The read timeout
+     * @return Response
+     * @throws IOException If fails
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    private Response lead(final Fingerprint key,
+        final CompletableFuture<Response> future, final Request req,
+        final String home, final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content, final int connect, final int read)
+        throws IOException {
+        try {
+            final Response rsp = this.origin.send(
+                req, home, method, headers, content, connect, read
+            );
+            this.flights.calls.remove(key, future);
+            future.complete(rsp);
+            return rsp;
+        // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final Throwable ex) {
+            this.flights.calls.remove(key, future);
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Wait for the response of the leader.
+     * @param future Future of the leader
+     * @return Response
+     * @throws IOException If the leader fails or the thread is interrupted
+     */
+    private static Response follow(final CompletableFuture<Response> future)
+        throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException iex = new InterruptedIOException(
+                "interrupted while waiting for identical request"
+            );
+            iex.initCause(ex);
+            throw iex;
+        } catch (final ExecutionException ex) {
+            throw new IOException(ex.getCause().getMessage(), ex.getCause());
+        }
+    }
+
+    /**
+     * Requests in flight and counters of one wire.
+     *
+     * @since 2.0
+     */
+    private static final class Flights {
+        /**
+         * Futures of requests in flight.
+         */
+        private final ConcurrentMap<Fingerprint, CompletableFuture<Response>>
+            calls = new ConcurrentHashMap<>(0);
+
+        /**
+         * Requests merged into others.
+         */
+        private final LongAdder merged = new LongAdder();
+
+        /**
+         * Requests sent to the server.
+         */
+        private final LongAdder upstream = new LongAdder();
+    }
+
+}
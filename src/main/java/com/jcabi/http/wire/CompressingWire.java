@@ -0,0 +1,208 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.immutable.Array;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Wire that keeps bodies of responses compressed.
+ *
+ * <p>Bodies of {@code GET} responses are compressed with {@code Deflater}
+ * and inflated on every access. Put it under a caching wire, and the cache
+ * will hold several times more JSON or XML responses in the same memory:
+ *
+ * <pre> String html = new JdkRequest("http://goggle.com")
+ *   .through(CompressingWire.class)
+ *   .through(CachingWire.class)
+ *   .fetch()
+ *   .body();</pre>
+ *
+ * <p>Under {@link FcWire}, the bodies are stored in files compressed too.
+ * Bodies smaller than the threshold, 1Kb by default, and those that don't
+ * get smaller are left as they are:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(CompressingWire.class, 4096)
+ *   .through(FcWire.class)
+ *   .fetch();</pre>
+ *
+ * <p>The ratio and the time of compression of every body are logged at
+ * debug level, and the totals are available from the wire. Equal wires
+ * share their totals.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = "origin")
+@EqualsAndHashCode(of = { "origin", "threshold" })
+public final class CompressingWire implements Wire {
+
+    /**
+     * Default threshold.
+     */
+    private static final int THRESHOLD = 1 << 10;
+
+    /**
+     * Totals of all wires.
+     */
+    private static final LoadingCache<CompressingWire, CompressingWire.Totals>
+        TOTALS = CacheBuilder.newBuilder().build(
+            new CacheLoader<CompressingWire, CompressingWire.Totals>() {
+                @Override
+                public CompressingWire.Totals load(final CompressingWire key) {
+                    return new CompressingWire.Totals();
+                }
+            }
+        );
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Smallest body to compress, in bytes.
+     */
+    private final transient int threshold;
+
+    /**
+     * Totals.
+     */
+    private final transient CompressingWire.Totals totals;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     */
+    public CompressingWire(final Wire wire) {
+        this(wire, CompressingWire.THRESHOLD);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param min Smallest body to compress, in bytes
+     */
+    public CompressingWire(final Wire wire, final int min) {
+        this.origin = wire;
+        this.threshold = min;
+        this.totals = CompressingWire.TOTALS.getUnchecked(this);
+    }
+
+    // @checkstyle ParameterNumber (5 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content,
+        final int connect,
+        final int read) throws IOException {
+        Response rsp = this.origin.send(
+            req, home, method, headers, content, connect, read
+        );
+        if (method.equals(Request.GET)) {
+            final byte[] body = rsp.binary();
+            if (body.length >= this.threshold) {
+                final long start = System.nanoTime();
+                final byte[] packed = Deflated.deflate(body);
+                final long nanos = System.nanoTime() - start;
+                this.totals.deflating.add(nanos);
+                Logger.debug(
+                    this, "%s: %d bytes deflated into %d (%.0f%%) in %[nano]s",
+                    home, body.length, packed.length,
+                    // @checkstyle MagicNumber (1 line)
+                    packed.length * 100.0 / body.length, nanos
+                );
+                if (packed.length < body.length) {
+                    this.totals.raw.add(body.length);
+                    this.totals.packed.add(packed.length);
+                    rsp = new Deflated(
+                        rsp.back(), rsp.status(), rsp.reason(),
+                        new Array<>(FcEntry.headers(rsp)),
+                        ByteBuffer.wrap(packed), body.length,
+                        this.totals.inflating
+                    );
+                }
+            }
+        }
+        return rsp;
+    }
+
+    /**
+     * Compressed size of all bodies kept compressed, relative to their
+     * original size, since the start.
+     * @return Ratio, from zero to one, or one if nothing was compressed
+     */
+    public double ratio() {
+        double ratio = 1.0;
+        final long raw = this.totals.raw.sum();
+        if (raw > 0L) {
+            ratio = (double) this.totals.packed.sum() / raw;
+        }
+        return ratio;
+    }
+
+    /**
+     * Nanoseconds spent compressing, since the start.
+     * @return Nanoseconds
+     */
+    public long deflating() {
+        return this.totals.deflating.sum();
+    }
+
+    /**
+     * Nanoseconds spent inflating, since the start.
+     * @return Nanoseconds
+     */
+    public long inflating() {
+        return this.totals.inflating.sum();
+    }
+
+    /**
+     * Totals of one wire.
+     *
+     * @since 2.0
+     */
+    private static final class Totals {
+        /**
+         * Original bytes of bodies kept compressed.
+         */
+        private final LongAdder raw = new LongAdder();
+
+        /**
+         * Compressed bytes of bodies kept compressed.
+         */
+        private final LongAdder packed = new LongAdder();
+
+        /**
+         * Nanoseconds spent compressing.
+         */
+        private final LongAdder deflating = new LongAdder();
+
+        /**
+         * Nanoseconds spent inflating.
+         */
+        private final LongAdder inflating = new LongAdder();
+    }
+
+}
@@ -0,0 +1,449 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Wire that limits the number of requests in flight to every host, and
+ * adapts the limit to the latency of the host ("adaptive bulkhead").
+ *
+ * <p>When the limit is reached, the request waits for a free slot, but
+ * no longer than the given time, and then fails with {@link IOException}.
+ * By default, the limit starts with 20 requests and never goes above 200,
+ * and a request waits for a second at most:
+ *
+ * <pre> String html = new JdkRequest("http://goggle.com")
+ *   .through(ConcurrencyLimitingWire.class)
+ *   .fetch()
+ *   .body();</pre>
+ *
+ * <p>The limit is adapted by AIMD: every request that succeeds in time
+ * adds {@code 1/limit} to it, while the limit is used at least by half,
+ * and every request that fails, with an exception, {@code 429} or
+ * {@code 503}, or takes more than twice the average latency of the host,
+ * multiplies it by 0.9. The average is a long-term moving one, so that
+ * the limit shrinks when the host starts queueing requests and grows back
+ * when it's fast again, the same as a gradient limiter does. The initial
+ * and maximum limits and the longest wait, in milliseconds, zero to fail
+ * fast, are configurable:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(ConcurrencyLimitingWire.class, 10, 50, 0L)
+ *   .fetch();</pre>
+ *
+ * <p>Equal wires share their limits, while any of them is in use, and
+ * the limits are kept by host and port.
+ * Slots are taken and given back by compare-and-set, a request locks
+ * only when it has to wait.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = "origin")
+@EqualsAndHashCode(of = { "origin", "initial", "max", "wait" })
+@SuppressWarnings("PMD.TooManyMethods")
+public final class ConcurrencyLimitingWire implements Wire {
+
+    /**
+     * Default initial limit.
+     */
+    private static final int INITIAL = 20;
+
+    /**
+     * Default maximum limit.
+     */
+    private static final int MAX = 200;
+
+    /**
+     * Default longest wait, in milliseconds.
+     */
+    private static final long WAIT = 1000L;
+
+    /**
+     * Limiters of all wires, kept while there are wires using them.
+     */
+    private static final LoadingCache<ConcurrencyLimitingWire,
+        ConcurrencyLimitingWire.Limiters> LIMITERS =
+        CacheBuilder.newBuilder().weakValues().build(
+            new CacheLoader<ConcurrencyLimitingWire,
+                ConcurrencyLimitingWire.Limiters>() {
+                @Override
+                public ConcurrencyLimitingWire.Limiters load(
+                    final ConcurrencyLimitingWire key) {
+                    return new ConcurrencyLimitingWire.Limiters();
+                }
+            }
+        );
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Initial limit.
+     */
+    private final transient int initial;
+
+    /**
+     * Maximum limit.
+     */
+    private final transient int max;
+
+    /**
+     * Longest wait for a slot, in milliseconds.
+     */
+    private final transient long wait;
+
+    /**
+     * Limiters.
+     */
+    private final transient ConcurrencyLimitingWire.Limiters limiters;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     */
+    public ConcurrencyLimitingWire(final Wire wire) {
+        this(
+            wire, ConcurrencyLimitingWire.INITIAL, ConcurrencyLimitingWire.MAX,
+            ConcurrencyLimitingWire.WAIT
+        );
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param start Initial limit
+     * @param most Maximum limit
+     * @param longest Longest wait for a slot, in milliseconds, zero to
+     *  fail fast
+     */
+    public ConcurrencyLimitingWire(final Wire wire, final int start,
+        final int most, final long longest) {
+        this.origin = wire;
+        this.initial = start;
+        this.max = most;
+        this.wait = longest;
+        this.limiters = ConcurrencyLimitingWire.LIMITERS.getUnchecked(this);
+    }
+
+    // @checkstyle ParameterNumber (5 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content,
+        final int connect,
+        final int read) throws IOException {
+        final ConcurrencyLimitingWire.Limiter limiter = this.limiter(home);
+        if (!limiter.acquire(this.wait)) {
+            this.limiters.rejected.increment();
+            throw new IOException(
+                String.format(
+                    "too many requests in flight to %s, the limit is %d",
+                    URI.create(home).getHost(), limiter.limit()
+                )
+            );
+        }
+        final long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            final Response rsp = this.origin.send(
+                req, home, method, headers, content, connect, read
+            );
+            dropped = rsp.status() == HttpURLConnection.HTTP_UNAVAILABLE
+                // @checkstyle MagicNumber (1 line)
+                || rsp.status() == 429;
+            return rsp;
+        } finally {
+            limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    /**
+     * Current limit of the host.
+     * @param home URI of the host
+     * @return Maximum number of requests in flight
+     */
+    public int limit(final String home) {
+        return this.limiter(home).limit();
+    }
+
+    /**
+     * Requests in flight to the host.
+     * @param home URI of the host
+     * @return Number of requests
+     */
+    public int inflight(final String home) {
+        return this.limiter(home).inflight.get();
+    }
+
+    /**
+     * How many requests failed without a slot, since the start.
+     * @return Number of requests
+     */
+    public long rejected() {
+        return this.limiters.rejected.sum();
+    }
+
+    /**
+     * Limiter of the host.
+     * @param home URI of the host
+     * @return Limiter
+     */
+    private ConcurrencyLimitingWire.Limiter limiter(final String home) {
+        final URI uri = URI.create(home);
+        return this.limiters.hosts.computeIfAbsent(
+            String.format("%s:%d", uri.getHost(), uri.getPort()),
+            host -> new ConcurrencyLimitingWire.Limiter(this.initial, this.max)
+        );
+    }
+
+    /**
+     * Limiters and counters of one wire.
+     *
+     * @since 2.0
+     */
+    private static final class Limiters {
+        /**
+         * Limiters by host and port.
+         */
+        private final ConcurrentMap<String, ConcurrencyLimitingWire.Limiter>
+            hosts = new ConcurrentHashMap<>(0);
+
+        /**
+         * Requests that failed without a slot.
+         */
+        private final LongAdder rejected = new LongAdder();
+    }
+
+    /**
+     * Limiter of one host.
+     *
+     * <p>The limit and the average latency are doubles, kept as bits in
+     * atomic longs and changed by compare-and-set.
+     *
+     * @since 2.0
+     */
+    private static final class Limiter {
+        /**
+         * How much slower than the average a request may be.
+         */
+        private static final double TOLERANCE = 2.0;
+
+        /**
+         * Multiplier of the limit on failure.
+         */
+        private static final double BACKOFF = 0.9;
+
+        /**
+         * Weight of a new latency in the average.
+         */
+        private static final double SMOOTHING = 0.01;
+
+        /**
+         * Maximum limit.
+         */
+        private final int max;
+
+        /**
+         * Current limit.
+         */
+        private final AtomicLong current;
+
+        /**
+         * Average latency, in nanoseconds, zero if there is none yet.
+         */
+        private final AtomicLong average = new AtomicLong(
+            Double.doubleToLongBits(0.0)
+        );
+
+        /**
+         * Requests in flight.
+         */
+        private final AtomicInteger inflight = new AtomicInteger();
+
+        /**
+         * Threads waiting for a slot.
+         */
+        private final AtomicInteger waiting = new AtomicInteger();
+
+        /**
+         * Monitor of waiting threads.
+         */
+        private final Object lock = new Object();
+
+        /**
+         * Ctor.
+         * @param initial Initial limit
+         * @param most Maximum limit
+         */
+        Limiter(final int initial, final int most) {
+            this.max = Math.max(1, most);
+            this.current = new AtomicLong(
+                Double.doubleToLongBits(
+                    Math.max(1.0, Math.min(initial, this.max))
+                )
+            );
+        }
+
+        /**
+         * Current limit.
+         * @return Maximum number of requests in flight
+         */
+        int limit() {
+            return (int) Double.longBitsToDouble(this.current.get());
+        }
+
+        /**
+         * Take a slot, waiting for it if necessary.
+         * @param millis Longest wait, in milliseconds
+         * @return TRUE if the slot is taken
+         * @throws IOException If interrupted
+         */
+        boolean acquire(final long millis) throws IOException {
+            boolean taken = this.take();
+            if (!taken && millis > 0L) {
+                final long deadline = System.nanoTime()
+                    + TimeUnit.MILLISECONDS.toNanos(millis);
+                this.waiting.incrementAndGet();
+                try {
+                    synchronized (this.lock) {
+                        taken = this.take();
+                        long left = deadline - System.nanoTime();
+                        while (!taken && left > 0L) {
+                            TimeUnit.NANOSECONDS.timedWait(this.lock, left);
+                            taken = this.take();
+                            left = deadline - System.nanoTime();
+                        }
+                    }
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    final InterruptedIOException error =
+                        new InterruptedIOException(
+                            "interrupted while waiting for a slot"
+                        );
+                    error.initCause(ex);
+                    throw error;
+                } finally {
+                    this.waiting.decrementAndGet();
+                }
+            }
+            return taken;
+        }
+
+        /**
+         * Give the slot back and adapt the limit.
+         * @param nanos Latency of the request, in nanoseconds
+         * @param dropped Did the request fail?
+         */
+        void release(final long nanos, final boolean dropped) {
+            final int busy = this.inflight.getAndDecrement();
+            final double avg = this.average(nanos);
+            final boolean slow = avg > 0.0
+                && nanos > avg * ConcurrencyLimitingWire.Limiter.TOLERANCE;
+            this.adapt(dropped || slow, busy);
+            if (this.waiting.get() > 0) {
+                synchronized (this.lock) {
+                    this.lock.notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Take a slot, if there is one.
+         * @return TRUE if it's taken
+         */
+        private boolean take() {
+            boolean taken = false;
+            int busy = this.inflight.get();
+            while (!taken && busy < this.limit()) {
+                taken = this.inflight.compareAndSet(busy, busy + 1);
+                busy = this.inflight.get();
+            }
+            return taken;
+        }
+
+        /**
+         * Add the latency to the average.
+         * @param nanos Latency, in nanoseconds
+         * @return Average before the latency was added, zero if none
+         */
+        private double average(final long nanos) {
+            long bits;
+            double before;
+            double after;
+            do {
+                bits = this.average.get();
+                before = Double.longBitsToDouble(bits);
+                if (before == 0.0) {
+                    after = nanos;
+                } else {
+                    after = before + (nanos - before)
+                        * ConcurrencyLimitingWire.Limiter.SMOOTHING;
+                }
+            } while (
+                !this.average.compareAndSet(
+                    bits, Double.doubleToLongBits(after)
+                )
+            );
+            return before;
+        }
+
+        /**
+         * Increase the limit additively or decrease it multiplicatively.
+         * @param failed Did the request fail or was it slow?
+         * @param busy Requests in flight when it finished, including itself
+         */
+        private void adapt(final boolean failed, final int busy) {
+            long bits;
+            double before;
+            double after;
+            do {
+                bits = this.current.get();
+                before = Double.longBitsToDouble(bits);
+                if (failed) {
+                    after = Math.max(
+                        1.0, before * ConcurrencyLimitingWire.Limiter.BACKOFF
+                    );
+                } else if (busy * 2.0 >= before) {
+                    after = Math.min((double) this.max, before + 1.0 / before);
+                } else {
+                    after = before;
+                }
+            } while (
+                after != before && !this.current.compareAndSet(
+                    bits, Double.doubleToLongBits(after)
+                )
+            );
+        }
+    }
+
+}
@@ -0,0 +1,480 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.cache.Cache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.immutable.Array;
+import com.jcabi.log.Logger;
+import jakarta.ws.rs.core.HttpHeaders;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.ToString;
+
+/**
+ * Wire that caches GET requests and revalidates them with both ETag
+ * and Last-Modified.
+ *
+ * <p>The response is kept if it has an {@code ETag} or
+ * a {@code Last-Modified} header, or both. Next time the request is
+ * sent with {@code If-None-Match} and {@code If-Modified-Since} together,
+ * and if the server says {@code 304 Not Modified}, the cached response is
+ * returned, with the headers updated by the ones in the 304 response:
+ *
+ * <pre> String html = new JdkRequest("http://goggle.com")
+ *   .through(ConditionalCachingWire.class)
+ *   .fetch()
+ *   .body();</pre>
+ *
+ * <p>Weak ETags, like {@code W/"xyz"}, are sent as they are, and they are
+ * compared weakly: if the 304 response has an ETag that doesn't match the
+ * cached one even weakly, the cached response is dropped and the request
+ * is sent again, without conditions.
+ *
+ * <p>The wire may also return the cached response right away and
+ * revalidate it in background, so that the next request gets the fresh
+ * one. Only one revalidation of a response is in flight at a time:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(ConditionalCachingWire.class, true)
+ *   .fetch();</pre>
+ *
+ * <p>Responses are kept in a bounded storage, the same as in
+ * {@link ETagCachingWire}. Requests that have their own conditions and
+ * requests other than GET go through as they are.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = "origin")
+public final class ConditionalCachingWire implements Wire, Measured {
+
+    /**
+     * Default maximum total size of bodies in bytes.
+     */
+    private static final long SIZE = 16L << 20;
+
+    /**
+     * Headers of 304 responses that don't describe the cached body.
+     */
+    private static final Collection<String> IGNORED =
+        ConditionalCachingWire.ignored();
+
+    /**
+     * Background revalidator of all wires.
+     */
+    private static final ExecutorService REFRESHER =
+        Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("ConditionalCachingWire-refresher-%d")
+                .build()
+        );
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Cache.
+     */
+    private final transient Cache<Callable<Response>, Response> cache;
+
+    /**
+     * Revalidate in background?
+     */
+    private final transient boolean background;
+
+    /**
+     * Keys of responses being revalidated in background.
+     */
+    private final transient Set<Callable<Response>> refreshing;
+
+    /**
+     * Statistics of the cache.
+     */
+    private final transient CacheStats stats;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     */
+    public ConditionalCachingWire(final Wire wire) {
+        this(wire, false);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param refresh Return cached responses right away and revalidate
+     *  them in background
+     */
+    public ConditionalCachingWire(final Wire wire, final boolean refresh) {
+        this(
+            wire,
+            CachingWire.storage(0L, ConditionalCachingWire.SIZE, 0L, 0L)
+                .build(),
+            refresh
+        );
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param storage Cache, which may be shared with {@link CachingWire}
+     * @param refresh Return cached responses right away and revalidate
+     *  them in background
+     */
+    public ConditionalCachingWire(final Wire wire,
+        final Cache<Callable<Response>, Response> storage,
+        final boolean refresh) {
+        this.origin = wire;
+        this.cache = storage;
+        this.background = refresh;
+        this.refreshing = ConcurrentHashMap.newKeySet();
+        this.stats = CacheStats.of(storage);
+    }
+
+    // @checkstyle ParameterNumber (5 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content,
+        final int connect,
+        final int read) throws IOException {
+        final Response rsp;
+        if (method.equals(Request.GET)
+            && !ConditionalCachingWire.conditional(headers)) {
+            rsp = this.fetch(req, home, headers, content, connect, read);
+        } else {
+            rsp = this.origin.send(
+                req, home, method, headers, content, connect, read
+            );
+        }
+        return rsp;
+    }
+
+    @Override
+    public CacheStats stats() {
+        return this.stats;
+    }
+
+    /**
+     * Fetch the GET response, from the cache if possible.
+     * @param req Request
+     * @param home URI to fetch
+     * @param headers Headers
+     * @param content HTTP body
+     * @param connect The connect timeout
+     * @param read The read timeout
+     * @return Response
+     * @throws IOException If fails
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    private Response fetch(final Request req, final String home,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content, final int connect, final int read)
+        throws IOException {
+        final Callable<Response> key = new CachingWire.Key(
+            ConditionalCachingWire.class,
+            new Fingerprint(Request.GET, home, Collections.emptyList()),
+            this.origin, connect, read
+        );
+        final Response cached = this.cache.getIfPresent(key);
+        final Response rsp;
+        this.stats.request();
+        if (cached == null) {
+            final long start = System.nanoTime();
+            try {
+                rsp = this.origin.send(
+                    req, home, Request.GET, headers, content, connect, read
+                );
+            } finally {
+                this.stats.miss(System.nanoTime() - start);
+            }
+            this.store(key, rsp);
+        } else if (this.background) {
+            this.refresh(key, cached, req, home, headers, connect, read);
+            rsp = cached;
+        } else {
+            rsp = this.revalidate(
+                key, cached, req, home, headers, content, connect, read
+            );
+        }
+        return rsp;
+    }
+
+    /**
+     * Revalidate the cached response in background, unless it is being
+     * revalidated already.
+     * @param key Key in the cache
+     * @param cached Cached response
+     * @param req Request
+     * @param home URI to fetch
+     * @param headers Headers
+     * @param connect The connect timeout
+     * @param read The read timeout
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    private void refresh(final Callable<Response> key, final Response cached,
+        final Request req, final String home,
+        final Collection<Map.Entry<String, String>> headers,
+        final int connect, final int read) {
+        if (this.refreshing.add(key)) {
+            ConditionalCachingWire.REFRESHER.execute(
+                () -> {
+                    try {
+                        this.revalidate(
+                            key, cached, req, home, headers,
+                            new ByteArrayInputStream(new byte[0]),
+                            connect, read
+                        );
+                    } catch (final IOException ex) {
+                        Logger.warn(
+                            this, "failed to revalidate %s: %[exception]s",
+                            home, ex
+                        );
+                    } finally {
+                        this.refreshing.remove(key);
+                    }
+                }
+            );
+        }
+    }
+
+    /**
+     * Revalidate the cached response with the server.
+     *
+     * <p>A new response is counted as a miss only when it's returned
+     * to the caller, not in background.
+     *
+     * @param key Key in the cache
+     * @param cached Cached response
+     * @param req Request
+     * @param home URI to fetch
+     * @param headers Headers
+     * @param content HTTP body
+     * @param connect The connect timeout
+     * @param read The read timeout
+     * @return Cached response, updated, or a new one
+     * @throws IOException If fails
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    private Response revalidate(final Callable<Response> key,
+        final Response cached, final Request req, final String home,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content, final int connect, final int read)
+        throws IOException {
+        final long start = System.nanoTime();
+        final Response fresh;
+        try {
+            fresh = this.origin.send(
+                req, home, Request.GET,
+                ConditionalCachingWire.conditions(headers, cached),
+                content, connect, read
+            );
+        } catch (final IOException ex) {
+            if (!this.background) {
+                this.stats.miss(System.nanoTime() - start);
+            }
+            throw ex;
+        }
+        this.stats.revalidated();
+        Response rsp = fresh;
+        if (fresh.status() == HttpURLConnection.HTTP_NOT_MODIFIED
+            && ConditionalCachingWire.matches(cached, fresh)) {
+            rsp = ConditionalCachingWire.merge(req, cached, fresh);
+        } else {
+            if (fresh.status() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                this.cache.invalidate(key);
+                rsp = this.origin.send(
+                    req, home, Request.GET, headers,
+                    new ByteArrayInputStream(new byte[0]), connect, read
+                );
+            }
+            if (!this.background) {
+                this.stats.miss(System.nanoTime() - start);
+            }
+        }
+        this.store(key, rsp);
+        return rsp;
+    }
+
+    /**
+     * Keep the response if it has validators, or drop the cached one.
+     * @param key Key in the cache
+     * @param rsp The response
+     */
+    private void store(final Callable<Response> key, final Response rsp) {
+        if (rsp.status() == HttpURLConnection.HTTP_OK
+            && (rsp.headers().containsKey(HttpHeaders.ETAG)
+            || rsp.headers().containsKey(HttpHeaders.LAST_MODIFIED))) {
+            this.cache.put(key, rsp);
+        } else {
+            this.cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Request headers with conditions of the cached response.
+     * @param headers Original headers
+     * @param cached Cached response
+     * @return Headers with {@code If-None-Match} and
+     *  {@code If-Modified-Since}, if the response has validators for them
+     */
+    private static Collection<Map.Entry<String, String>> conditions(
+        final Collection<Map.Entry<String, String>> headers,
+        final Response cached) {
+        final Collection<Map.Entry<String, String>> all =
+            new ArrayList<>(headers.size() + 2);
+        all.addAll(headers);
+        final List<String> etag = cached.headers().get(HttpHeaders.ETAG);
+        if (etag != null && !etag.isEmpty()) {
+            all.add(
+                new AbstractMap.SimpleImmutableEntry<>(
+                    HttpHeaders.IF_NONE_MATCH, etag.get(0)
+                )
+            );
+        }
+        final List<String> modified =
+            cached.headers().get(HttpHeaders.LAST_MODIFIED);
+        if (modified != null && !modified.isEmpty()) {
+            all.add(
+                new AbstractMap.SimpleImmutableEntry<>(
+                    HttpHeaders.IF_MODIFIED_SINCE, modified.get(0)
+                )
+            );
+        }
+        return all;
+    }
+
+    /**
+     * Does the 304 response belong to the cached one?
+     *
+     * <p>ETags are compared weakly, see RFC 7232 §2.3.2, and a 304
+     * response without an ETag matches any cached response.
+     *
+     * @param cached Cached response
+     * @param fresh The 304 response
+     * @return TRUE if it does
+     */
+    private static boolean matches(final Response cached,
+        final Response fresh) {
+        final List<String> theirs = fresh.headers().get(HttpHeaders.ETAG);
+        final List<String> ours = cached.headers().get(HttpHeaders.ETAG);
+        return theirs == null || theirs.isEmpty()
+            || ours != null && !ours.isEmpty()
+            && ConditionalCachingWire.opaque(ours.get(0))
+            .equals(ConditionalCachingWire.opaque(theirs.get(0)));
+    }
+
+    /**
+     * Opaque part of the ETag, without the weakness indicator.
+     * @param etag The ETag
+     * @return Opaque part
+     */
+    private static String opaque(final String etag) {
+        String tag = etag.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        return tag;
+    }
+
+    /**
+     * Cached response with the headers updated by the 304 response.
+     * @param req Request
+     * @param cached Cached response
+     * @param fresh The 304 response
+     * @return New response
+     */
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    private static Response merge(final Request req, final Response cached,
+        final Response fresh) {
+        final Map<String, List<String>> merged =
+            new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        merged.putAll(cached.headers());
+        for (final Map.Entry<String, List<String>> header
+            : fresh.headers().entrySet()) {
+            if (!ConditionalCachingWire.IGNORED.contains(header.getKey())) {
+                merged.put(header.getKey(), header.getValue());
+            }
+        }
+        final Collection<Map.Entry<String, String>> headers =
+            new ArrayList<>(merged.size());
+        for (final Map.Entry<String, List<String>> header
+            : merged.entrySet()) {
+            for (final String value : header.getValue()) {
+                headers.add(
+                    new AbstractMap.SimpleImmutableEntry<>(
+                        header.getKey(), value
+                    )
+                );
+            }
+        }
+        return new DefaultResponse(
+            req, cached.status(), cached.reason(), new Array<>(headers),
+            cached.binary()
+        );
+    }
+
+    /**
+     * Names of headers of 304 responses that don't describe the cached
+     * body, in any case.
+     * @return Names
+     */
+    private static Collection<String> ignored() {
+        final Collection<String> names =
+            new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        names.add(HttpHeaders.CONTENT_LENGTH);
+        names.add("Transfer-Encoding");
+        return names;
+    }
+
+    /**
+     * Does the request have its own conditions?
+     * @param headers Request headers
+     * @return TRUE if it does
+     */
+    private static boolean conditional(
+        final Collection<Map.Entry<String, String>> headers) {
+        boolean found = false;
+        for (final Map.Entry<String, String> header : headers) {
+            if (HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(header.getKey())
+                || HttpHeaders.IF_MODIFIED_SINCE
+                .equalsIgnoreCase(header.getKey())) {
+                found = true;
+                break;
+            }
+        }
+        return found;
+    }
+
+}
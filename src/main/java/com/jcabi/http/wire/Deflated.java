@@ -0,0 +1,248 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.immutable.Array;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Response with its body compressed by {@link Deflater}.
+ *
+ * <p>The body is inflated on every call of {@link #binary()} and
+ * {@link #body()}, it's never kept inflated. Deflaters and inflaters are
+ * taken from pools, so their native memory is allocated only once per
+ * thread that uses them at the same time.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@Immutable
+final class Deflated implements Response {
+
+    /**
+     * Maximum number of idle deflaters and inflaters in the pools.
+     */
+    private static final int POOL =
+        Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * Idle deflaters.
+     */
+    private static final Queue<Deflater> DEFLATERS =
+        new ConcurrentLinkedQueue<>();
+
+    /**
+     * Idle inflaters.
+     */
+    private static final Queue<Inflater> INFLATERS =
+        new ConcurrentLinkedQueue<>();
+
+    /**
+     * Response with everything but the body.
+     */
+    private final transient Response shell;
+
+    /**
+     * Compressed body.
+     */
+    private final transient ByteBuffer packed;
+
+    /**
+     * Length of the body.
+     */
+    private final transient int length;
+
+    /**
+     * Nanoseconds spent inflating, since the start.
+     */
+    private final transient LongAdder nanos;
+
+    /**
+     * Ctor.
+     * @param req Request
+     * @param status Status
+     * @param reason Reason
+     * @param headers Headers
+     * @param body Compressed body, from position to limit
+     * @param len Length of the body
+     * @param inflating Where to count nanoseconds spent inflating
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    Deflated(final Request req, final int status, final String reason,
+        final Array<Map.Entry<String, String>> headers, final ByteBuffer body,
+        final int len, final LongAdder inflating) {
+        this.shell = new DefaultResponse(
+            req, status, reason, headers, new byte[0]
+        );
+        this.packed = body.slice().asReadOnlyBuffer();
+        this.length = len;
+        this.nanos = inflating;
+    }
+
+    /**
+     * Compressed body.
+     * @return Buffer, from position to limit
+     */
+    public ByteBuffer compressed() {
+        return this.packed.duplicate();
+    }
+
+    /**
+     * Length of the body, inflated.
+     * @return Bytes
+     */
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public Request back() {
+        return this.shell.back();
+    }
+
+    @Override
+    public int status() {
+        return this.shell.status();
+    }
+
+    @Override
+    public String reason() {
+        return this.shell.reason();
+    }
+
+    @Override
+    public Map<String, List<String>> headers() {
+        return this.shell.headers();
+    }
+
+    @Override
+    public String body() {
+        return new DefaultResponse(
+            this.shell.back(), this.shell.status(), this.shell.reason(),
+            new Array<>(FcEntry.headers(this.shell)), this.binary()
+        ).body();
+    }
+
+    @Override
+    public byte[] binary() {
+        final long start = System.nanoTime();
+        final ByteBuffer buf = this.packed.duplicate();
+        final byte[] input = new byte[buf.remaining()];
+        buf.get(input);
+        Inflater inflater = Deflated.INFLATERS.poll();
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        final byte[] body = new byte[this.length];
+        try {
+            inflater.setInput(input);
+            int done = 0;
+            boolean stuck = false;
+            while (done < body.length && !inflater.finished() && !stuck) {
+                final int count =
+                    inflater.inflate(body, done, body.length - done);
+                stuck = count == 0
+                    && (inflater.needsInput() || inflater.needsDictionary());
+                done += count;
+            }
+            if (done != body.length) {
+                throw new IllegalStateException(
+                    String.format(
+                        "%d bytes inflated instead of %d", done, body.length
+                    )
+                );
+            }
+        } catch (final DataFormatException ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            Deflated.release(inflater);
+        }
+        this.nanos.add(System.nanoTime() - start);
+        return body;
+    }
+
+    // @checkstyle MethodName (4 lines)
+    @Override
+    @SuppressWarnings("PMD.ShortMethodName")
+    public <T extends Response> T as(final Class<T> type) {
+        try {
+            return type.getDeclaredConstructor(Response.class)
+                .newInstance(this);
+        } catch (final InstantiationException
+            | IllegalAccessException | NoSuchMethodException
+            | InvocationTargetException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s\n%d bytes deflated into %d", this.shell, this.length,
+            this.packed.remaining()
+        );
+    }
+
+    /**
+     * Compress the bytes.
+     * @param raw The bytes
+     * @return Compressed bytes
+     */
+    public static byte[] deflate(final byte[] raw) {
+        Deflater deflater = Deflated.DEFLATERS.poll();
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        // @checkstyle MagicNumber (2 lines)
+        final ByteArrayOutputStream out =
+            new ByteArrayOutputStream(raw.length / 2 + 16);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            // @checkstyle MagicNumber (1 line)
+            final byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+        } finally {
+            deflater.reset();
+            if (Deflated.DEFLATERS.size() < Deflated.POOL) {
+                Deflated.DEFLATERS.offer(deflater);
+            } else {
+                deflater.end();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Put the inflater back into the pool, or release it.
+     * @param inflater The inflater
+     */
+    private static void release(final Inflater inflater) {
+        inflater.reset();
+        if (Deflated.INFLATERS.size() < Deflated.POOL) {
+            Deflated.INFLATERS.offer(inflater);
+        } else {
+            inflater.end();
+        }
+    }
+
+}
@@ -4,9 +4,12 @@
  */
 package com.jcabi.http.wire;
 
+import com.google.common.cache.Cache;
 import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Response;
 import com.jcabi.http.Wire;
 import jakarta.ws.rs.core.HttpHeaders;
+import java.util.concurrent.Callable;
 import lombok.ToString;
 
 /**
@@ -28,6 +31,16 @@ import lombok.ToString;
  * <p>Client will take response from the cache if it is present
  * or will query resource for that.
  *
+ * <p>Since 2.0, the cache is bounded, by the total size of bodies (16Mb
+ * by default) and, optionally, by the number of entries. Least recently
+ * used entries are evicted first:
+ *
+ * <pre>{@code
+ *    new JdkRequest(uri)
+ *        .through(ETagCachingWire.class, 1000L, 1L << 24)
+ *        .fetch();
+ * }</pre>
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 2.0
@@ -43,4 +56,28 @@ public final class ETagCachingWire extends AbstractHeaderBasedCachingWire {
     public ETagCachingWire(final Wire wire) {
         super(HttpHeaders.ETAG, HttpHeaders.IF_NONE_MATCH, wire);
     }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param max Maximum number of entries, zero if unbounded
+     * @param size Maximum total size of bodies in bytes, zero if unbounded
+     * @since 2.0
+     */
+    public ETagCachingWire(final Wire wire, final long max,
+        final long size) {
+        super(HttpHeaders.ETAG, HttpHeaders.IF_NONE_MATCH, wire, max, size);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param storage Cache, which may be shared with other caching wires,
+     *  each of them keeps responses under keys of its own
+     * @since 2.0
+     */
+    public ETagCachingWire(final Wire wire,
+        final Cache<Callable<Response>, Response> storage) {
+        super(HttpHeaders.ETAG, HttpHeaders.IF_NONE_MATCH, wire, storage);
+    }
 }
@@ -5,6 +5,7 @@
 package com.jcabi.http.wire;
 
 import com.google.common.base.Joiner;
+import com.google.common.util.concurrent.Striped;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.http.Request;
 import com.jcabi.http.Response;
@@ -13,24 +14,23 @@ import com.jcabi.http.request.DefaultResponse;
 import com.jcabi.immutable.Array;
 import com.jcabi.log.Logger;
 import jakarta.json.Json;
-import jakarta.json.JsonArrayBuilder;
 import jakarta.json.JsonObject;
-import jakarta.json.JsonObjectBuilder;
 import jakarta.json.JsonString;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.util.AbstractMap;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.commons.io.FileUtils;
@@ -38,13 +38,21 @@ import org.apache.commons.io.FileUtils;
 /**
  * Cache for FcWire.
  *
+ * <p>Since 2.0, files are written into temporary ones and moved into
+ * their places atomically, so readers never see partial files and need
+ * no locks. A missing file is fetched by one thread only, the others
+ * wait on a lock striped by the file and then read it.
+ *
+ * <p>Since 2.0, the total size of files can be limited, as well as the
+ * time they are kept after being written, see {@link FcUsage}.
+ *
  * @since 1.16
  */
 @Immutable
 @ToString
-@EqualsAndHashCode
+@EqualsAndHashCode(of = "dir")
 @SuppressWarnings("PMD.ExcessiveImports")
-final class FcCache {
+final class FcCache implements FcStore {
 
     /**
      * Body key.
@@ -66,11 +74,22 @@ final class FcCache {
      */
     private static final String HEADERS = "headers";
 
+    /**
+     * Locks of files, only one thread at a time fetches and saves a file.
+     */
+    // @checkstyle MagicNumber (1 line)
+    private static final Striped<Lock> LOCKS = Striped.lazyWeakLock(1024);
+
     /**
      * Directory to keep files in.
      */
     private final transient String dir;
 
+    /**
+     * Usage of the directory.
+     */
+    private final transient FcUsage usage;
+
     /**
      * Ctor.
      */
@@ -92,23 +111,73 @@ final class FcCache {
      * @param path Dir with files
      */
     FcCache(final String path) {
-        this.dir = path;
+        this(path, 0L, 0L);
     }
 
     /**
-     * Invalidate all.
-     * @throws IOException If fails
+     * Ctor.
+     * @param path Dir with files
+     * @param max Maximum total size of files in bytes, zero if unbounded
+     * @param ttl Seconds to keep a file after it's written, zero if forever
+     * @since 2.0
      */
+    FcCache(final String path, final long max, final long ttl) {
+        this.dir = path;
+        this.usage = FcUsage.open(path, max, ttl);
+    }
+
+    @Override
     public void invalidate() throws IOException {
         final File file = this.file("").getParentFile();
         if (file.exists()) {
             FileUtils.deleteDirectory(file);
+            this.usage.deleted(file.toPath());
             Logger.debug(this, "cache invalidated in %s", file);
         }
     }
 
+    /**
+     * Invalidate GET entries with this path or paths below it.
+     *
+     * <p>Files are laid out by their labels, so the directories are
+     * a prefix index already: only the subtrees with the labels
+     * {@code GET path}, {@code GET path/...} and {@code GET path?...}
+     * are deleted.
+     *
+     * @param path URI path
+     * @throws IOException If fails
+     * @since 2.0
+     */
+    @Override
+    public void invalidate(final String path) throws IOException {
+        final String base = String.format("%s %s", Request.GET, path);
+        final File[] files = {this.file(base), this.legacy(base)};
+        for (final File file : files) {
+            Files.deleteIfExists(file.toPath());
+            this.usage.deleted(file.toPath());
+        }
+        this.delete(String.format("%s/", base));
+        this.delete(String.format("%s?", base));
+        Logger.debug(this, "cache invalidated for %s in %s", path, this.dir);
+    }
+
+    /**
+     * Total size of files, tracked only if there are limits.
+     * @return Bytes, or zero if it's not tracked
+     * @since 2.0
+     */
+    @Override
+    public long size() {
+        return this.usage.size();
+    }
+
     /**
      * Get and cache.
+     *
+     * <p>Since 2.0, responses are saved in binary files, see
+     * {@link FcEntry}. Files in the old JSON format are still read, and
+     * converted to the binary format on the first read.
+     *
      * @param label Label to use
      * @param wire Original wire
      * @param request The request
@@ -122,29 +191,117 @@ final class FcCache {
      * @throws IOException If fails
      * @checkstyle ParameterNumberCheck (10 lines)
      */
+    @Override
     public Response get(final String label, final Wire wire,
         final Request request, final String home, final String method,
         final Collection<Map.Entry<String, String>> headers,
         final InputStream input, final int connect, final int read)
         throws IOException {
         final File file = this.file(label);
-        final Response rsp;
+        Response rsp = this.cached(label, request);
+        if (rsp == null) {
+            final Lock lock = FcCache.LOCKS.get(file.getAbsolutePath());
+            lock.lock();
+            try {
+                rsp = this.cached(label, request);
+                if (rsp == null) {
+                    rsp = new FcEntry(file.toPath()).save(
+                        wire.send(
+                            request, home, method,
+                            headers, input, connect, read
+                        )
+                    );
+                    this.usage.written(file.toPath(), file.length());
+                    Logger.debug(this, "cache saved into %s", file);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return rsp;
+    }
+
+    /**
+     * Save the response, unless it's cached already.
+     * @param label Label to use
+     * @param response The response
+     * @return TRUE if it was saved
+     * @throws IOException If fails
+     * @since 2.0
+     */
+    public boolean offer(final String label, final Response response)
+        throws IOException {
+        final File file = this.file(label);
+        final Lock lock = FcCache.LOCKS.get(file.getAbsolutePath());
+        lock.lock();
+        final boolean absent;
+        try {
+            absent = !file.exists();
+            if (absent) {
+                new FcEntry(file.toPath()).save(response);
+                this.usage.written(file.toPath(), file.length());
+                Logger.debug(this, "cache offered into %s", file);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return absent;
+    }
+
+    /**
+     * Get response from the cache, if it's there.
+     *
+     * <p>Files are moved into their places only when they are complete,
+     * so they are read without any locks. An expired file is deleted
+     * under the lock of its writers, unless it was written again by then.
+     *
+     * @param label Label to use
+     * @param request The request
+     * @return Response or NULL if it's not cached
+     * @throws IOException If fails
+     */
+    public Response cached(final String label, final Request request)
+        throws IOException {
+        final File file = this.file(label);
+        final File legacy = this.legacy(label);
+        final FcEntry entry = new FcEntry(file.toPath());
+        if (this.usage.expired(file.toPath())) {
+            final Lock lock = FcCache.LOCKS.get(file.getAbsolutePath());
+            lock.lock();
+            try {
+                if (this.usage.expired(file.toPath())) {
+                    Files.deleteIfExists(file.toPath());
+                    this.usage.deleted(file.toPath());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        Response rsp = null;
         if (file.exists()) {
-            rsp = this.response(request, file);
-        } else {
-            rsp = this.saved(
-                wire.send(
-                    request, home, method,
-                    headers, input, connect, read
-                ),
-                file
-            );
+            try {
+                rsp = entry.response(request);
+                this.usage.accessed(file.toPath());
+                Logger.debug(this, "cache loaded from %s", file);
+            } catch (final NoSuchFileException ex) {
+                Logger.debug(this, "cache evicted from %s", file);
+            }
+        } else if (legacy.exists()) {
+            try {
+                rsp = entry.save(this.response(request, legacy));
+                Files.deleteIfExists(legacy.toPath());
+                this.usage.deleted(legacy.toPath());
+                this.usage.written(file.toPath(), file.length());
+                Logger.debug(this, "cache converted from %s", legacy);
+            } catch (final NoSuchFileException ex) {
+                Logger.debug(this, "cache converted by others %s", legacy);
+            }
         }
         return rsp;
     }
 
     /**
-     * Get response from file.
+     * Get response from JSON file, in the format used before 2.0.
      * @param req Request
      * @param file File to read
      * @return Response
@@ -177,36 +334,25 @@ final class FcCache {
     }
 
     /**
-     * Save response to file.
-     * @param response Response to save
-     * @param file File to read
-     * @return Response
+     * Delete all files with labels starting with this prefix.
+     * @param prefix Prefix of labels
      * @throws IOException If fails
      */
-    private Response saved(final Response response, final File file)
-        throws IOException {
-        final JsonObjectBuilder json = Json.createObjectBuilder();
-        json.add(FcCache.STATUS, response.status());
-        json.add(FcCache.REASON, response.reason());
-        final JsonObjectBuilder headers = Json.createObjectBuilder();
-        for (final Map.Entry<String, List<String>> pair
-            : response.headers().entrySet()) {
-            final JsonArrayBuilder array = Json.createArrayBuilder();
-            for (final String value : pair.getValue()) {
-                array.add(value);
-            }
-            headers.add(pair.getKey(), array);
-        }
-        json.add(FcCache.HEADERS, headers);
-        json.add(FcCache.BODY, response.body());
-        if (file.getParentFile().mkdirs()) {
-            Logger.debug(this, "directory created for %s", file);
+    private void delete(final String prefix) throws IOException {
+        final String[] chunks = FcCache.chunks(prefix);
+        File parent = new File(this.dir);
+        for (int idx = 0; idx < chunks.length - 1; ++idx) {
+            parent = new File(parent, chunks[idx]);
         }
-        try (OutputStream out = Files.newOutputStream(file.toPath())) {
-            Json.createWriter(out).write(json.build());
+        final File[] files = parent.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                if (file.getName().startsWith(chunks[chunks.length - 1])) {
+                    FileUtils.forceDelete(file);
+                    this.usage.deleted(file.toPath());
+                }
+            }
         }
-        Logger.debug(this, "cache saved into %s", file);
-        return response;
     }
 
     /**
@@ -215,19 +361,39 @@ final class FcCache {
      * @return File
      */
     private File file(final String label) {
-        final String path;
+        return new File(
+            this.dir,
+            String.format("%s.bin", Joiner.on("/").join(FcCache.chunks(label)))
+        );
+    }
+
+    /**
+     * Make file in the format used before 2.0 from label.
+     * @param label Label to use
+     * @return File
+     */
+    private File legacy(final String label) {
+        return new File(
+            this.dir,
+            String.format("%s.json", Joiner.on("/").join(FcCache.chunks(label)))
+        );
+    }
+
+    /**
+     * Encode the label and split it into chunks, one per directory.
+     * @param label Label to use
+     * @return Chunks
+     */
+    private static String[] chunks(final String label) {
         try {
-            path = Joiner.on("/").join(
-                URLEncoder.encode(label, StandardCharsets.UTF_8.toString())
-                    .replaceAll("_", "__")
-                    .replaceAll("\\+", "_")
-                    .replaceAll("%", "_")
-                    .split("(?<=\\G.{4})")
-            );
+            return URLEncoder.encode(label, StandardCharsets.UTF_8.toString())
+                .replaceAll("_", "__")
+                .replaceAll("\\+", "_")
+                .replaceAll("%", "_")
+                .split("(?<=\\G.{4})");
         } catch (final UnsupportedEncodingException ex) {
             throw new IllegalStateException(ex);
         }
-        return new File(this.dir, String.format("%s.json", path));
     }
 
 }
@@ -0,0 +1,311 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.immutable.Array;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Binary file with a cached response.
+ *
+ * <p>The file starts with a header block: magic number, status, reason
+ * and headers, strings are prefixed by their lengths in bytes and encoded
+ * in UTF-8. Then goes the length of the body and its raw bytes, exactly
+ * as they were received. Bodies of {@link Deflated} responses are saved
+ * compressed, with another magic number and the length of the inflated
+ * body right before the length of the compressed one. Large files are
+ * memory-mapped and the response reads its body right from the mapped
+ * region. Small ones are read into the heap, since mapping costs more
+ * than reading them.
+ *
+ * <p>Files are written into temporary ones first and then moved into
+ * their places atomically, so a mapped file is never truncated or changed
+ * under the reader.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+final class FcEntry {
+
+    /**
+     * Magic number and version of the format.
+     */
+    private static final int MAGIC = 0x4a434831;
+
+    /**
+     * Magic number of the format with a compressed body.
+     */
+    private static final int DEFLATED = 0x4a434832;
+
+    /**
+     * Files at least this large are memory-mapped.
+     */
+    private static final long MAPPED = 16L << 10;
+
+    /**
+     * The file.
+     */
+    private final transient Path path;
+
+    /**
+     * Ctor.
+     * @param file The file
+     */
+    FcEntry(final Path file) {
+        this.path = file;
+    }
+
+    /**
+     * Read the response from the file.
+     * @param req Request the response belongs to
+     * @return Response
+     * @throws IOException If fails or the file is broken
+     */
+    public Response response(final Request req) throws IOException {
+        return FcEntry.decode(req, this.buffer(), this.path);
+    }
+
+    /**
+     * Save the response into the file.
+     * @param response Response to save
+     * @return The same response
+     * @throws IOException If fails
+     */
+    public Response save(final Response response) throws IOException {
+        Files.createDirectories(this.path.getParent());
+        final Path temp = Files.createTempFile(
+            this.path.getParent(), ".", ".tmp"
+        );
+        try {
+            Files.write(temp, FcEntry.encode(response));
+            FcEntry.move(temp, this.path);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return response;
+    }
+
+    /**
+     * Encode the response into bytes of this format.
+     * @param response The response
+     * @return Bytes
+     * @throws IOException If fails
+     */
+    public static byte[] encode(final Response response) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (response instanceof Deflated) {
+                out.writeInt(FcEntry.DEFLATED);
+            } else {
+                out.writeInt(FcEntry.MAGIC);
+            }
+            out.writeInt(response.status());
+            FcEntry.write(out, response.reason());
+            final Collection<Map.Entry<String, String>> headers =
+                FcEntry.headers(response);
+            out.writeInt(headers.size());
+            for (final Map.Entry<String, String> header : headers) {
+                FcEntry.write(out, header.getKey());
+                FcEntry.write(out, header.getValue());
+            }
+            final byte[] body;
+            if (response instanceof Deflated) {
+                out.writeInt(((Deflated) response).length());
+                final ByteBuffer packed = ((Deflated) response).compressed();
+                body = new byte[packed.remaining()];
+                packed.get(body);
+            } else {
+                body = response.binary();
+            }
+            out.writeLong(body.length);
+            out.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode the response from bytes of this format.
+     *
+     * <p>The body of the response is the tail of the buffer, it is
+     * not copied.
+     *
+     * @param req Request the response belongs to
+     * @param buf Bytes, from position to limit
+     * @param source Where the bytes come from, for error messages
+     * @return Response
+     * @throws IOException If the bytes are broken
+     */
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    public static Response decode(final Request req, final ByteBuffer buf,
+        final Object source) throws IOException {
+        int magic = 0;
+        if (buf.remaining() >= Integer.BYTES) {
+            magic = buf.getInt();
+        }
+        if (magic != FcEntry.MAGIC && magic != FcEntry.DEFLATED) {
+            throw new IOException(
+                String.format("%s is not a cached response", source)
+            );
+        }
+        try {
+            final int status = buf.getInt();
+            final String reason = FcEntry.string(buf);
+            final int count = buf.getInt();
+            final List<Map.Entry<String, String>> headers =
+                new ArrayList<>(Math.max(0, count));
+            for (int idx = 0; idx < count; ++idx) {
+                headers.add(
+                    new AbstractMap.SimpleImmutableEntry<>(
+                        FcEntry.string(buf), FcEntry.string(buf)
+                    )
+                );
+            }
+            int inflated = -1;
+            if (magic == FcEntry.DEFLATED) {
+                inflated = buf.getInt();
+            }
+            final long length = buf.getLong();
+            if (length != buf.remaining()) {
+                throw new IOException(
+                    String.format(
+                        "%s is broken, %d bytes of body expected, %d found",
+                        source, length, buf.remaining()
+                    )
+                );
+            }
+            final Response rsp;
+            if (inflated < 0) {
+                rsp = new DefaultResponse(
+                    req, status, reason, new Array<>(headers), buf
+                );
+            } else {
+                rsp = new Deflated(
+                    req, status, reason, new Array<>(headers), buf,
+                    inflated, new LongAdder()
+                );
+            }
+            return rsp;
+        } catch (final BufferUnderflowException ex) {
+            throw new IOException(
+                String.format("%s is truncated", source), ex
+            );
+        }
+    }
+
+    /**
+     * Load the content of the file.
+     * @return Buffer with the content
+     * @throws IOException If fails
+     */
+    private ByteBuffer buffer() throws IOException {
+        ByteBuffer buf = null;
+        try (FileChannel channel =
+            FileChannel.open(this.path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size >= FcEntry.MAPPED) {
+                buf = channel.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+            }
+        }
+        if (buf == null) {
+            buf = ByteBuffer.wrap(Files.readAllBytes(this.path));
+        }
+        return buf;
+    }
+
+    /**
+     * All headers of the response, one entry per value.
+     * @param response The response
+     * @return Headers
+     */
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    static Collection<Map.Entry<String, String>> headers(
+        final Response response) {
+        final Collection<Map.Entry<String, String>> headers =
+            new ArrayList<>(0);
+        for (final Map.Entry<String, List<String>> pair
+            : response.headers().entrySet()) {
+            for (final String value : pair.getValue()) {
+                headers.add(
+                    new AbstractMap.SimpleImmutableEntry<>(
+                        pair.getKey(), value
+                    )
+                );
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Write a string, prefixed by its length in bytes.
+     * @param out Where to write
+     * @param text The string
+     * @throws IOException If fails
+     */
+    private static void write(final DataOutputStream out, final String text)
+        throws IOException {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a string, prefixed by its length in bytes.
+     * @param buf Where to read from
+     * @return The string
+     * @throws IOException If the length is broken
+     */
+    private static String string(final ByteBuffer buf) throws IOException {
+        final int length = buf.getInt();
+        if (length < 0 || length > buf.remaining()) {
+            throw new IOException(
+                String.format("broken string of %d bytes", length)
+            );
+        }
+        final byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Move the file into its place, atomically if possible.
+     * @param source Temporary file
+     * @param target Where to move it
+     * @throws IOException If fails
+     */
+    static void move(final Path source, final Path target)
+        throws IOException {
+        try {
+            Files.move(
+                source, target,
+                StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING
+            );
+        } catch (final AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+}
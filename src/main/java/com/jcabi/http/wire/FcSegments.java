@@ -0,0 +1,747 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.log.Logger;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Log-structured store of {@link FcWire}.
+ *
+ * <p>Instead of a file per entry, entries are appended to segment files
+ * of limited size, and only the last segment is written to. Every record
+ * is the label, the response in {@link FcEntry} format and a CRC32 of
+ * both. Invalidated entries are recorded as tombstones. An index in memory
+ * keeps the location of the latest record of every label, so a lookup
+ * never touches the file system and a read is one positional read.
+ *
+ * <p>Records replaced by newer ones and tombstones are dead. When more
+ * than a half of all bytes is dead, a background thread compacts the
+ * oldest segments: their live records are copied to the end of the log
+ * and the segments are deleted. Tombstones are dropped then, since there
+ * are no older segments they could hide records in.
+ *
+ * <p>When the store is opened, segments are scanned in order and the
+ * index is rebuilt. A record with a broken CRC or length, usually
+ * a write torn by a crash, ends its segment: the segment is truncated
+ * there.
+ *
+ * <p>There is one store per directory in the JVM.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 2.0
+ */
+@SuppressWarnings({"PMD.TooManyMethods", "PMD.ExcessiveImports"})
+final class FcSegments implements FcStore {
+
+    /**
+     * Magic number of a record.
+     */
+    private static final int MAGIC = 0x4a435231;
+
+    /**
+     * Length of the payload of a tombstone.
+     */
+    private static final int TOMBSTONE = -1;
+
+    /**
+     * Bytes in a record besides its block: magic, length and CRC.
+     */
+    private static final int FRAME = 12;
+
+    /**
+     * Suffix of segment files.
+     */
+    private static final String SUFFIX = ".seg";
+
+    /**
+     * Open stores, by their directories.
+     */
+    private static final ConcurrentMap<String, FcSegments> STORES =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Background compactor of all stores.
+     */
+    private static final ScheduledExecutorService COMPACTOR =
+        FcSegments.compactor();
+
+    /**
+     * Directory with segments.
+     */
+    private final transient Path dir;
+
+    /**
+     * Maximum size of a segment in bytes.
+     */
+    private final transient long limit;
+
+    /**
+     * Locations of latest records, by labels.
+     */
+    private final transient ConcurrentMap<String, FcSegments.Location> index;
+
+    /**
+     * Segments, by their numbers.
+     */
+    private final transient ConcurrentNavigableMap<Long, FcSegments.Segment>
+        segments;
+
+    /**
+     * Segment being written, guarded by this.
+     */
+    private transient FcSegments.Segment active;
+
+    /**
+     * Ctor.
+     * @param path Directory with segments
+     * @param size Maximum size of a segment in bytes
+     * @throws IOException If fails
+     */
+    FcSegments(final Path path, final long size) throws IOException {
+        this.dir = path;
+        this.limit = size;
+        this.index = new ConcurrentHashMap<>(0);
+        this.segments = new ConcurrentSkipListMap<>();
+        this.recover();
+    }
+
+    /**
+     * Open the store of this directory, only one per JVM.
+     * @param path Directory with segments
+     * @param size Maximum size of a segment in bytes
+     * @return Store
+     */
+    public static FcSegments open(final String path, final long size) {
+        return FcSegments.STORES.computeIfAbsent(
+            new File(path).getAbsolutePath(),
+            key -> {
+                try {
+                    return new FcSegments(Paths.get(key), size);
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        );
+    }
+
+    @Override
+    public synchronized void invalidate() throws IOException {
+        for (final FcSegments.Segment seg : this.segments.values()) {
+            seg.delete();
+        }
+        this.segments.clear();
+        this.index.clear();
+        this.active = null;
+        this.roll();
+        Logger.debug(this, "cache invalidated in %s", this.dir);
+    }
+
+    @Override
+    public synchronized void invalidate(final String path)
+        throws IOException {
+        final String base = String.format("%s %s", Request.GET, path);
+        final List<String> labels = new ArrayList<>(0);
+        for (final String label : this.index.keySet()) {
+            if (label.equals(base) || label.startsWith(base)
+                && (label.charAt(base.length()) == '/'
+                || label.charAt(base.length()) == '?')) {
+                labels.add(label);
+            }
+        }
+        for (final String label : labels) {
+            this.append(label, null);
+        }
+        Logger.debug(
+            this, "%d entries invalidated for %s in %s",
+            labels.size(), path, this.dir
+        );
+    }
+
+    /**
+     * Total size of live records in all segments.
+     * @return Bytes
+     */
+    @Override
+    public long size() {
+        return this.total() - this.dead();
+    }
+
+    // @checkstyle ParameterNumber (5 lines)
+    @Override
+    public Response get(final String label, final Wire wire,
+        final Request request, final String home, final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream input, final int connect, final int read)
+        throws IOException {
+        Response rsp = this.load(label, request);
+        if (rsp == null) {
+            rsp = wire.send(
+                request, home, method, headers, input, connect, read
+            );
+            this.append(label, FcEntry.encode(rsp));
+        }
+        return rsp;
+    }
+
+    /**
+     * Copy live records of the oldest segments to the end of the log,
+     * while more than a half of all bytes is dead.
+     * @throws IOException If fails
+     */
+    public synchronized void compact() throws IOException {
+        while (this.segments.size() > 1
+            && this.dead() * 2L > this.total()) {
+            final FcSegments.Segment oldest =
+                this.segments.firstEntry().getValue();
+            long pos = 0L;
+            while (pos < oldest.size.get()) {
+                final ByteBuffer rec = oldest.read(pos);
+                final String label = FcSegments.label(rec);
+                final FcSegments.Location loc = this.index.get(label);
+                if (loc != null && loc.segment == oldest.number
+                    && loc.offset == pos) {
+                    rec.rewind();
+                    this.write(label, rec);
+                }
+                pos += rec.limit();
+            }
+            this.segments.remove(oldest.number);
+            oldest.delete();
+            Logger.debug(this, "segment %s compacted", oldest);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s: %d entries in %d segments",
+            this.dir, this.index.size(), this.segments.size()
+        );
+    }
+
+    /**
+     * Load the response of this label.
+     * @param label The label
+     * @param request Request the response belongs to
+     * @return Response or NULL if there is none
+     * @throws IOException If fails
+     */
+    private Response load(final String label, final Request request)
+        throws IOException {
+        Response rsp = null;
+        FcSegments.Location loc = this.index.get(label);
+        while (rsp == null && loc != null) {
+            final FcSegments.Segment seg = this.segments.get(loc.segment);
+            ByteBuffer rec = null;
+            if (seg != null) {
+                try {
+                    rec = seg.read(loc.offset);
+                } catch (final ClosedChannelException ex) {
+                    rec = null;
+                }
+            }
+            if (rec != null && label.equals(FcSegments.label(rec))) {
+                rsp = FcEntry.decode(request, FcSegments.payload(rec), seg);
+            } else {
+                final FcSegments.Location next = this.index.get(label);
+                if (loc.equals(next)) {
+                    break;
+                }
+                loc = next;
+            }
+        }
+        return rsp;
+    }
+
+    /**
+     * Append a record to the end of the log.
+     * @param label The label
+     * @param payload Response in {@link FcEntry} format, NULL for
+     *  a tombstone
+     * @throws IOException If fails
+     */
+    private synchronized void append(final String label,
+        final byte[] payload) throws IOException {
+        final byte[] name = label.getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream block = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(block)) {
+            out.writeInt(name.length);
+            out.write(name);
+            if (payload == null) {
+                out.writeInt(FcSegments.TOMBSTONE);
+            } else {
+                out.writeInt(payload.length);
+                out.write(payload);
+            }
+        }
+        final byte[] bytes = block.toByteArray();
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        final ByteBuffer rec = ByteBuffer.allocate(
+            bytes.length + FcSegments.FRAME
+        );
+        rec.putInt(FcSegments.MAGIC).putInt(bytes.length).put(bytes)
+            .putInt((int) crc.getValue());
+        rec.flip();
+        this.write(label, rec);
+    }
+
+    /**
+     * Write the record to the end of the log and update the index.
+     * @param label The label
+     * @param rec The record
+     * @throws IOException If fails
+     */
+    private synchronized void write(final String label, final ByteBuffer rec)
+        throws IOException {
+        final int length = rec.remaining();
+        if (this.active.size.get() > 0L
+            && this.active.size.get() + length > this.limit) {
+            this.roll();
+        }
+        final FcSegments.Segment seg = this.active;
+        final long offset = seg.append(rec);
+        final boolean tombstone = FcSegments.tombstone(rec);
+        final FcSegments.Location old;
+        if (tombstone) {
+            old = this.index.remove(label);
+            seg.dead.addAndGet(length);
+        } else {
+            old = this.index.put(
+                label, new FcSegments.Location(seg.number, offset, length)
+            );
+        }
+        if (old != null) {
+            final FcSegments.Segment prev = this.segments.get(old.segment);
+            if (prev != null) {
+                prev.dead.addAndGet(old.length);
+            }
+        }
+    }
+
+    /**
+     * Seal the active segment and start a new one.
+     * @throws IOException If fails
+     */
+    private synchronized void roll() throws IOException {
+        long number = 1L;
+        if (this.active != null) {
+            this.active.channel.force(false);
+            number = this.active.number + 1L;
+        }
+        if (!this.segments.isEmpty()) {
+            number = Math.max(number, this.segments.lastKey() + 1L);
+        }
+        final FcSegments.Segment seg = new FcSegments.Segment(
+            number,
+            this.dir.resolve(
+                String.format("%016d%s", number, FcSegments.SUFFIX)
+            )
+        );
+        this.segments.put(number, seg);
+        this.active = seg;
+    }
+
+    /**
+     * Rebuild the index from segments on disk.
+     * @throws IOException If fails
+     */
+    private synchronized void recover() throws IOException {
+        Files.createDirectories(this.dir);
+        final List<Long> numbers = new ArrayList<>(0);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(
+            this.dir, String.format("*%s", FcSegments.SUFFIX)
+        )) {
+            for (final Path file : files) {
+                final String name = file.getFileName().toString();
+                numbers.add(
+                    Long.parseLong(
+                        name.substring(
+                            0, name.length() - FcSegments.SUFFIX.length()
+                        )
+                    )
+                );
+            }
+        }
+        numbers.sort(null);
+        for (final Long number : numbers) {
+            final FcSegments.Segment seg = new FcSegments.Segment(
+                number,
+                this.dir.resolve(
+                    String.format("%016d%s", number, FcSegments.SUFFIX)
+                )
+            );
+            this.segments.put(number, seg);
+            this.active = seg;
+            this.scan(seg);
+        }
+        if (this.active == null) {
+            this.roll();
+        }
+        Logger.debug(this, "recovered %s", this);
+    }
+
+    /**
+     * Scan the segment and put its records into the index.
+     * @param seg The segment
+     * @throws IOException If fails
+     */
+    private void scan(final FcSegments.Segment seg) throws IOException {
+        final long size = seg.channel.size();
+        long pos = 0L;
+        while (pos < size) {
+            final ByteBuffer rec = seg.valid(pos, size);
+            if (rec == null) {
+                Logger.warn(
+                    this, "segment %s is broken at byte #%d, truncated",
+                    seg, pos
+                );
+                seg.channel.truncate(pos);
+                break;
+            }
+            final String label = FcSegments.label(rec);
+            final FcSegments.Location old;
+            if (FcSegments.tombstone(rec)) {
+                old = this.index.remove(label);
+                seg.dead.addAndGet(rec.limit());
+            } else {
+                old = this.index.put(
+                    label,
+                    new FcSegments.Location(seg.number, pos, rec.limit())
+                );
+            }
+            if (old != null) {
+                this.segments.get(old.segment).dead.addAndGet(old.length);
+            }
+            pos += rec.limit();
+        }
+        seg.size.set(pos);
+    }
+
+    /**
+     * Total bytes in all segments.
+     * @return Bytes
+     */
+    private long total() {
+        long total = 0L;
+        for (final FcSegments.Segment seg : this.segments.values()) {
+            total += seg.size.get();
+        }
+        return total;
+    }
+
+    /**
+     * Dead bytes in all segments.
+     * @return Bytes
+     */
+    private long dead() {
+        long dead = 0L;
+        for (final FcSegments.Segment seg : this.segments.values()) {
+            dead += seg.dead.get();
+        }
+        return dead;
+    }
+
+    /**
+     * Label of the record.
+     * @param rec The record
+     * @return Label
+     */
+    private static String label(final ByteBuffer rec) {
+        final int length = rec.getInt(FcSegments.FRAME - Integer.BYTES);
+        final byte[] name = new byte[length];
+        final ByteBuffer dup = rec.duplicate();
+        dup.position(FcSegments.FRAME);
+        dup.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Length of the payload of the record.
+     * @param rec The record
+     * @return Length, negative for tombstone
+     */
+    private static int size(final ByteBuffer rec) {
+        return rec.getInt(
+            FcSegments.FRAME + rec.getInt(FcSegments.FRAME - Integer.BYTES)
+        );
+    }
+
+    /**
+     * Is it a tombstone?
+     * @param rec The record
+     * @return TRUE if it is
+     */
+    private static boolean tombstone(final ByteBuffer rec) {
+        return FcSegments.size(rec) == FcSegments.TOMBSTONE;
+    }
+
+    /**
+     * Payload of the record.
+     * @param rec The record
+     * @return Payload, from position to limit
+     */
+    private static ByteBuffer payload(final ByteBuffer rec) {
+        final ByteBuffer dup = rec.duplicate();
+        final int start = FcSegments.FRAME + Integer.BYTES
+            + rec.getInt(FcSegments.FRAME - Integer.BYTES);
+        dup.position(start);
+        dup.limit(start + FcSegments.size(rec));
+        return dup.slice();
+    }
+
+    /**
+     * Start background compactor.
+     * @return Executor
+     */
+    private static ScheduledExecutorService compactor() {
+        final ScheduledExecutorService service =
+            Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("FcSegments-compactor-%d")
+                    .build()
+            );
+        service.scheduleWithFixedDelay(
+            () -> {
+                for (final FcSegments store : FcSegments.STORES.values()) {
+                    try {
+                        store.compact();
+                    } catch (final IOException ex) {
+                        Logger.warn(
+                            store, "failed to compact %s: %[exception]s",
+                            store, ex
+                        );
+                    }
+                }
+            },
+            1L, 1L, TimeUnit.SECONDS
+        );
+        return service;
+    }
+
+    /**
+     * Location of a record.
+     *
+     * @since 2.0
+     */
+    private static final class Location {
+        /**
+         * Number of the segment.
+         */
+        private final long segment;
+
+        /**
+         * Offset in the segment.
+         */
+        private final long offset;
+
+        /**
+         * Length of the record.
+         */
+        private final int length;
+
+        /**
+         * Ctor.
+         * @param number Number of the segment
+         * @param pos Offset in the segment
+         * @param len Length of the record
+         */
+        Location(final long number, final long pos, final int len) {
+            this.segment = number;
+            this.offset = pos;
+            this.length = len;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return this == obj || obj instanceof FcSegments.Location
+                && this.segment == ((FcSegments.Location) obj).segment
+                && this.offset == ((FcSegments.Location) obj).offset;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(this.segment) * 31
+                + Long.hashCode(this.offset);
+        }
+    }
+
+    /**
+     * Segment file.
+     *
+     * @since 2.0
+     */
+    private static final class Segment {
+        /**
+         * Number of the segment.
+         */
+        private final long number;
+
+        /**
+         * The file.
+         */
+        private final Path file;
+
+        /**
+         * Channel of the file.
+         */
+        private final FileChannel channel;
+
+        /**
+         * Bytes written.
+         */
+        private final AtomicLong size;
+
+        /**
+         * Bytes in dead records.
+         */
+        private final AtomicLong dead;
+
+        /**
+         * Ctor.
+         * @param num Number of the segment
+         * @param path The file
+         * @throws IOException If fails
+         */
+        Segment(final long num, final Path path) throws IOException {
+            this.number = num;
+            this.file = path;
+            this.channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            );
+            this.size = new AtomicLong(this.channel.size());
+            this.dead = new AtomicLong();
+        }
+
+        @Override
+        public String toString() {
+            return this.file.toString();
+        }
+
+        /**
+         * Append the record to the end, only while holding the store.
+         * @param rec The record
+         * @return Offset of the record
+         * @throws IOException If fails
+         */
+        long append(final ByteBuffer rec) throws IOException {
+            final long offset = this.size.get();
+            long pos = offset;
+            while (rec.hasRemaining()) {
+                pos += this.channel.write(rec, pos);
+            }
+            this.size.set(pos);
+            return offset;
+        }
+
+        /**
+         * Read the record, which is known to be valid.
+         * @param pos Offset of the record
+         * @return The record
+         * @throws IOException If fails
+         */
+        ByteBuffer read(final long pos) throws IOException {
+            final ByteBuffer head = this.fully(pos, Integer.BYTES * 2);
+            return this.fully(
+                pos, head.getInt(Integer.BYTES) + FcSegments.FRAME
+            );
+        }
+
+        /**
+         * Read the record and check it.
+         * @param pos Offset of the record
+         * @param end Size of the segment
+         * @return The record or NULL if it's broken
+         * @throws IOException If fails
+         */
+        ByteBuffer valid(final long pos, final long end) throws IOException {
+            ByteBuffer rec = null;
+            if (end - pos >= FcSegments.FRAME) {
+                final ByteBuffer head = this.fully(pos, Integer.BYTES * 2);
+                final int length = head.getInt(Integer.BYTES);
+                if (head.getInt(0) == FcSegments.MAGIC && length >= 0
+                    && end - pos - FcSegments.FRAME >= length) {
+                    rec = this.fully(pos, length + FcSegments.FRAME);
+                    final CRC32 crc = new CRC32();
+                    crc.update(rec.array(), Integer.BYTES * 2, length);
+                    if ((int) crc.getValue()
+                        != rec.getInt(rec.limit() - Integer.BYTES)) {
+                        rec = null;
+                    }
+                }
+            }
+            return rec;
+        }
+
+        /**
+         * Delete the segment.
+         * @throws IOException If fails
+         */
+        void delete() throws IOException {
+            this.channel.close();
+            Files.deleteIfExists(this.file);
+        }
+
+        /**
+         * Read exactly this many bytes.
+         * @param pos Where to start
+         * @param length How many bytes
+         * @return Buffer with them, at position zero
+         * @throws IOException If fails
+         */
+        private ByteBuffer fully(final long pos, final int length)
+            throws IOException {
+            final ByteBuffer buf = ByteBuffer.allocate(length);
+            while (buf.hasRemaining()) {
+                if (this.channel.read(buf, pos + buf.position()) < 0) {
+                    throw new IOException(
+                        String.format(
+                            "%s ends before byte #%d",
+                            this.file, pos + length
+                        )
+                    );
+                }
+            }
+            buf.flip();
+            return buf;
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * On-disk store of {@link FcWire}.
+ *
+ * @since 2.0
+ */
+//@checkstyle ParameterNumber (40 lines)
+interface FcStore {
+
+    /**
+     * Invalidate all.
+     * @throws IOException If fails
+     */
+    void invalidate() throws IOException;
+
+    /**
+     * Invalidate GET entries with this path or paths below it.
+     * @param path URI path
+     * @throws IOException If fails
+     */
+    void invalidate(String path) throws IOException;
+
+    /**
+     * Total size of kept entries.
+     * @return Bytes, or zero if it's not tracked
+     */
+    long size();
+
+    /**
+     * Get and cache.
+     * @param label Label to use
+     * @param wire Original wire
+     * @param request The request
+     * @param home URI to fetch
+     * @param method HTTP method
+     * @param headers Headers
+     * @param input Input body
+     * @param connect Connect timeout
+     * @param read Read timeout
+     * @return Response
+     * @throws IOException If fails
+     */
+    Response get(String label, Wire wire, Request request, String home,
+        String method, Collection<Map.Entry<String, String>> headers,
+        InputStream input, int connect, int read) throws IOException;
+
+}
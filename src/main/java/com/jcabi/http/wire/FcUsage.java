@@ -0,0 +1,378 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.jcabi.log.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Disk usage of {@link FcCache} files in one directory.
+ *
+ * <p>Sizes and times of files are tracked in memory, as they are written,
+ * read and deleted, so the directory is walked only once, when it is
+ * opened. A background thread deletes files older than their TTL and,
+ * when the total size is above the maximum, files that were not read for
+ * the longest time, until the total drops below 90% of the maximum.
+ *
+ * <p>There is one instance per directory with limits in the JVM, and it
+ * can't be opened again with other limits. Without limits, nothing is
+ * tracked and the instance is not kept, so that directories used without
+ * limits don't pile up in memory.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 2.0
+ */
+final class FcUsage {
+
+    /**
+     * Usages of all directories with limits.
+     */
+    private static final ConcurrentMap<String, FcUsage> USAGES =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Background evictor of all directories.
+     */
+    private static final ScheduledExecutorService EVICTOR =
+        FcUsage.evictor();
+
+    /**
+     * The directory.
+     */
+    private final transient Path dir;
+
+    /**
+     * Maximum total size in bytes, zero if unbounded.
+     */
+    private final transient long max;
+
+    /**
+     * Milliseconds to keep a file after it's written, zero if forever.
+     */
+    private final transient long ttl;
+
+    /**
+     * Tracked files.
+     */
+    private final transient ConcurrentMap<Path, FcUsage.Usage> files;
+
+    /**
+     * Total size of tracked files.
+     */
+    private final transient AtomicLong total;
+
+    /**
+     * Ctor.
+     * @param path The directory
+     * @param bytes Maximum total size in bytes, zero if unbounded
+     * @param seconds Seconds to keep a file after it's written, zero
+     *  if forever
+     */
+    FcUsage(final Path path, final long bytes, final long seconds) {
+        this.dir = path;
+        this.max = bytes;
+        this.ttl = TimeUnit.SECONDS.toMillis(seconds);
+        this.files = new ConcurrentHashMap<>(0);
+        this.total = new AtomicLong();
+    }
+
+    /**
+     * Open the usage of this directory, walking it if it exists.
+     * @param path The directory
+     * @param bytes Maximum total size in bytes, zero if unbounded
+     * @param seconds Seconds to keep a file after it's written, zero
+     *  if forever
+     * @return Usage
+     * @throws IllegalArgumentException If it's open with other limits
+     */
+    public static FcUsage open(final String path, final long bytes,
+        final long seconds) {
+        final String absolute = new File(path).getAbsolutePath();
+        final FcUsage usage;
+        if (bytes == 0L && seconds == 0L) {
+            usage = FcUsage.USAGES.getOrDefault(
+                absolute, new FcUsage(Paths.get(absolute), 0L, 0L)
+            );
+        } else {
+            usage = FcUsage.USAGES.computeIfAbsent(
+                absolute,
+                key -> {
+                    final FcUsage fresh =
+                        new FcUsage(Paths.get(key), bytes, seconds);
+                    try {
+                        fresh.walk();
+                    } catch (final IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    return fresh;
+                }
+            );
+        }
+        if (usage.max != bytes
+            || usage.ttl != TimeUnit.SECONDS.toMillis(seconds)) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "%s is open with max=%d and ttl=%d, not %d and %d",
+                    usage.dir, usage.max,
+                    TimeUnit.MILLISECONDS.toSeconds(usage.ttl),
+                    bytes, seconds
+                )
+            );
+        }
+        return usage;
+    }
+
+    /**
+     * The file was written.
+     * @param file The file
+     * @param size Its size
+     */
+    public void written(final Path file, final long size) {
+        if (this.bounded()) {
+            final long now = System.currentTimeMillis();
+            final FcUsage.Usage old = this.files.put(
+                file.toAbsolutePath(), new FcUsage.Usage(size, now, now)
+            );
+            this.total.addAndGet(size);
+            if (old != null) {
+                this.total.addAndGet(-old.size);
+            }
+        }
+    }
+
+    /**
+     * The file was read.
+     * @param file The file
+     */
+    public void accessed(final Path file) {
+        final FcUsage.Usage usage = this.files.get(file.toAbsolutePath());
+        if (usage != null) {
+            usage.accessed = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Is the file older than TTL?
+     * @param file The file
+     * @return TRUE if it has expired
+     */
+    public boolean expired(final Path file) {
+        final FcUsage.Usage usage = this.files.get(file.toAbsolutePath());
+        return this.ttl > 0L && usage != null
+            && System.currentTimeMillis() - usage.written > this.ttl;
+    }
+
+    /**
+     * The file or the directory with all its files was deleted.
+     *
+     * <p>A tracked file is forgotten right away, only for a directory
+     * all tracked files are scanned.
+     *
+     * @param path The file or the directory
+     */
+    public void deleted(final Path path) {
+        final Path absolute = path.toAbsolutePath();
+        if (this.files.containsKey(absolute)) {
+            this.forget(absolute);
+        } else {
+            for (final Path file : this.files.keySet()) {
+                if (file.startsWith(absolute)) {
+                    this.forget(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Total size of all files.
+     * @return Bytes
+     */
+    public long size() {
+        return this.total.get();
+    }
+
+    /**
+     * Delete expired files, and least recently read files while the
+     * total size is above the maximum.
+     * @throws IOException If fails
+     */
+    public void evict() throws IOException {
+        final long now = System.currentTimeMillis();
+        if (this.ttl > 0L) {
+            for (final Map.Entry<Path, FcUsage.Usage> entry
+                : this.files.entrySet()) {
+                if (now - entry.getValue().written > this.ttl) {
+                    this.delete(entry.getKey());
+                }
+            }
+        }
+        if (this.max > 0L && this.total.get() > this.max) {
+            final List<Map.Entry<Path, Long>> lru =
+                new ArrayList<>(this.files.size());
+            for (final Map.Entry<Path, FcUsage.Usage> entry
+                : this.files.entrySet()) {
+                lru.add(
+                    new AbstractMap.SimpleImmutableEntry<>(
+                        entry.getKey(), entry.getValue().accessed
+                    )
+                );
+            }
+            lru.sort(Map.Entry.comparingByValue());
+            // @checkstyle MagicNumber (1 line)
+            final long low = this.max / 10L * 9L;
+            for (final Map.Entry<Path, Long> entry : lru) {
+                if (this.total.get() <= low) {
+                    break;
+                }
+                this.delete(entry.getKey());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s: %d files, %d bytes", this.dir, this.files.size(),
+            this.total.get()
+        );
+    }
+
+    /**
+     * Are there any limits?
+     * @return TRUE if there are
+     */
+    private boolean bounded() {
+        return this.max > 0L || this.ttl > 0L;
+    }
+
+    /**
+     * Delete the file.
+     * @param file The file
+     * @throws IOException If fails
+     */
+    private void delete(final Path file) throws IOException {
+        Files.deleteIfExists(file);
+        this.forget(file);
+        Logger.debug(this, "%s evicted", file);
+    }
+
+    /**
+     * Stop tracking the file.
+     * @param file The file
+     */
+    private void forget(final Path file) {
+        final FcUsage.Usage usage = this.files.remove(file);
+        if (usage != null) {
+            this.total.addAndGet(-usage.size);
+        }
+    }
+
+    /**
+     * Walk the directory and track all files in it.
+     * @throws IOException If fails
+     */
+    private void walk() throws IOException {
+        if (this.bounded() && Files.isDirectory(this.dir)) {
+            try (Stream<Path> paths = Files.walk(this.dir)) {
+                paths.filter(Files::isRegularFile).forEach(
+                    file -> {
+                        final File plain = file.toFile();
+                        this.files.put(
+                            file,
+                            new FcUsage.Usage(
+                                plain.length(), plain.lastModified(),
+                                plain.lastModified()
+                            )
+                        );
+                        this.total.addAndGet(plain.length());
+                    }
+                );
+            }
+        }
+    }
+
+    /**
+     * Start background evictor of all directories.
+     * @return Executor
+     */
+    private static ScheduledExecutorService evictor() {
+        final ScheduledExecutorService service =
+            Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("FcUsage-evictor-%d")
+                    .build()
+            );
+        service.scheduleWithFixedDelay(
+            () -> {
+                for (final FcUsage usage : FcUsage.USAGES.values()) {
+                    try {
+                        usage.evict();
+                    } catch (final IOException ex) {
+                        Logger.warn(
+                            usage, "failed to evict in %s: %[exception]s",
+                            usage, ex
+                        );
+                    }
+                }
+            },
+            1L, 1L, TimeUnit.SECONDS
+        );
+        return service;
+    }
+
+    /**
+     * Usage of one file.
+     *
+     * @since 2.0
+     */
+    private static final class Usage {
+        /**
+         * Size in bytes.
+         */
+        private final long size;
+
+        /**
+         * When it was written, in milliseconds.
+         */
+        private final long written;
+
+        /**
+         * When it was read last time, in milliseconds.
+         */
+        private volatile long accessed;
+
+        /**
+         * Ctor.
+         * @param bytes Size in bytes
+         * @param write When it was written
+         * @param access When it was read last time
+         */
+        Usage(final long bytes, final long write, final long access) {
+            this.size = bytes;
+            this.written = write;
+            this.accessed = access;
+        }
+    }
+
+}
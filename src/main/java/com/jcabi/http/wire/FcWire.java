@@ -4,6 +4,9 @@
  */
 package com.jcabi.http.wire;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.http.Request;
 import com.jcabi.http.Response;
@@ -38,7 +41,36 @@ import lombok.ToString;
  *
  * <p>The regular expression provided will be used against a string
  * constructed as an HTTP method, space, path of the URI together with
- * query part.
+ * query part. Since 2.0, the expression may capture a named group
+ * {@code path}, then only the files of the entries with this path or
+ * paths below it are deleted:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(FcWire.class, "POST (?&lt;path&gt;/users/[^/?]+).*")
+ *   .fetch();</pre>
+ *
+ * <p>Since 2.0, the total size of cached files can be limited, as well as
+ * the number of seconds they are kept (zero means "no limit"). Files that
+ * were not read for the longest time are deleted first, in background.
+ * In one JVM, a directory can't be used with other limits, the
+ * constructor throws {@link IllegalArgumentException}:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(FcWire.class, "$never", "/tmp/cache", 1L &lt;&lt; 30, 3600L)
+ *   .fetch();</pre>
+ *
+ * <p>Entries can also be kept in append-only segment files of
+ * limited size, instead of a file per entry, which is much friendlier to
+ * the file system when there are millions of them:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(FcWire.class, "$never", "/tmp/cache", 64L &lt;&lt; 20)
+ *   .fetch();</pre>
+ *
+ * <p>Since 2.0, hits, misses and the size of the cache are counted, see
+ * {@link #stats()}. The size is known only for segment files and for
+ * files with limits. Wires with the same directory share the statistics,
+ * as long as any of them is in use.
  *
  * <p>The class is immutable and thread-safe.
  *
@@ -47,12 +79,25 @@ import lombok.ToString;
 @Immutable
 @ToString
 @EqualsAndHashCode(of = { "origin", "regex" })
-public final class FcWire implements Wire {
+public final class FcWire implements Wire, Measured {
+
+    /**
+     * Statistics of all stores, kept while there are wires using them.
+     */
+    private static final LoadingCache<FcStore, CacheStats> STATS =
+        CacheBuilder.newBuilder().weakValues().build(
+            new CacheLoader<FcStore, CacheStats>() {
+                @Override
+                public CacheStats load(final FcStore key) {
+                    return new CacheStats(key::size, () -> 0L);
+                }
+            }
+        );
 
     /**
      * Cache in files.
      */
-    private final transient FcCache cache;
+    private final transient FcStore cache;
 
     /**
      * Original wire.
@@ -64,6 +109,16 @@ public final class FcWire implements Wire {
      */
     private final transient String regex;
 
+    /**
+     * Compiled flushing regular expression.
+     */
+    private final transient Flush flush;
+
+    /**
+     * Statistics of the cache.
+     */
+    private final transient CacheStats stats;
+
     /**
      * Public ctor.
      * @param wire Original wire
@@ -91,16 +146,46 @@ public final class FcWire implements Wire {
         this(wire, flsh, new FcCache(path));
     }
 
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param flsh Flushing regular expression
+     * @param path Path for the files
+     * @param max Maximum total size of files in bytes, zero if unbounded
+     * @param ttl Seconds to keep a file after it's written, zero if forever
+     * @since 2.0
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public FcWire(final Wire wire, final String flsh, final String path,
+        final long max, final long ttl) {
+        this(wire, flsh, new FcCache(path, max, ttl));
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param flsh Flushing regular expression
+     * @param path Directory for the segment files
+     * @param segment Maximum size of a segment file in bytes
+     * @since 2.0
+     */
+    public FcWire(final Wire wire, final String flsh, final String path,
+        final long segment) {
+        this(wire, flsh, FcSegments.open(path, segment));
+    }
+
     /**
      * Public ctor.
      * @param wire Original wire
      * @param flsh Flushing regular expression
      * @param fcc Cache
      */
-    public FcWire(final Wire wire, final String flsh, final FcCache fcc) {
+    public FcWire(final Wire wire, final String flsh, final FcStore fcc) {
         this.origin = wire;
         this.regex = flsh;
+        this.flush = new Flush(flsh);
         this.cache = fcc;
+        this.stats = FcWire.STATS.getUnchecked(fcc);
     }
 
     // @checkstyle ParameterNumber (5 lines)
@@ -117,14 +202,30 @@ public final class FcWire implements Wire {
         if (uri.getQuery() != null) {
             label.append('?').append(uri.getQuery());
         }
-        if (label.toString().matches(this.regex)) {
+        final String target = this.flush.path(label.toString());
+        if (this.flush.everything(target)) {
             this.cache.invalidate();
+        } else if (!target.isEmpty()) {
+            this.cache.invalidate(target);
         }
         final Response rsp;
         if (method.equals(Request.GET)) {
+            this.stats.request();
             rsp = this.cache.get(
-                label.toString(), this.origin, req,
-                home, method, headers, content, connect, read
+                label.toString(),
+                (rqt, hme, mtd, hdrs, input, cnct, rdd) -> {
+                    final long start = System.nanoTime();
+                    final Response loaded;
+                    try {
+                        loaded = this.origin.send(
+                            rqt, hme, mtd, hdrs, input, cnct, rdd
+                        );
+                    } finally {
+                        this.stats.miss(System.nanoTime() - start);
+                    }
+                    return loaded;
+                },
+                req, home, method, headers, content, connect, read
             );
         } else {
             rsp = this.origin.send(
@@ -135,4 +236,9 @@ public final class FcWire implements Wire {
         return rsp;
     }
 
+    @Override
+    public CacheStats stats() {
+        return this.stats;
+    }
+
 }
@@ -0,0 +1,280 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import java.net.URI;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compact identity of an HTTP request, to be used as a cache key.
+ *
+ * <p>It is made of the HTTP method, the normalized URI (lower-case scheme
+ * and host, no default port, no fragment, query parameters sorted) and
+ * the significant headers, sorted by name. The text and its hash code are
+ * computed once, in the constructor, and no references to the request,
+ * its headers or its body are kept.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+final class Fingerprint {
+
+    /**
+     * HTTP default port.
+     */
+    private static final int HTTP = 80;
+
+    /**
+     * HTTPS default port.
+     */
+    private static final int HTTPS = 443;
+
+    /**
+     * Full text of the fingerprint.
+     */
+    private final transient String text;
+
+    /**
+     * Decoded path of the URI.
+     */
+    private final transient String path;
+
+    /**
+     * Precomputed hash code.
+     */
+    private final transient int hash;
+
+    /**
+     * Ctor.
+     * @param method HTTP method
+     * @param home URI
+     * @param headers Request headers
+     * @param significant Names of significant headers, all headers
+     *  are significant if empty
+     */
+    Fingerprint(final String method, final String home,
+        final Collection<Map.Entry<String, String>> headers,
+        final String... significant) {
+        final URI uri = URI.create(home);
+        if (uri.getPath() == null) {
+            this.path = "";
+        } else {
+            this.path = uri.getPath();
+        }
+        this.text = new StringBuilder(home.length() << 1)
+            .append(method).append(' ')
+            .append(Fingerprint.authority(uri))
+            .append(Fingerprint.path(uri))
+            .append(Fingerprint.query(uri))
+            .append(Fingerprint.headers(headers, significant))
+            .toString();
+        this.hash = this.text.hashCode();
+    }
+
+    /**
+     * Ctor, of the fingerprint made before.
+     * @param txt Full text of the fingerprint
+     * @param pth Path of the URI
+     */
+    private Fingerprint(final String txt, final String pth) {
+        this.text = txt;
+        this.path = pth;
+        this.hash = txt.hashCode();
+    }
+
+    /**
+     * Restore the fingerprint from its text and path.
+     * @param text Full text, as returned by {@link #toString()}
+     * @param path Path, as returned by {@link #path()}
+     * @return Fingerprint
+     */
+    public static Fingerprint restore(final String text, final String path) {
+        return new Fingerprint(text, path);
+    }
+
+    /**
+     * HTTP method.
+     * @return Method
+     */
+    public String method() {
+        return this.text.substring(0, this.text.indexOf(' '));
+    }
+
+    /**
+     * Normalized URI, without method and headers.
+     * @return URI
+     */
+    public String uri() {
+        final int start = this.text.indexOf(' ') + 1;
+        int end = this.text.indexOf('\n');
+        if (end < 0) {
+            end = this.text.length();
+        }
+        return this.text.substring(start, end);
+    }
+
+    /**
+     * Significant headers, with names in lower case.
+     * @return Headers
+     */
+    public Collection<Map.Entry<String, String>> headers() {
+        final String[] lines = this.text.split("\n");
+        final List<Map.Entry<String, String>> headers =
+            new ArrayList<>(lines.length - 1);
+        for (int idx = 1; idx < lines.length; ++idx) {
+            final int colon = lines[idx].indexOf(": ");
+            headers.add(
+                new AbstractMap.SimpleImmutableEntry<>(
+                    lines[idx].substring(0, colon),
+                    lines[idx].substring(colon + 2)
+                )
+            );
+        }
+        return headers;
+    }
+
+    /**
+     * Decoded path of the URI, the same as flushing regular expressions
+     * see it.
+     * @return Path
+     */
+    public String path() {
+        return this.path;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj || obj instanceof Fingerprint
+            && this.hash == ((Fingerprint) obj).hash
+            && this.text.equals(((Fingerprint) obj).text);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return this.text;
+    }
+
+    /**
+     * Normalized scheme, user info, host and port.
+     * @param uri The URI
+     * @return Text
+     */
+    private static String authority(final URI uri) {
+        final StringBuilder text = new StringBuilder(0);
+        if (uri.getScheme() != null) {
+            text.append(uri.getScheme().toLowerCase(Locale.ENGLISH))
+                .append("://");
+        }
+        if (uri.getRawUserInfo() != null) {
+            text.append(uri.getRawUserInfo()).append('@');
+        }
+        if (uri.getHost() != null) {
+            text.append(uri.getHost().toLowerCase(Locale.ENGLISH));
+        }
+        final int port = uri.getPort();
+        if (port > 0 && !(port == Fingerprint.HTTP
+            && "http".equalsIgnoreCase(uri.getScheme())
+            || port == Fingerprint.HTTPS
+            && "https".equalsIgnoreCase(uri.getScheme()))) {
+            text.append(':').append(port);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Raw path of the URI.
+     * @param uri The URI
+     * @return Path, "/" if it's empty
+     */
+    private static String path(final URI uri) {
+        String path = uri.getRawPath();
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        }
+        return path;
+    }
+
+    /**
+     * Query with parameters sorted.
+     * @param uri The URI
+     * @return Query text, with leading question mark, or empty
+     */
+    private static String query(final URI uri) {
+        final String query = uri.getRawQuery();
+        final StringBuilder text = new StringBuilder(0);
+        if (query != null && !query.isEmpty()) {
+            final String[] params = query.split("&");
+            Arrays.sort(params);
+            text.append('?');
+            for (final String param : params) {
+                if (text.length() > 1) {
+                    text.append('&');
+                }
+                text.append(param);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Significant headers, sorted.
+     * @param headers All headers
+     * @param significant Names of significant headers
+     * @return Text, one header per line
+     */
+    private static String headers(
+        final Collection<Map.Entry<String, String>> headers,
+        final String... significant) {
+        final List<String> lines = new ArrayList<>(headers.size());
+        for (final Map.Entry<String, String> header : headers) {
+            if (Fingerprint.matches(header.getKey(), significant)) {
+                lines.add(
+                    String.join(
+                        ": ",
+                        header.getKey().toLowerCase(Locale.ENGLISH),
+                        header.getValue()
+                    )
+                );
+            }
+        }
+        lines.sort(null);
+        final StringBuilder text = new StringBuilder(0);
+        for (final String line : lines) {
+            text.append('\n').append(line);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Is this header significant?
+     * @param name Header name
+     * @param significant Names of significant headers
+     * @return TRUE if it is
+     */
+    private static boolean matches(final String name,
+        final String... significant) {
+        boolean matches = significant.length == 0;
+        for (final String sig : significant) {
+            if (sig.equalsIgnoreCase(name)) {
+                matches = true;
+                break;
+            }
+        }
+        return matches;
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Flushing regular expression of a caching wire.
+ *
+ * <p>The expression is compiled once and then matched against a label,
+ * made of an HTTP method, space, path of the URI together with the query
+ * part, like {@code POST /users/42?x=1}. By default, a match flushes the
+ * entire cache. If the expression has a named group {@code path}, only
+ * the entries with the captured path or paths below it are flushed:
+ *
+ * <pre>"(?:PUT|POST|DELETE) (?&lt;path&gt;/users/[^/?]+).*"</pre>
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+final class Flush {
+
+    /**
+     * Name of the group with the path to flush.
+     */
+    private static final String GROUP = "path";
+
+    /**
+     * Path that means the entire cache.
+     */
+    private static final String ALL = "/";
+
+    /**
+     * Compiled expression.
+     */
+    private final transient Pattern pattern;
+
+    /**
+     * Does it have the path group?
+     */
+    private final transient boolean targeted;
+
+    /**
+     * Ctor.
+     * @param regex Regular expression
+     */
+    Flush(final String regex) {
+        this.pattern = Pattern.compile(regex);
+        this.targeted = regex.contains(
+            String.format("(?<%s>", Flush.GROUP)
+        );
+    }
+
+    /**
+     * Path to flush for this label.
+     * @param label Label of the request
+     * @return Path to flush with all paths below it, "/" to flush
+     *  everything, or empty if nothing has to be flushed
+     */
+    public String path(final String label) {
+        final Matcher matcher = this.pattern.matcher(label);
+        String path = "";
+        if (matcher.matches()) {
+            path = Flush.ALL;
+            if (this.targeted && matcher.group(Flush.GROUP) != null
+                && !matcher.group(Flush.GROUP).isEmpty()) {
+                path = matcher.group(Flush.GROUP);
+            }
+        }
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return this.pattern.pattern();
+    }
+
+    /**
+     * Is it the entire cache?
+     * @param path Path returned by {@link #path(String)}
+     * @return TRUE if everything has to be flushed
+     */
+    public boolean everything(final String path) {
+        return Flush.ALL.equals(path);
+    }
+
+}
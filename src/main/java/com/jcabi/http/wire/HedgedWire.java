@@ -0,0 +1,496 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Wire that sends a second copy of a slow request ("hedged requests").
+ *
+ * <p>If the server doesn't answer within a threshold, the same request
+ * is sent once again, and the response that comes first is returned,
+ * while the other request is cancelled. This cuts the tail latency of
+ * a replicated backend, where a request may hit a slow replica:
+ *
+ * <pre> String html = new JdkRequest("http://goggle.com")
+ *   .through(HedgedWire.class)
+ *   .fetch()
+ *   .body();</pre>
+ *
+ * <p>By default, the threshold is the 95th percentile of the latencies of
+ * recent requests, and 100 milliseconds until there are enough of them.
+ * The threshold may be fixed, in milliseconds:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(HedgedWire.class, 50L)
+ *   .fetch();</pre>
+ *
+ * <p>Hedges are limited by a budget, shared by equal wires while any of
+ * them is in use, the same way as retries in {@link RetryWire}: every
+ * request adds a share of a hedge to it, 5% by default, and every hedge
+ * takes a whole one. The initial threshold, the percentile (zero for a
+ * fixed threshold) and the share, in percent, are configurable:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(HedgedWire.class, 200L, 99, 2)
+ *   .fetch();</pre>
+ *
+ * <p>Only GET, HEAD and OPTIONS requests are hedged, others go through as
+ * they are. If the first request fails before the threshold, the failure
+ * is reported as it is, this wire doesn't retry; if it fails after the
+ * hedge is sent, the hedge is waited for. Both requests are sent from
+ * a pool of daemon threads, while the calling thread waits. A cancelled
+ * request is interrupted, but the connection it's blocked on may not
+ * notice it.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = "origin")
+@EqualsAndHashCode(of = { "origin", "delay", "percentile", "percent" })
+@SuppressWarnings("PMD.TooManyMethods")
+public final class HedgedWire implements Wire {
+
+    /**
+     * Default threshold, in milliseconds.
+     */
+    private static final long DELAY = 100L;
+
+    /**
+     * Default percentile of latencies.
+     */
+    private static final int PERCENTILE = 95;
+
+    /**
+     * Default share of hedges in traffic, in percent.
+     */
+    private static final int PERCENT = 5;
+
+    /**
+     * Methods that are hedged.
+     */
+    private static final Set<String> SAFE = new HashSet<>(
+        Arrays.asList(Request.GET, Request.HEAD, Request.OPTIONS)
+    );
+
+    /**
+     * Threads of all wires.
+     */
+    private static final ExecutorService SENDER =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("HedgedWire-sender-%d")
+                .build()
+        );
+
+    /**
+     * Latencies and counters of all wires, kept while there are wires
+     * using them.
+     */
+    private static final LoadingCache<HedgedWire, HedgedWire.Track> TRACKS =
+        CacheBuilder.newBuilder().weakValues().build(
+            new CacheLoader<HedgedWire, HedgedWire.Track>() {
+                @Override
+                public HedgedWire.Track load(final HedgedWire key) {
+                    return new HedgedWire.Track(key);
+                }
+            }
+        );
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Threshold, in milliseconds, fixed or initial.
+     */
+    private final transient long delay;
+
+    /**
+     * Percentile of latencies, zero if the threshold is fixed.
+     */
+    private final transient int percentile;
+
+    /**
+     * Share of hedges in traffic, in percent.
+     */
+    private final transient int percent;
+
+    /**
+     * Latencies and counters.
+     */
+    private final transient HedgedWire.Track track;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     */
+    public HedgedWire(final Wire wire) {
+        this(
+            wire, HedgedWire.DELAY, HedgedWire.PERCENTILE, HedgedWire.PERCENT
+        );
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param millis Fixed threshold, in milliseconds
+     */
+    public HedgedWire(final Wire wire, final long millis) {
+        this(wire, millis, 0, HedgedWire.PERCENT);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param millis Threshold, in milliseconds, until there are enough
+     *  latencies to calculate the percentile, or always if it's zero
+     * @param pct Percentile of latencies, zero if the threshold is fixed
+     * @param share Share of hedges in traffic, in percent
+     */
+    public HedgedWire(final Wire wire, final long millis, final int pct,
+        final int share) {
+        this.origin = wire;
+        this.delay = millis;
+        this.percentile = pct;
+        this.percent = share;
+        this.track = HedgedWire.TRACKS.getUnchecked(this);
+    }
+
+    // @checkstyle ParameterNumber (5 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content,
+        final int connect,
+        final int read) throws IOException {
+        final Response rsp;
+        if (HedgedWire.SAFE.contains(method)) {
+            this.track.budget.deposit();
+            final byte[] body = ByteStreams.toByteArray(content);
+            final HedgedWire.Race race = new HedgedWire.Race();
+            final Callable<Response> copy = () -> this.timed(
+                req, home, method, headers, body, connect, read
+            );
+            final Future<?> first = race.start(copy);
+            Future<?> second = null;
+            try {
+                Response winner = race.await(this.track.threshold());
+                if (winner == null && this.track.budget.withdraw()) {
+                    this.track.hedged.increment();
+                    second = race.start(copy);
+                }
+                if (winner == null) {
+                    winner = race.await(Long.MAX_VALUE);
+                }
+                if (second != null && race.second()) {
+                    this.track.won.increment();
+                }
+                rsp = winner;
+            } finally {
+                first.cancel(true);
+                if (second != null) {
+                    second.cancel(true);
+                }
+            }
+        } else {
+            rsp = this.origin.send(
+                req, home, method, headers, content, connect, read
+            );
+        }
+        return rsp;
+    }
+
+    /**
+     * How many hedges were sent, since the start.
+     * @return Number of second copies of requests
+     */
+    public long hedged() {
+        return this.track.hedged.sum();
+    }
+
+    /**
+     * How many hedges answered first, since the start.
+     * @return Number of second copies that won
+     */
+    public long won() {
+        return this.track.won.sum();
+    }
+
+    /**
+     * Current threshold.
+     * @return Milliseconds to wait before the hedge is sent
+     */
+    public long threshold() {
+        return this.track.threshold();
+    }
+
+    /**
+     * Send the request and record its latency.
+     * @param req Request
+     * @param home URI to fetch
+     * @param method HTTP method
+     * @param headers Headers
+     * @param body HTTP body
+     * @param connect The connect timeout
+     * @param read The read timeout
+     * @return Response
+     * @throws IOException If fails
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    private Response timed(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final byte[] body, final int connect, final int read)
+        throws IOException {
+        final long start = System.nanoTime();
+        final Response rsp = this.origin.send(
+            req, home, method, headers, new ByteArrayInputStream(body),
+            connect, read
+        );
+        this.track.latency(System.nanoTime() - start);
+        return rsp;
+    }
+
+    /**
+     * Requests racing for the first response.
+     *
+     * <p>The race is won by the first response, and it's lost if all
+     * requests fail, with the exception of the last of them.
+     *
+     * @since 2.0
+     */
+    private static final class Race {
+        /**
+         * The first response.
+         */
+        private final CompletableFuture<Response> winner =
+            new CompletableFuture<>();
+
+        /**
+         * Requests started and not failed yet.
+         */
+        private final AtomicInteger running = new AtomicInteger();
+
+        /**
+         * Number of the request that won, starting with one.
+         */
+        private final AtomicInteger first = new AtomicInteger();
+
+        /**
+         * Start one more request.
+         * @param request The request
+         * @return Future of the request, to cancel it
+         */
+        @SuppressWarnings("PMD.AvoidCatchingThrowable")
+        Future<?> start(final Callable<Response> request) {
+            final int number = this.running.incrementAndGet();
+            return HedgedWire.SENDER.submit(
+                () -> {
+                    try {
+                        final Response rsp = request.call();
+                        if (this.first.compareAndSet(0, number)) {
+                            this.winner.complete(rsp);
+                        }
+                    // @checkstyle IllegalCatchCheck (1 line)
+                    } catch (final Throwable ex) {
+                        if (this.running.decrementAndGet() == 0) {
+                            this.winner.completeExceptionally(ex);
+                        }
+                    }
+                }
+            );
+        }
+
+        /**
+         * Wait for the first response.
+         * @param millis How long to wait, in milliseconds
+         * @return Response, or NULL if there is none yet
+         * @throws IOException If all requests failed or the thread is
+         *  interrupted
+         */
+        Response await(final long millis) throws IOException {
+            Response rsp;
+            try {
+                rsp = this.winner.get(millis, TimeUnit.MILLISECONDS);
+            } catch (final TimeoutException ex) {
+                rsp = null;
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                final InterruptedIOException iex = new InterruptedIOException(
+                    "interrupted while waiting for hedged request"
+                );
+                iex.initCause(ex);
+                throw iex;
+            } catch (final ExecutionException ex) {
+                if (ex.getCause() instanceof IOException) {
+                    throw (IOException) ex.getCause();
+                }
+                throw new IOException(
+                    ex.getCause().getMessage(), ex.getCause()
+                );
+            }
+            return rsp;
+        }
+
+        /**
+         * Did the second request win?
+         * @return TRUE if it did
+         */
+        boolean second() {
+            return this.first.get() == 2;
+        }
+    }
+
+    /**
+     * Latencies and counters of one wire.
+     *
+     * <p>Latencies of the last requests are kept in a ring, and the
+     * percentile is calculated again after every few of them.
+     *
+     * @since 2.0
+     */
+    private static final class Track {
+        /**
+         * Number of latencies in the ring.
+         */
+        private static final int RING = 1024;
+
+        /**
+         * Number of latencies needed to calculate the percentile.
+         */
+        private static final int ENOUGH = 100;
+
+        /**
+         * Number of latencies between calculations of the percentile.
+         */
+        private static final int EVERY = 64;
+
+        /**
+         * Budget of hedges.
+         */
+        private final Budget budget;
+
+        /**
+         * Hedges sent.
+         */
+        private final LongAdder hedged = new LongAdder();
+
+        /**
+         * Hedges that answered first.
+         */
+        private final LongAdder won = new LongAdder();
+
+        /**
+         * Percentile, zero if the threshold is fixed.
+         */
+        private final int percentile;
+
+        /**
+         * Latencies of the last requests, in nanoseconds.
+         */
+        private final AtomicLongArray ring =
+            new AtomicLongArray(HedgedWire.Track.RING);
+
+        /**
+         * Number of latencies recorded.
+         */
+        private final AtomicLong count = new AtomicLong();
+
+        /**
+         * Current threshold, in milliseconds.
+         */
+        private final AtomicLong current;
+
+        /**
+         * Ctor.
+         * @param wire The wire
+         */
+        Track(final HedgedWire wire) {
+            this.budget = new Budget(wire.percent);
+            this.percentile = wire.percentile;
+            this.current = new AtomicLong(wire.delay);
+        }
+
+        /**
+         * Current threshold.
+         * @return Milliseconds
+         */
+        long threshold() {
+            return this.current.get();
+        }
+
+        /**
+         * Record latency of a request.
+         * @param nanos Latency, in nanoseconds
+         */
+        void latency(final long nanos) {
+            if (this.percentile > 0) {
+                final long idx = this.count.getAndIncrement();
+                this.ring.set((int) (idx % HedgedWire.Track.RING), nanos);
+                if (idx + 1L >= HedgedWire.Track.ENOUGH
+                    && (idx + 1L) % HedgedWire.Track.EVERY == 0L) {
+                    this.current.set(this.calculate(idx + 1L));
+                }
+            }
+        }
+
+        /**
+         * Calculate the percentile of recorded latencies.
+         * @param total Number of latencies recorded so far
+         * @return Milliseconds
+         */
+        private long calculate(final long total) {
+            final int size = (int) Math.min(total, HedgedWire.Track.RING);
+            final long[] sorted = new long[size];
+            for (int idx = 0; idx < size; ++idx) {
+                sorted[idx] = this.ring.get(idx);
+            }
+            Arrays.sort(sorted);
+            // @checkstyle MagicNumber (1 line)
+            final int rank = (int) Math.ceil(size * this.percentile / 100.0);
+            return TimeUnit.NANOSECONDS.toMillis(
+                sorted[Math.max(0, Math.min(size, rank) - 1)]
+            );
+        }
+    }
+
+}
@@ -4,8 +4,11 @@
  */
 package com.jcabi.http.wire;
 
+import com.google.common.cache.Cache;
+import com.jcabi.http.Response;
 import com.jcabi.http.Wire;
 import jakarta.ws.rs.core.HttpHeaders;
+import java.util.concurrent.Callable;
 import lombok.ToString;
 
 /**
@@ -24,4 +27,34 @@ public final class LastModifiedCachingWire
     public LastModifiedCachingWire(final Wire origin) {
         super(HttpHeaders.LAST_MODIFIED, HttpHeaders.IF_MODIFIED_SINCE, origin);
     }
+
+    /**
+     * Public ctor.
+     * @param origin Original wire
+     * @param max Maximum number of entries, zero if unbounded
+     * @param size Maximum total size of bodies in bytes, zero if unbounded
+     * @since 2.0
+     */
+    public LastModifiedCachingWire(final Wire origin, final long max,
+        final long size) {
+        super(
+            HttpHeaders.LAST_MODIFIED, HttpHeaders.IF_MODIFIED_SINCE,
+            origin, max, size
+        );
+    }
+
+    /**
+     * Public ctor.
+     * @param origin Original wire
+     * @param storage Cache, which may be shared with other caching wires,
+     *  each of them keeps responses under keys of its own
+     * @since 2.0
+     */
+    public LastModifiedCachingWire(final Wire origin,
+        final Cache<Callable<Response>, Response> storage) {
+        super(
+            HttpHeaders.LAST_MODIFIED, HttpHeaders.IF_MODIFIED_SINCE,
+            origin, storage
+        );
+    }
 }
@@ -0,0 +1,26 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+/**
+ * Caching wire with statistics.
+ *
+ * <p>All caching wires of this package implement it, so that their hit
+ * rates, evictions and sizes can be watched the same way:
+ *
+ * <pre> Measured wire = new FcWire(origin, "$never", "/tmp/cache");
+ * double rate = wire.stats().getHitRate();</pre>
+ *
+ * @since 2.0
+ */
+public interface Measured {
+
+    /**
+     * Statistics of the cache, live.
+     * @return Statistics
+     */
+    CacheStats stats();
+
+}
@@ -0,0 +1,190 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Wire that caches negative responses of GET requests.
+ *
+ * <p>Responses with the given statuses, {@code 404} and {@code 410} by
+ * default, are kept for a short time, in a storage of their own, so that
+ * resources that don't exist are not asked for again and again:
+ *
+ * <pre> new JdkRequest("http://goggle.com/missing")
+ *   .through(NegativeCachingWire.class)
+ *   .fetch();</pre>
+ *
+ * <p>The number of seconds to keep them, the maximum number of them and
+ * the statuses are configurable:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(NegativeCachingWire.class, 10L, 5000L, new int[] {404, 410})
+ *   .fetch();</pre>
+ *
+ * <p>Negative responses are keyed by normalized URI only. A successful
+ * request with a method other than GET or HEAD, which may create the
+ * resource, drops the negative response of its URI.
+ *
+ * <p>Since the storage is separate, this wire works best with the caches
+ * that don't keep negative responses, like {@link ETagCachingWire} or
+ * {@link ConditionalCachingWire}, put it above them. Equal wires share
+ * their storage.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = { "origin", "ttl" })
+@EqualsAndHashCode(of = { "origin", "ttl", "entries", "statuses" })
+public final class NegativeCachingWire implements Wire, Measured {
+
+    /**
+     * Default seconds to keep a negative response.
+     */
+    private static final long TTL = 60L;
+
+    /**
+     * Default maximum number of negative responses.
+     */
+    private static final long ENTRIES = 1000L;
+
+    /**
+     * Storages of all wires.
+     */
+    private static final LoadingCache<NegativeCachingWire,
+        Cache<Callable<Response>, Response>> STORAGES =
+        CacheBuilder.newBuilder().build(
+            new CacheLoader<NegativeCachingWire,
+                Cache<Callable<Response>, Response>>() {
+                @Override
+                public Cache<Callable<Response>, Response> load(
+                    final NegativeCachingWire key) {
+                    return CachingWire.storage(
+                        key.entries, 0L, key.ttl, 0L
+                    ).build();
+                }
+            }
+        );
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Seconds to keep a negative response.
+     */
+    private final transient long ttl;
+
+    /**
+     * Maximum number of negative responses.
+     */
+    private final transient long entries;
+
+    /**
+     * Statuses to cache, sorted.
+     */
+    @Immutable.Array
+    private final transient int[] statuses;
+
+    /**
+     * Negative responses.
+     */
+    private final transient Cache<Callable<Response>, Response> cache;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     */
+    public NegativeCachingWire(final Wire wire) {
+        this(
+            wire, NegativeCachingWire.TTL, NegativeCachingWire.ENTRIES,
+            HttpURLConnection.HTTP_NOT_FOUND, HttpURLConnection.HTTP_GONE
+        );
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param seconds Seconds to keep a negative response, zero if forever
+     * @param max Maximum number of negative responses, zero if unbounded
+     * @param codes Statuses to cache
+     */
+    public NegativeCachingWire(final Wire wire, final long seconds,
+        final long max, final int... codes) {
+        this.origin = wire;
+        this.ttl = seconds;
+        this.entries = max;
+        this.statuses = codes.clone();
+        Arrays.sort(this.statuses);
+        this.cache = NegativeCachingWire.STORAGES.getUnchecked(this);
+    }
+
+    // @checkstyle ParameterNumber (5 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content,
+        final int connect,
+        final int read) throws IOException {
+        final Callable<Response> key = new CachingWire.Key(
+            NegativeCachingWire.class,
+            new Fingerprint(Request.GET, home, Collections.emptyList()),
+            this.origin, connect, read
+        );
+        Response rsp = null;
+        if (method.equals(Request.GET)) {
+            this.stats().request();
+            rsp = this.cache.getIfPresent(key);
+        }
+        if (rsp == null) {
+            final long start = System.nanoTime();
+            try {
+                rsp = this.origin.send(
+                    req, home, method, headers, content, connect, read
+                );
+            } finally {
+                if (method.equals(Request.GET)) {
+                    this.stats().miss(System.nanoTime() - start);
+                }
+            }
+            if (method.equals(Request.GET)) {
+                if (Arrays.binarySearch(this.statuses, rsp.status()) >= 0) {
+                    this.cache.put(key, rsp);
+                }
+            } else if (!method.equals(Request.HEAD)
+                && rsp.status() < HttpURLConnection.HTTP_BAD_REQUEST) {
+                this.cache.invalidate(key);
+            }
+        }
+        return rsp;
+    }
+
+    @Override
+    public CacheStats stats() {
+        return CacheStats.of(this.cache);
+    }
+
+}
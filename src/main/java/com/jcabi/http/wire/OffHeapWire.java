@@ -0,0 +1,258 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.immutable.Array;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Wire that keeps bodies of responses off heap.
+ *
+ * <p>Bodies of {@code GET} responses are copied into direct memory, while
+ * status, reason and headers stay on heap. Put it under a caching wire and
+ * large cached bodies won't burden the garbage collector:
+ *
+ * <pre> String html = new JdkRequest("http://goggle.com")
+ *   .through(OffHeapWire.class)
+ *   .through(CachingWire.class)
+ *   .fetch()
+ *   .body();</pre>
+ *
+ * <p>The response reads its body right from direct memory, it is copied
+ * to heap only by {@link Response#binary()} and {@link Response#body()}.
+ * Memory is allocated by a slab allocator, in chunks of size classes from
+ * 1Kb to 1Mb, and it is reused as soon as the response is not reachable
+ * anymore, for example, after it's evicted from the cache. Bodies smaller
+ * than the threshold, larger than 1Mb, or not fitting into the capacity
+ * stay on heap. The capacity is 64Mb by default:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(OffHeapWire.class, 256L * 1024 * 1024)
+ *   .through(ETagCachingWire.class)
+ *   .fetch();</pre>
+ *
+ * <p>Equal wires share their memory.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = "origin")
+@EqualsAndHashCode(of = { "origin", "capacity" })
+public final class OffHeapWire implements Wire {
+
+    /**
+     * Default capacity in bytes.
+     */
+    private static final long CAPACITY = 64L << 20;
+
+    /**
+     * Smallest body to keep off heap.
+     */
+    private static final int THRESHOLD = 1 << 10;
+
+    /**
+     * Memory of all wires.
+     */
+    private static final LoadingCache<OffHeapWire, Slabs> MEMORY =
+        CacheBuilder.newBuilder().build(
+            new CacheLoader<OffHeapWire, Slabs>() {
+                @Override
+                public Slabs load(final OffHeapWire key) {
+                    return new Slabs(key.capacity);
+                }
+            }
+        );
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Maximum bytes of direct memory.
+     */
+    private final transient long capacity;
+
+    /**
+     * Direct memory.
+     */
+    private final transient Slabs slabs;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     */
+    public OffHeapWire(final Wire wire) {
+        this(wire, OffHeapWire.CAPACITY);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param bytes Maximum bytes of direct memory
+     */
+    public OffHeapWire(final Wire wire, final long bytes) {
+        this.origin = wire;
+        this.capacity = bytes;
+        this.slabs = OffHeapWire.MEMORY.getUnchecked(this);
+    }
+
+    // @checkstyle ParameterNumber (5 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content,
+        final int connect,
+        final int read) throws IOException {
+        Response rsp = this.origin.send(
+            req, home, method, headers, content, connect, read
+        );
+        if (method.equals(Request.GET)) {
+            final byte[] body = rsp.binary();
+            if (body.length >= OffHeapWire.THRESHOLD) {
+                final Slabs.Chunk chunk = this.slabs.copy(body);
+                if (chunk != null) {
+                    rsp = new OffHeapWire.Stored(
+                        chunk,
+                        new DefaultResponse(
+                            rsp.back(), rsp.status(), rsp.reason(),
+                            new Array<>(FcEntry.headers(rsp)), chunk.bytes()
+                        )
+                    );
+                }
+            }
+        }
+        return rsp;
+    }
+
+    /**
+     * Bytes of direct memory allocated.
+     * @return Bytes
+     */
+    public long allocated() {
+        return this.slabs.allocated();
+    }
+
+    /**
+     * Bodies in direct memory, including those not reachable anymore
+     * but not yet noticed by the garbage collector.
+     * @return Number of bodies
+     */
+    public int bodies() {
+        return this.slabs.used();
+    }
+
+    /**
+     * Response with its body in direct memory.
+     *
+     * <p>It holds the chunk, so the memory is not reused while the
+     * response is reachable, and touches it after every read of the body,
+     * so the memory is not reused while the body is read either.
+     *
+     * @since 2.0
+     */
+    @Immutable
+    static final class Stored implements Response {
+        /**
+         * Chunk with the body.
+         */
+        private final transient Slabs.Chunk chunk;
+
+        /**
+         * Response reading from the chunk.
+         */
+        private final transient Response origin;
+
+        /**
+         * Ctor.
+         * @param mem Chunk with the body
+         * @param rsp Response reading from the chunk
+         */
+        Stored(final Slabs.Chunk mem, final Response rsp) {
+            this.chunk = mem;
+            this.origin = rsp;
+        }
+
+        @Override
+        public Request back() {
+            return this.origin.back();
+        }
+
+        @Override
+        public int status() {
+            return this.origin.status();
+        }
+
+        @Override
+        public String reason() {
+            return this.origin.reason();
+        }
+
+        @Override
+        public Map<String, List<String>> headers() {
+            return this.origin.headers();
+        }
+
+        @Override
+        public String body() {
+            final String body = this.origin.body();
+            this.chunk.touch();
+            return body;
+        }
+
+        @Override
+        public byte[] binary() {
+            final byte[] bytes = this.origin.binary();
+            this.chunk.touch();
+            return bytes;
+        }
+
+        /**
+         * Length of the body, without copying it.
+         * @return Number of bytes
+         */
+        public int length() {
+            return this.chunk.bytes().remaining();
+        }
+
+        // @checkstyle MethodName (4 lines)
+        @Override
+        @SuppressWarnings("PMD.ShortMethodName")
+        public <T extends Response> T as(final Class<T> type) {
+            try {
+                return type.getDeclaredConstructor(Response.class)
+                    .newInstance(this);
+            } catch (final InstantiationException
+                | IllegalAccessException | NoSuchMethodException
+                | InvocationTargetException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return this.origin.toString();
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of cache keys by segments of their URI paths.
+ *
+ * <p>It is a trie, where every node is a path segment and keeps the keys
+ * of the entries with exactly this path. Removing {@code /users/42} takes
+ * the keys of {@code /users/42}, {@code /users/42/photos} and all other
+ * paths below it, but not of {@code /users/420}.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @param <K> Type of keys
+ * @since 2.0
+ */
+final class PathIndex<K> {
+
+    /**
+     * Root of the trie.
+     */
+    private final transient PathIndex.Node<K> root = new PathIndex.Node<>();
+
+    /**
+     * Total number of keys.
+     */
+    private transient int total;
+
+    /**
+     * Add a key.
+     * @param path URI path
+     * @param key The key
+     */
+    public synchronized void add(final String path, final K key) {
+        PathIndex.Node<K> node = this.root;
+        for (final String segment : PathIndex.segments(path)) {
+            node = node.children.computeIfAbsent(
+                segment, seg -> new PathIndex.Node<>()
+            );
+        }
+        if (node.keys.add(key)) {
+            ++this.total;
+        }
+    }
+
+    /**
+     * Remove all keys with this path or paths below it.
+     * @param path URI path
+     * @return Keys removed
+     */
+    public synchronized Collection<K> remove(final String path) {
+        PathIndex.Node<K> parent = null;
+        PathIndex.Node<K> node = this.root;
+        String last = "";
+        for (final String segment : PathIndex.segments(path)) {
+            parent = node;
+            last = segment;
+            node = node.children.get(segment);
+            if (node == null) {
+                break;
+            }
+        }
+        final Collection<K> keys = new LinkedList<>();
+        if (node != null) {
+            PathIndex.collect(node, keys);
+            if (parent == null) {
+                this.root.children.clear();
+                this.root.keys.clear();
+            } else {
+                parent.children.remove(last);
+            }
+        }
+        this.total -= keys.size();
+        return keys;
+    }
+
+    /**
+     * Forget keys that are not in the cache anymore.
+     * @param live Keys still in the cache
+     */
+    public synchronized void retain(final Collection<?> live) {
+        this.total = PathIndex.retain(this.root, live);
+    }
+
+    /**
+     * Total number of keys.
+     * @return Number of keys
+     */
+    public synchronized int size() {
+        return this.total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d keys", this.total);
+    }
+
+    /**
+     * Non-empty segments of the path.
+     * @param path URI path
+     * @return Segments
+     */
+    private static Collection<String> segments(final String path) {
+        final Collection<String> segments = new LinkedList<>();
+        for (final String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Collect all keys of the subtree.
+     * @param node Root of the subtree
+     * @param keys Where to put them
+     * @param <K> Type of keys
+     */
+    private static <K> void collect(final PathIndex.Node<K> node,
+        final Collection<K> keys) {
+        keys.addAll(node.keys);
+        for (final PathIndex.Node<K> child : node.children.values()) {
+            PathIndex.collect(child, keys);
+        }
+    }
+
+    /**
+     * Retain only live keys in the subtree, drop empty nodes.
+     * @param node Root of the subtree
+     * @param live Keys still in the cache
+     * @param <K> Type of keys
+     * @return Number of keys left in the subtree
+     */
+    private static <K> int retain(final PathIndex.Node<K> node,
+        final Collection<?> live) {
+        node.keys.retainAll(live);
+        int left = node.keys.size();
+        final Iterator<PathIndex.Node<K>> kids =
+            node.children.values().iterator();
+        while (kids.hasNext()) {
+            final int kept = PathIndex.retain(kids.next(), live);
+            if (kept == 0) {
+                kids.remove();
+            }
+            left += kept;
+        }
+        return left;
+    }
+
+    /**
+     * Node of the trie.
+     *
+     * @param <K> Type of keys
+     * @since 2.0
+     */
+    private static final class Node<K> {
+        /**
+         * Children, by path segments.
+         */
+        private final Map<String, PathIndex.Node<K>> children =
+            new HashMap<>(0);
+
+        /**
+         * Keys of entries with exactly this path.
+         */
+        private final Set<K> keys = new HashSet<>(0);
+    }
+
+}
@@ -0,0 +1,523 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Wire that keeps the rate of requests to every host under a limit.
+ *
+ * <p>Every host has a token bucket, which holds as many tokens as
+ * requests are permitted in a period and is refilled evenly during the
+ * period; every request takes a token. When the bucket is empty, the
+ * request waits for the next token. By default, 10 requests per second
+ * are permitted, and a request waits as long as needed:
+ *
+ * <pre> String html = new JdkRequest("http://goggle.com")
+ *   .through(RateLimitingWire.class)
+ *   .fetch()
+ *   .body();</pre>
+ *
+ * <p>The number of requests and the period, in milliseconds, are
+ * configurable, and so is the longest wait, in milliseconds: if the next
+ * token is further away, the request fails right away with
+ * {@link IOException}, without waiting at all. Zero means failing fast,
+ * when there are no tokens:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(RateLimitingWire.class, 5000, 3_600_000L, 0L)
+ *   .fetch();</pre>
+ *
+ * <p>Buckets are kept by host and port, and, if the name of a header is
+ * given, by the value of this header too, for example when the quota is
+ * per API key:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(RateLimitingWire.class, 100, 60_000L, 5000L, "X-Api-Key")
+ *   .fetch();</pre>
+ *
+ * <p>The bucket also follows the quota the server reports in its
+ * responses, in {@code X-RateLimit-Remaining} and {@code X-RateLimit-Reset},
+ * in {@code RateLimit-Remaining} and {@code RateLimit-Reset}, or in
+ * {@code RateLimit}, with {@code remaining} and {@code reset}, or
+ * {@code r} and {@code t}, parameters. The bucket never holds more tokens
+ * than the server has requests left, the rest of them are spread evenly
+ * until the reset, and if there are none left, the bucket is empty until
+ * the reset. Reset is either in seconds, or in seconds since the epoch.
+ *
+ * <p>Equal wires share their buckets, while any of them is in use. The
+ * bucket is changed only by compare-and-set, there are no locks.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = { "origin", "permits", "period" })
+@EqualsAndHashCode(of = { "origin", "permits", "period", "wait", "key" })
+@SuppressWarnings("PMD.TooManyMethods")
+public final class RateLimitingWire implements Wire {
+
+    /**
+     * Default number of requests in a period.
+     */
+    private static final int PERMITS = 10;
+
+    /**
+     * Default period, in milliseconds.
+     */
+    private static final long PERIOD = 1000L;
+
+    /**
+     * Buckets of all wires, kept while there are wires using them.
+     */
+    private static final LoadingCache<RateLimitingWire,
+        RateLimitingWire.Buckets> BUCKETS =
+        CacheBuilder.newBuilder().weakValues().build(
+            new CacheLoader<RateLimitingWire, RateLimitingWire.Buckets>() {
+                @Override
+                public RateLimitingWire.Buckets load(
+                    final RateLimitingWire key) {
+                    return new RateLimitingWire.Buckets();
+                }
+            }
+        );
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Number of requests permitted in a period.
+     */
+    private final transient int permits;
+
+    /**
+     * Period, in milliseconds.
+     */
+    private final transient long period;
+
+    /**
+     * Longest wait for a token, in milliseconds.
+     */
+    private final transient long wait;
+
+    /**
+     * Name of the header with the key of buckets, or empty.
+     */
+    private final transient String key;
+
+    /**
+     * Buckets.
+     */
+    private final transient RateLimitingWire.Buckets buckets;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     */
+    public RateLimitingWire(final Wire wire) {
+        this(wire, RateLimitingWire.PERMITS, RateLimitingWire.PERIOD);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param max Number of requests permitted in a period
+     * @param millis Period, in milliseconds
+     */
+    public RateLimitingWire(final Wire wire, final int max,
+        final long millis) {
+        this(wire, max, millis, Long.MAX_VALUE);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param max Number of requests permitted in a period
+     * @param millis Period, in milliseconds
+     * @param longest Longest wait for a token, in milliseconds, zero to
+     *  fail fast
+     */
+    public RateLimitingWire(final Wire wire, final int max,
+        final long millis, final long longest) {
+        this(wire, max, millis, longest, "");
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param max Number of requests permitted in a period
+     * @param millis Period, in milliseconds
+     * @param longest Longest wait for a token, in milliseconds, zero to
+     *  fail fast
+     * @param header Name of the header with the key of buckets, or empty
+     *  to keep them by host only
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public RateLimitingWire(final Wire wire, final int max,
+        final long millis, final long longest, final String header) {
+        this.origin = wire;
+        this.permits = max;
+        this.period = millis;
+        this.wait = longest;
+        this.key = header;
+        this.buckets = RateLimitingWire.BUCKETS.getUnchecked(this);
+    }
+
+    // @checkstyle ParameterNumber (5 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content,
+        final int connect,
+        final int read) throws IOException {
+        final RateLimitingWire.Bucket bucket = this.buckets.all.computeIfAbsent(
+            this.name(home, headers),
+            name -> new RateLimitingWire.Bucket(this.permits, this.period)
+        );
+        final long delay = bucket.take(
+            System.nanoTime(),
+            TimeUnit.MILLISECONDS.toNanos(Math.max(0L, this.wait))
+        );
+        if (delay < 0L) {
+            this.buckets.rejected.increment();
+            throw new IOException(
+                String.format(
+                    "rate limit of %s is exceeded", URI.create(home).getHost()
+                )
+            );
+        }
+        if (delay > 0L) {
+            this.buckets.throttled.increment();
+            RateLimitingWire.sleep(delay);
+        }
+        final Response rsp = this.origin.send(
+            req, home, method, headers, content, connect, read
+        );
+        RateLimitingWire.follow(bucket, rsp);
+        return rsp;
+    }
+
+    /**
+     * How many requests waited for a token, since the start.
+     * @return Number of requests
+     */
+    public long throttled() {
+        return this.buckets.throttled.sum();
+    }
+
+    /**
+     * How many requests failed without a token, since the start.
+     * @return Number of requests
+     */
+    public long rejected() {
+        return this.buckets.rejected.sum();
+    }
+
+    /**
+     * Name of the bucket for the request.
+     * @param home URI to fetch
+     * @param headers Headers
+     * @return Name
+     */
+    private String name(final String home,
+        final Collection<Map.Entry<String, String>> headers) {
+        final URI uri = URI.create(home);
+        final StringBuilder name = new StringBuilder(0)
+            .append(uri.getHost()).append(':').append(uri.getPort());
+        if (!this.key.isEmpty()) {
+            for (final Map.Entry<String, String> header : headers) {
+                if (this.key.equalsIgnoreCase(header.getKey())) {
+                    name.append(' ').append(header.getValue());
+                }
+            }
+        }
+        return name.toString();
+    }
+
+    /**
+     * Follow the quota reported by the server.
+     * @param bucket The bucket
+     * @param rsp Response
+     */
+    private static void follow(final RateLimitingWire.Bucket bucket,
+        final Response rsp) {
+        long remaining = -1L;
+        long reset = -1L;
+        for (final Map.Entry<String, List<String>> header
+            : rsp.headers().entrySet()) {
+            if (header.getValue().isEmpty()) {
+                continue;
+            }
+            final String name = header.getKey().toLowerCase(Locale.ENGLISH);
+            final String value = header.getValue().get(0).trim();
+            if ("x-ratelimit-remaining".equals(name)
+                || "ratelimit-remaining".equals(name)) {
+                remaining = RateLimitingWire.number(value);
+            } else if ("x-ratelimit-reset".equals(name)
+                || "ratelimit-reset".equals(name)) {
+                reset = RateLimitingWire.number(value);
+            } else if ("ratelimit".equals(name)) {
+                for (final String param : value.split("[,;]")) {
+                    final String[] pair = param.trim().split("=", 2);
+                    if (pair.length < 2) {
+                        continue;
+                    }
+                    if ("remaining".equals(pair[0]) || "r".equals(pair[0])) {
+                        remaining = RateLimitingWire.number(pair[1]);
+                    } else if ("reset".equals(pair[0])
+                        || "t".equals(pair[0])) {
+                        reset = RateLimitingWire.number(pair[1]);
+                    }
+                }
+            }
+        }
+        // @checkstyle MagicNumber (1 line)
+        if (reset > 1_000_000_000L) {
+            reset -= TimeUnit.MILLISECONDS.toSeconds(
+                System.currentTimeMillis()
+            );
+        }
+        if (remaining >= 0L && reset > 0L) {
+            bucket.quota(
+                System.nanoTime(), remaining, TimeUnit.SECONDS.toNanos(reset)
+            );
+        }
+    }
+
+    /**
+     * Parse a non-negative number.
+     * @param value The value, maybe quoted
+     * @return Number, or a negative one if it's invalid
+     */
+    private static long number(final String value) {
+        long num;
+        try {
+            num = Long.parseLong(value.replace("\"", "").trim());
+        } catch (final NumberFormatException ex) {
+            num = -1L;
+        }
+        return num;
+    }
+
+    /**
+     * Wait for a token.
+     * @param nanos Nanoseconds to wait
+     * @throws IOException If interrupted
+     */
+    private static void sleep(final long nanos) throws IOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException error = new InterruptedIOException(
+                "interrupted while waiting for rate limit"
+            );
+            error.initCause(ex);
+            throw error;
+        }
+    }
+
+    /**
+     * Buckets and counters of one wire.
+     *
+     * @since 2.0
+     */
+    private static final class Buckets {
+        /**
+         * Buckets by name.
+         */
+        private final ConcurrentMap<String, RateLimitingWire.Bucket> all =
+            new ConcurrentHashMap<>(0);
+
+        /**
+         * Requests that waited.
+         */
+        private final LongAdder throttled = new LongAdder();
+
+        /**
+         * Requests that failed.
+         */
+        private final LongAdder rejected = new LongAdder();
+    }
+
+    /**
+     * Token bucket.
+     *
+     * <p>The level of the bucket is replaced as a whole, by compare-and-set.
+     * A request that has to wait takes its token right away, so the level
+     * may go below zero, and the next request waits longer.
+     *
+     * @since 2.0
+     */
+    private static final class Bucket {
+        /**
+         * Maximum number of tokens.
+         */
+        private final double capacity;
+
+        /**
+         * Tokens added per nanosecond, as configured.
+         */
+        private final double rate;
+
+        /**
+         * Current level.
+         */
+        private final AtomicReference<RateLimitingWire.Level> level;
+
+        /**
+         * Ctor.
+         * @param permits Number of requests permitted in a period
+         * @param millis Period, in milliseconds
+         */
+        Bucket(final int permits, final long millis) {
+            this.capacity = Math.max(1, permits);
+            this.rate = this.capacity
+                / Math.max(1L, TimeUnit.MILLISECONDS.toNanos(millis));
+            this.level = new AtomicReference<>(
+                new RateLimitingWire.Level(
+                    this.capacity, System.nanoTime(), this.rate
+                )
+            );
+        }
+
+        /**
+         * Take a token.
+         * @param now Current time, in nanoseconds
+         * @param longest Longest wait, in nanoseconds
+         * @return Nanoseconds to wait for the token, or a negative number if
+         *  it's longer than allowed and the token is not taken
+         */
+        long take(final long now, final long longest) {
+            long delay = -1L;
+            boolean again = true;
+            while (again) {
+                final RateLimitingWire.Level current = this.level.get();
+                final double tokens = current.at(now, this.capacity);
+                long need = Math.max(0L, current.stamp - now);
+                if (tokens < 1.0) {
+                    need += (long) Math.ceil((1.0 - tokens) / current.rate);
+                }
+                if (need > longest) {
+                    again = false;
+                } else if (this.level.compareAndSet(
+                    current,
+                    new RateLimitingWire.Level(
+                        tokens - 1.0, Math.max(now, current.stamp),
+                        current.rate
+                    )
+                )) {
+                    delay = need;
+                    again = false;
+                }
+            }
+            return delay;
+        }
+
+        /**
+         * Follow the quota reported by the server.
+         * @param now Current time, in nanoseconds
+         * @param remaining Requests left until the reset
+         * @param reset Nanoseconds until the reset
+         */
+        void quota(final long now, final long remaining, final long reset) {
+            boolean again = true;
+            while (again) {
+                final RateLimitingWire.Level current = this.level.get();
+                final RateLimitingWire.Level next;
+                if (remaining == 0L) {
+                    next = new RateLimitingWire.Level(
+                        Math.min(0.0, current.at(now, this.capacity)),
+                        Math.max(now + reset, current.stamp), this.rate
+                    );
+                } else {
+                    next = new RateLimitingWire.Level(
+                        Math.min(
+                            (double) remaining,
+                            current.at(now, this.capacity)
+                        ),
+                        Math.max(now, current.stamp),
+                        Math.min(this.rate, (double) remaining / reset)
+                    );
+                }
+                again = !this.level.compareAndSet(current, next);
+            }
+        }
+    }
+
+    /**
+     * Level of a bucket, immutable.
+     *
+     * @since 2.0
+     */
+    private static final class Level {
+        /**
+         * Tokens at the time of the stamp.
+         */
+        private final double tokens;
+
+        /**
+         * Time of the level, in nanoseconds, maybe in future.
+         */
+        private final long stamp;
+
+        /**
+         * Tokens added per nanosecond.
+         */
+        private final double rate;
+
+        /**
+         * Ctor.
+         * @param count Tokens at the time of the stamp
+         * @param time Time of the level, in nanoseconds
+         * @param speed Tokens added per nanosecond
+         */
+        Level(final double count, final long time, final double speed) {
+            this.tokens = count;
+            this.stamp = time;
+            this.rate = speed;
+        }
+
+        /**
+         * Tokens at the given time, or at the time of the stamp, if it's
+         * in future.
+         * @param now Current time, in nanoseconds
+         * @param capacity Maximum number of tokens
+         * @return Tokens
+         */
+        double at(final long now, final double capacity) {
+            return Math.min(
+                capacity,
+                this.tokens + Math.max(0L, now - this.stamp) * this.rate
+            );
+        }
+    }
+
+}
@@ -0,0 +1,292 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Body of a request, which can be sent again.
+ *
+ * <p>Byte arrays and files are read again from the start, without any
+ * copying. Other streams are recorded as they are read, in memory up to
+ * the limit and then, if it's allowed, in a temporary file; a stream
+ * longer than that can't be read again. Only the bytes actually read are
+ * recorded, so a body that is never sent again is never buffered whole.
+ *
+ * <p>The origin stream is not closed by {@link #release()}, it belongs
+ * to the caller.
+ *
+ * <p>The class is NOT thread-safe.
+ *
+ * @since 2.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class Replayable extends InputStream {
+
+    /**
+     * Default number of bytes to keep in memory.
+     */
+    static final long LIMIT = 1L << 20;
+
+    /**
+     * Origin stream.
+     */
+    private final transient InputStream origin;
+
+    /**
+     * Number of bytes to keep in memory.
+     */
+    private final transient long limit;
+
+    /**
+     * Record in a temporary file when the limit is reached?
+     */
+    private final transient boolean spill;
+
+    /**
+     * Position of the file at the start, or a negative number if the
+     * origin is not a file.
+     */
+    private final transient long start;
+
+    /**
+     * Bytes recorded in memory.
+     */
+    private transient byte[] memory;
+
+    /**
+     * Temporary file with recorded bytes, or NULL.
+     */
+    private transient Path file;
+
+    /**
+     * Channel of the temporary file, or NULL.
+     */
+    private transient FileChannel channel;
+
+    /**
+     * Number of bytes recorded.
+     */
+    private transient long recorded;
+
+    /**
+     * Position of the next byte to read.
+     */
+    private transient long pos;
+
+    /**
+     * The recording is incomplete, the stream can't be read again.
+     */
+    private transient boolean broken;
+
+    /**
+     * Ctor.
+     * @param stream Origin stream
+     */
+    Replayable(final InputStream stream) {
+        this(stream, Replayable.LIMIT, true);
+    }
+
+    /**
+     * Ctor.
+     * @param stream Origin stream
+     * @param max Number of bytes to keep in memory
+     * @param tmp Record in a temporary file when the limit is reached
+     */
+    Replayable(final InputStream stream, final long max, final boolean tmp) {
+        super();
+        this.origin = stream;
+        this.limit = max;
+        this.spill = tmp;
+        this.memory = new byte[0];
+        this.start = Replayable.position(stream);
+        if (stream instanceof ByteArrayInputStream) {
+            stream.mark(0);
+        }
+    }
+
+    /**
+     * Go back to the start of the stream, if possible.
+     * @return TRUE if it's possible and the stream is at the start now
+     * @throws IOException If fails
+     */
+    public boolean rewind() throws IOException {
+        final boolean done;
+        if (this.origin instanceof ByteArrayInputStream) {
+            this.origin.reset();
+            done = true;
+        } else if (this.start >= 0L) {
+            ((FileInputStream) this.origin).getChannel().position(this.start);
+            done = true;
+        } else {
+            done = !this.broken;
+            if (done) {
+                this.pos = 0L;
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Delete the temporary file, if there is one.
+     * @throws IOException If fails
+     */
+    public void release() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+            Files.deleteIfExists(this.file);
+            this.channel = null;
+        }
+        this.broken = true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] one = new byte[1];
+        int read = this.read(one, 0, 1);
+        if (read > 0) {
+            read = one[0] & 0xff;
+        }
+        return read;
+    }
+
+    @Override
+    public int read(final byte[] buf, final int off, final int len)
+        throws IOException {
+        final int read;
+        if (this.start >= 0L
+            || this.origin instanceof ByteArrayInputStream
+            || this.broken && this.pos >= this.recorded) {
+            read = this.origin.read(buf, off, len);
+        } else if (this.pos < this.recorded) {
+            read = this.replay(
+                buf, off, (int) Math.min(len, this.recorded - this.pos)
+            );
+        } else {
+            read = this.origin.read(buf, off, len);
+            if (read > 0) {
+                this.record(buf, off, read);
+            }
+        }
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.release();
+        this.origin.close();
+    }
+
+    /**
+     * Read recorded bytes.
+     * @param buf Where to read
+     * @param off Offset in the buffer
+     * @param len How many bytes to read, no more than recorded
+     * @return How many bytes were read
+     * @throws IOException If fails
+     */
+    private int replay(final byte[] buf, final int off, final int len)
+        throws IOException {
+        int read = len;
+        if (this.channel == null) {
+            System.arraycopy(this.memory, (int) this.pos, buf, off, len);
+        } else {
+            read = this.channel.read(ByteBuffer.wrap(buf, off, len), this.pos);
+        }
+        this.pos += read;
+        return read;
+    }
+
+    /**
+     * Record bytes just read from the origin.
+     * @param buf Buffer with the bytes
+     * @param off Offset in the buffer
+     * @param len How many bytes
+     * @throws IOException If fails
+     */
+    private void record(final byte[] buf, final int off, final int len)
+        throws IOException {
+        if (this.broken) {
+            this.pos += len;
+        } else {
+            if (this.channel == null && this.recorded + len > this.limit) {
+                if (this.spill) {
+                    this.file = Files.createTempFile("jcabi-http-", ".body");
+                    this.channel = FileChannel.open(
+                        this.file, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE
+                    );
+                    final int kept = (int) this.recorded;
+                    this.recorded = 0L;
+                    this.write(ByteBuffer.wrap(this.memory, 0, kept));
+                    this.memory = new byte[0];
+                } else {
+                    this.broken = true;
+                    this.memory = new byte[0];
+                }
+            }
+            if (this.broken) {
+                this.pos += len;
+            } else if (this.channel == null) {
+                if (this.recorded + len > this.memory.length) {
+                    this.memory = Arrays.copyOf(
+                        this.memory,
+                        (int) Math.min(
+                            this.limit,
+                            Math.max(this.recorded + len, this.recorded * 2L)
+                        )
+                    );
+                }
+                System.arraycopy(
+                    buf, off, this.memory, (int) this.recorded, len
+                );
+                this.recorded += len;
+                this.pos = this.recorded;
+            } else {
+                this.write(ByteBuffer.wrap(buf, off, len));
+            }
+        }
+    }
+
+    /**
+     * Write bytes to the end of the temporary file.
+     * @param bytes The bytes
+     * @throws IOException If fails
+     */
+    private void write(final ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            this.recorded += this.channel.write(bytes, this.recorded);
+        }
+        this.pos = this.recorded;
+    }
+
+    /**
+     * Position of the file stream.
+     * @param stream The stream
+     * @return Position, or a negative number if it's not a file
+     */
+    private static long position(final InputStream stream) {
+        long position = -1L;
+        if (stream instanceof FileInputStream) {
+            try {
+                position =
+                    ((FileInputStream) stream).getChannel().position();
+            } catch (final IOException ex) {
+                position = -1L;
+            }
+        }
+        return position;
+    }
+
+}
@@ -4,6 +4,9 @@
  */
 package com.jcabi.http.wire;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.http.Request;
 import com.jcabi.http.Response;
@@ -12,10 +15,20 @@ import com.jcabi.log.Logger;
 import jakarta.ws.rs.core.UriBuilder;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -34,58 +47,343 @@ import lombok.ToString;
  * <p>Since version 1.9 this wire retries also if HTTP status code
  * is between 500 and 599.
  *
+ * <p>Since 2.0, it also retries on 429, and it waits before every retry,
+ * so that a struggling server is not hit by retries all at once. The
+ * delay is random, from zero to the base delay doubled on every attempt,
+ * but not more than the maximum delay ("exponential backoff with full
+ * jitter"). If a 429 or 503 response has {@code Retry-After}, it is waited
+ * for instead, and if it's longer than the maximum delay, the response is
+ * returned as it is. The number of attempts and the delays, in
+ * milliseconds, are configurable:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(RetryWire.class, 5, 200L, 5000L)
+ *   .fetch();</pre>
+ *
+ * <p>Only idempotent requests are retried, unless it's allowed
+ * explicitly. Retries are limited by a budget, shared by equal wires
+ * while any of them is in use: every request adds a share of a retry to
+ * it, 20% by default, and every retry takes a whole one, so under an
+ * outage retries don't add more than that share of traffic. When the
+ * budget is empty, the last response is returned, or the last exception
+ * is thrown, as they are:
+ *
+ * <p>The body of the request is sent again on every retry. Byte arrays
+ * and files are read again, other streams are recorded as they are sent,
+ * up to 1Mb in memory and above that in a temporary file.
+ *
+ * <pre>new JdkRequest(uri)
+ *   .method(Request.POST)
+ *   .through(RetryWire.class, 3, 100L, 1000L, true, 10)
+ *   .fetch();</pre>
+ *
  * <p>The class is immutable and thread-safe.
  *
  * @since 0.10
  */
 @Immutable
 @ToString(of = "origin")
-@EqualsAndHashCode(of = "origin")
+@EqualsAndHashCode(
+    of = { "origin", "attempts", "base", "cap", "unsafe", "percent" }
+)
+@SuppressWarnings("PMD.TooManyMethods")
 public final class RetryWire implements Wire {
 
+    /**
+     * Default number of attempts.
+     */
+    private static final int ATTEMPTS = 4;
+
+    /**
+     * Default base delay, in milliseconds.
+     */
+    private static final long BASE = 100L;
+
+    /**
+     * Default maximum delay, in milliseconds.
+     */
+    private static final long CAP = 10_000L;
+
+    /**
+     * Default share of retries in traffic, in percent.
+     */
+    private static final int PERCENT = 20;
+
+    /**
+     * Retry-After HTTP header name.
+     */
+    private static final String RETRY_AFTER = "Retry-After";
+
+    /**
+     * Idempotent HTTP methods (RFC 9110 §9.2.2).
+     */
+    private static final Set<String> IDEMPOTENT = new HashSet<>(
+        Arrays.asList(
+            Request.GET, Request.HEAD, Request.PUT, Request.DELETE,
+            Request.OPTIONS, Request.TRACE
+        )
+    );
+
+    /**
+     * Budgets of all wires, kept while there are wires using them.
+     */
+    private static final LoadingCache<RetryWire, Budget> BUDGETS =
+        CacheBuilder.newBuilder().weakValues().build(
+            new CacheLoader<RetryWire, Budget>() {
+                @Override
+                public Budget load(final RetryWire key) {
+                    return new Budget(key.percent);
+                }
+            }
+        );
+
     /**
      * Original wire.
      */
     private final transient Wire origin;
 
+    /**
+     * Maximum number of attempts, including the first one.
+     */
+    private final transient int attempts;
+
+    /**
+     * Base delay, in milliseconds.
+     */
+    private final transient long base;
+
+    /**
+     * Maximum delay, in milliseconds.
+     */
+    private final transient long cap;
+
+    /**
+     * Retry requests that are not idempotent?
+     */
+    private final transient boolean unsafe;
+
+    /**
+     * Share of retries in traffic, in percent.
+     */
+    private final transient int percent;
+
+    /**
+     * Retry budget.
+     */
+    private final transient Budget budget;
+
     /**
      * Public ctor.
      * @param wire Original wire
      */
     public RetryWire(final Wire wire) {
+        this(wire, RetryWire.ATTEMPTS);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param max Maximum number of attempts, including the first one
+     * @since 2.0
+     */
+    public RetryWire(final Wire wire, final int max) {
+        this(wire, max, RetryWire.BASE, RetryWire.CAP);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param max Maximum number of attempts, including the first one
+     * @param first Base delay, in milliseconds
+     * @param longest Maximum delay, in milliseconds
+     * @since 2.0
+     */
+    public RetryWire(final Wire wire, final int max, final long first,
+        final long longest) {
+        this(wire, max, first, longest, false, RetryWire.PERCENT);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param max Maximum number of attempts, including the first one
+     * @param first Base delay, in milliseconds
+     * @param longest Maximum delay, in milliseconds
+     * @param all Retry requests that are not idempotent too
+     * @param share Share of retries in traffic, in percent
+     * @since 2.0
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public RetryWire(final Wire wire, final int max, final long first,
+        final long longest, final boolean all, final int share) {
         this.origin = wire;
+        this.attempts = max;
+        this.base = first;
+        this.cap = longest;
+        this.unsafe = all;
+        this.percent = share;
+        this.budget = RetryWire.BUDGETS.getUnchecked(this);
     }
 
-    // @checkstyle ParameterNumber (13 lines)
+    // @checkstyle ParameterNumber (5 lines)
     @Override
-    public Response send(final Request req, final String home, final String method,
-        final Collection<Map.Entry<String, String>> hdrs, final InputStream cont,
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> hdrs,
+        final InputStream cont,
         final int conn, final int read) throws IOException {
+        final boolean retriable =
+            this.unsafe || RetryWire.IDEMPOTENT.contains(method);
+        this.budget.deposit();
+        long limit = 0L;
+        if (retriable) {
+            limit = Replayable.LIMIT;
+        }
+        final Replayable body = new Replayable(cont, limit, retriable);
+        Response rsp = null;
+        IOException error = null;
         int attempt = 0;
-        while (true) {
-            if (attempt > 3) {
-                throw new IOException(
-                    String.format("failed after %d attempts", attempt)
-                );
+        boolean again = true;
+        try {
+            while (again) {
+                long delay;
+                try {
+                    rsp = this.origin.send(
+                        req, home, method, hdrs, body, conn, read
+                    );
+                    error = null;
+                    delay = this.delay(rsp, attempt);
+                    if (delay >= 0L) {
+                        this.logWarning(method, home, rsp.status(), attempt);
+                    }
+                } catch (final IOException ex) {
+                    rsp = null;
+                    error = ex;
+                    delay = this.backoff(attempt);
+                    this.logWarning(ex);
+                }
+                ++attempt;
+                again = retriable && delay >= 0L && attempt < this.attempts
+                    && body.rewind() && this.budget.withdraw();
+                if (again) {
+                    RetryWire.sleep(delay);
+                } else if (retriable && delay >= 0L
+                    && attempt >= this.attempts) {
+                    throw new IOException(
+                        String.format("failed after %d attempts", attempt),
+                        error
+                    );
+                }
             }
-            try {
-                final Response rsp = this.sendRequest(req, home, method, hdrs, cont, conn, read);
-                if (rsp.status() < HttpURLConnection.HTTP_INTERNAL_ERROR) {
-                    return rsp;
+        } finally {
+            body.release();
+        }
+        if (error != null) {
+            throw error;
+        }
+        return rsp;
+    }
+
+    /**
+     * How long to wait before the next attempt, after this response.
+     * @param rsp The response
+     * @param attempt Number of the attempt, starting with zero
+     * @return Milliseconds, or a negative number if it must not be retried
+     */
+    private long delay(final Response rsp, final int attempt) {
+        final int status = rsp.status();
+        long delay = -1L;
+        if (status >= HttpURLConnection.HTTP_INTERNAL_ERROR
+            // @checkstyle MagicNumber (1 line)
+            || status == 429) {
+            delay = this.backoff(attempt);
+            // @checkstyle MagicNumber (1 line)
+            if (status == 429
+                || status == HttpURLConnection.HTTP_UNAVAILABLE) {
+                final long after = RetryWire.after(rsp);
+                if (after > this.cap) {
+                    delay = -1L;
+                } else if (after >= 0L) {
+                    delay = after;
                 }
-                this.logWarning(method, home, rsp.status(), attempt);
-            } catch (final IOException ex) {
-                this.logWarning(ex);
             }
-            ++attempt;
         }
+        return delay;
+    }
+
+    /**
+     * Random delay before the next attempt, from zero to the base delay
+     * doubled on every attempt, but not more than the maximum delay.
+     * @param attempt Number of the attempt, starting with zero
+     * @return Milliseconds
+     */
+    private long backoff(final int attempt) {
+        long limit = this.cap;
+        // @checkstyle MagicNumber (1 line)
+        if (attempt < 62 && this.base < this.cap >> attempt) {
+            limit = this.base << attempt;
+        }
+        return ThreadLocalRandom.current().nextLong(Math.max(0L, limit) + 1L);
+    }
+
+    /**
+     * Value of {@code Retry-After} header, in seconds or as an HTTP date.
+     * @param rsp The response
+     * @return Milliseconds to wait, or a negative number if there is no
+     *  such header or it's invalid
+     */
+    private static long after(final Response rsp) {
+        long after = -1L;
+        for (final Map.Entry<String, List<String>> header
+            : rsp.headers().entrySet()) {
+            if (RetryWire.RETRY_AFTER.equalsIgnoreCase(header.getKey())
+                && !header.getValue().isEmpty()) {
+                after = RetryWire.millis(header.getValue().get(0).trim());
+            }
+        }
+        return after;
     }
 
-    // @checkstyle ParameterNumber (4 lines)
-    private Response sendRequest(final Request req, final String home, final String method,
-        final Collection<Map.Entry<String, String>> headers, final InputStream content,
-        final int connect, final int read) throws IOException {
-        return this.origin.send(req, home, method, headers, content, connect, read);
+    /**
+     * Parse value of {@code Retry-After} header (RFC 9110 §10.2.3).
+     * @param value The value
+     * @return Milliseconds to wait, or a negative number if it's invalid
+     */
+    private static long millis(final String value) {
+        long millis;
+        try {
+            millis = TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+        } catch (final NumberFormatException ex) {
+            try {
+                millis = Math.max(
+                    0L,
+                    ZonedDateTime.parse(
+                        value, DateTimeFormatter.RFC_1123_DATE_TIME
+                    ).toInstant().toEpochMilli() - System.currentTimeMillis()
+                );
+            } catch (final DateTimeParseException bad) {
+                millis = -1L;
+            }
+        }
+        return millis;
+    }
+
+    /**
+     * Wait before the next attempt.
+     * @param millis Milliseconds to wait
+     * @throws IOException If interrupted
+     */
+    private static void sleep(final long millis) throws IOException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException error = new InterruptedIOException(
+                "interrupted while waiting for retry"
+            );
+            error.initCause(ex);
+            throw error;
+        }
     }
 
     // @checkstyle ParameterNumber (17 lines)
@@ -0,0 +1,1048 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.ImmutableHeader;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.immutable.Array;
+import com.jcabi.log.Logger;
+import jakarta.ws.rs.core.HttpHeaders;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Wire that caches GET responses according to RFC 9111.
+ *
+ * <p>Unlike {@link CachingWire}, which keeps responses until they are
+ * flushed, and {@link ETagCachingWire}, which revalidates every response,
+ * this wire reads freshness information sent by the server and serves
+ * fresh responses without touching the network at all:
+ *
+ * <pre> String html = new JdkRequest("http://goggle.com")
+ *   .through(RfcCachingWire.class)
+ *   .fetch()
+ *   .body();</pre>
+ *
+ * <p>Freshness lifetime comes from {@code Cache-Control: s-maxage} (only
+ * in a shared cache), {@code max-age}, {@code Expires} or, if there is
+ * none of them, from {@code Last-Modified} heuristically. Its current age
+ * is calculated from {@code Date}, {@code Age} and the time the response
+ * was received. Responses with {@code no-store}, or {@code private} in a
+ * shared cache, are not stored. When a stored response is stale, it is
+ * revalidated with {@code If-None-Match} and {@code If-Modified-Since},
+ * and a {@code 304} response refreshes it. Within the
+ * {@code stale-while-revalidate} window a stale response is returned
+ * immediately while being revalidated in the background; within the
+ * {@code stale-if-error} window it is returned if the server fails or
+ * responds with 5xx. Request directives {@code no-store}, {@code no-cache},
+ * {@code max-age}, {@code max-stale}, {@code min-fresh} and
+ * {@code only-if-cached} are honored too. Successful unsafe requests
+ * invalidate stored responses of their URI, {@code Location} and
+ * {@code Content-Location}.
+ *
+ * <p>The cache is private by default, like a browser cache. Pass
+ * {@code true} as the second argument to make it shared, like a proxy,
+ * and the maximum number of stored responses as the third one:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(RfcCachingWire.class, true, 10000L)
+ *   .fetch();</pre>
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ * @checkstyle ClassDataAbstractionCoupling (500 lines)
+ */
+@Immutable
+@ToString(of = { "origin", "shared", "entries" })
+@EqualsAndHashCode(of = { "origin", "shared", "entries" })
+@SuppressWarnings({ "PMD.ExcessiveImports", "PMD.TooManyMethods",
+    "PMD.GodClass" })
+public final class RfcCachingWire implements Wire, Measured {
+
+    /**
+     * Default maximum number of stored responses.
+     */
+    private static final long MAX = 10_000L;
+
+    /**
+     * Fraction of time since last modification, which is used as
+     * heuristic freshness lifetime (RFC 9111 §4.2.2).
+     */
+    private static final long HEURISTIC = 10L;
+
+    /**
+     * Pragma HTTP header name.
+     */
+    private static final String PRAGMA = "Pragma";
+
+    /**
+     * Age HTTP header name.
+     */
+    private static final String AGE = "Age";
+
+    /**
+     * No-store directive.
+     */
+    private static final String NO_STORE = "no-store";
+
+    /**
+     * No-cache directive.
+     */
+    private static final String NO_CACHE = "no-cache";
+
+    /**
+     * Max-age directive.
+     */
+    private static final String MAX_AGE = "max-age";
+
+    /**
+     * Statuses that are cacheable by default (RFC 9110 §15.1).
+     */
+    private static final Set<Integer> CACHEABLE = new HashSet<>(
+        Arrays.asList(
+            HttpURLConnection.HTTP_OK,
+            HttpURLConnection.HTTP_NOT_AUTHORITATIVE,
+            HttpURLConnection.HTTP_NO_CONTENT,
+            HttpURLConnection.HTTP_MULT_CHOICE,
+            HttpURLConnection.HTTP_MOVED_PERM,
+            HttpURLConnection.HTTP_NOT_FOUND,
+            HttpURLConnection.HTTP_BAD_METHOD,
+            HttpURLConnection.HTTP_GONE,
+            HttpURLConnection.HTTP_REQ_TOO_LONG,
+            HttpURLConnection.HTTP_NOT_IMPLEMENTED,
+            // @checkstyle MagicNumber (1 line)
+            308
+        )
+    );
+
+    /**
+     * Safe methods, which never invalidate the cache.
+     */
+    private static final Set<String> SAFE = new HashSet<>(
+        Arrays.asList(
+            Request.GET, Request.HEAD, Request.OPTIONS, "TRACE"
+        )
+    );
+
+    /**
+     * Background revalidation threads.
+     */
+    private static final ExecutorService REFRESHER =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("RfcCachingWire-%d")
+                .build()
+        );
+
+    /**
+     * Stores of all wires.
+     */
+    private static final LoadingCache<RfcCachingWire, RfcCachingWire.Store>
+        STORES = CacheBuilder.newBuilder().build(
+            new CacheLoader<RfcCachingWire, RfcCachingWire.Store>() {
+                @Override
+                public RfcCachingWire.Store load(final RfcCachingWire key) {
+                    return new RfcCachingWire.Store(key.entries);
+                }
+            }
+        );
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Is it a shared cache?
+     */
+    private final transient boolean shared;
+
+    /**
+     * Maximum number of stored responses.
+     */
+    private final transient long entries;
+
+    /**
+     * Stored responses.
+     */
+    private final transient RfcCachingWire.Store store;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     */
+    public RfcCachingWire(final Wire wire) {
+        this(wire, false);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param shrd Is it a shared cache?
+     */
+    public RfcCachingWire(final Wire wire, final boolean shrd) {
+        this(wire, shrd, RfcCachingWire.MAX);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param shrd Is it a shared cache?
+     * @param max Maximum number of stored responses
+     */
+    public RfcCachingWire(final Wire wire, final boolean shrd,
+        final long max) {
+        this.origin = wire;
+        this.shared = shrd;
+        this.entries = max;
+        this.store = RfcCachingWire.STORES.getUnchecked(this);
+    }
+
+    // @checkstyle ParameterNumber (5 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content,
+        final int connect,
+        final int read) throws IOException {
+        List<String> directives =
+            RfcCachingWire.values(headers, HttpHeaders.CACHE_CONTROL);
+        if (directives.isEmpty()) {
+            directives = RfcCachingWire.values(headers, RfcCachingWire.PRAGMA);
+        }
+        final CacheControl control = new CacheControl(directives);
+        final Response rsp;
+        if (method.equals(Request.GET)
+            && !control.has(RfcCachingWire.NO_STORE)) {
+            rsp = this.cached(
+                new RfcCachingWire.Call(
+                    req, home, headers, content, connect, read, control
+                )
+            );
+        } else {
+            rsp = this.origin.send(
+                req, home, method, headers, content, connect, read
+            );
+            if (!RfcCachingWire.SAFE.contains(method)) {
+                this.invalidate(home, rsp);
+            }
+        }
+        return rsp;
+    }
+
+    @Override
+    public CacheStats stats() {
+        return this.store.stats;
+    }
+
+    /**
+     * Serve GET request from the cache, if possible.
+     *
+     * <p>With {@code only-if-cached}, a stored response that can't be
+     * returned without contacting the server is as good as none, and
+     * the response is {@code 504} (RFC 9111 §5.2.1.7).
+     *
+     * @param call The call
+     * @return Response
+     * @throws IOException If fails
+     */
+    private Response cached(final RfcCachingWire.Call call)
+        throws IOException {
+        final Fingerprint key = RfcCachingWire.key(call.home);
+        final RfcCachingWire.Entry entry = this.store.get(key, call.headers);
+        final long now = System.currentTimeMillis();
+        final Response rsp;
+        this.store.stats.request();
+        if (entry != null && entry.usable(now, call.control)) {
+            rsp = entry.response();
+        } else if (call.control.has("only-if-cached")) {
+            this.store.stats.miss(0L);
+            rsp = new DefaultResponse(
+                call.req, HttpURLConnection.HTTP_GATEWAY_TIMEOUT,
+                "Gateway Timeout",
+                new Array<Map.Entry<String, String>>(), new byte[0]
+            );
+        } else if (entry == null) {
+            rsp = this.fetch(key, call, null, true);
+        } else if (entry.revalidating(now, call.control)) {
+            this.refresh(key, call, entry);
+            rsp = entry.response();
+        } else {
+            rsp = this.fetch(key, call, entry, true);
+        }
+        return rsp;
+    }
+
+    /**
+     * Fetch the response from the origin, conditionally if there is
+     * a stored one, and store it.
+     * @param key Key of the response
+     * @param call The call
+     * @param entry Stored entry or NULL
+     * @param sync Is the response returned to the caller, so that a new
+     *  one is counted as a miss?
+     * @return Response
+     * @throws IOException If fails
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    private Response fetch(final Fingerprint key,
+        final RfcCachingWire.Call call, final RfcCachingWire.Entry entry,
+        final boolean sync) throws IOException {
+        Collection<Map.Entry<String, String>> hdrs = call.headers;
+        if (entry != null) {
+            hdrs = entry.conditional(call.headers);
+        }
+        final long requested = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        Response fetched = null;
+        try {
+            fetched = this.origin.send(
+                call.req, call.home, Request.GET, hdrs, call.content,
+                call.connect, call.read
+            );
+        } catch (final IOException ex) {
+            if (entry == null
+                || !entry.fallback(System.currentTimeMillis(), call.control)) {
+                if (sync) {
+                    this.store.stats.miss(System.nanoTime() - start);
+                }
+                throw ex;
+            }
+            Logger.warn(
+                this, "stale response of %s served on %[exception]s",
+                call.home, ex
+            );
+        }
+        final long received = System.currentTimeMillis();
+        if (entry != null) {
+            this.store.stats.revalidated();
+        }
+        final Response rsp;
+        if (fetched == null) {
+            rsp = entry.response();
+        } else if (entry != null
+            && fetched.status() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            rsp = entry.merged(fetched);
+            this.save(key, call.headers, rsp, requested, received);
+        } else if (entry != null
+            && fetched.status() >= HttpURLConnection.HTTP_INTERNAL_ERROR
+            && entry.fallback(received, call.control)) {
+            rsp = entry.response();
+        } else {
+            if (sync) {
+                this.store.stats.miss(System.nanoTime() - start);
+            }
+            this.save(key, call.headers, fetched, requested, received);
+            rsp = fetched;
+        }
+        return rsp;
+    }
+
+    /**
+     * Revalidate the entry in background, unless it's being revalidated
+     * already.
+     * @param key Key of the response
+     * @param call The call
+     * @param entry Stored entry
+     */
+    private void refresh(final Fingerprint key,
+        final RfcCachingWire.Call call, final RfcCachingWire.Entry entry) {
+        if (this.store.lock(key)) {
+            RfcCachingWire.REFRESHER.execute(
+                () -> {
+                    try {
+                        this.fetch(key, call, entry, false);
+                    } catch (final IOException ex) {
+                        Logger.warn(
+                            this, "failed to revalidate %s: %[exception]s",
+                            call.home, ex
+                        );
+                    } finally {
+                        this.store.unlock(key);
+                    }
+                }
+            );
+        }
+    }
+
+    /**
+     * Store the response, if it's allowed.
+     * @param key Key of the response
+     * @param headers Request headers
+     * @param rsp The response
+     * @param requested When the request was sent
+     * @param received When the response was received
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    private void save(final Fingerprint key,
+        final Collection<Map.Entry<String, String>> headers,
+        final Response rsp, final long requested, final long received) {
+        final CacheControl control = new CacheControl(
+            RfcCachingWire.values(rsp.headers(), HttpHeaders.CACHE_CONTROL)
+        );
+        final List<String> vary = RfcCachingWire.names(
+            RfcCachingWire.values(rsp.headers(), HttpHeaders.VARY)
+        );
+        final boolean storable = RfcCachingWire.CACHEABLE
+            .contains(rsp.status())
+            && !control.has(RfcCachingWire.NO_STORE)
+            && !(this.shared && control.has("private"))
+            && !(this.shared && !RfcCachingWire.values(
+                headers, HttpHeaders.AUTHORIZATION
+            ).isEmpty() && !control.has("public")
+            && control.seconds("s-maxage") < 0L
+            && !control.has("must-revalidate"))
+            && !vary.contains("*");
+        if (storable) {
+            this.store.put(
+                key,
+                new RfcCachingWire.Entry(
+                    rsp, control, this.lifetime(rsp, control),
+                    RfcCachingWire.age(rsp, requested, received),
+                    received, RfcCachingWire.selected(headers, vary)
+                )
+            );
+        } else {
+            this.store.remove(key);
+        }
+    }
+
+    /**
+     * Invalidate stored responses after an unsafe request
+     * (RFC 9111 §4.4).
+     * @param home URI of the request
+     * @param rsp Response received
+     */
+    private void invalidate(final String home, final Response rsp) {
+        if (rsp.status() < HttpURLConnection.HTTP_BAD_REQUEST) {
+            final URI uri = URI.create(home);
+            this.store.remove(RfcCachingWire.key(home));
+            for (final String name : Arrays.asList(
+                HttpHeaders.LOCATION, HttpHeaders.CONTENT_LOCATION
+            )) {
+                for (final String location
+                    : RfcCachingWire.values(rsp.headers(), name)) {
+                    final URI target = uri.resolve(location.trim());
+                    if (uri.getHost() != null
+                        && uri.getHost().equalsIgnoreCase(target.getHost())) {
+                        this.store.remove(
+                            RfcCachingWire.key(target.toString())
+                        );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Freshness lifetime of the response (RFC 9111 §4.2.1).
+     * @param rsp The response
+     * @param control Its cache directives
+     * @return Milliseconds
+     */
+    private long lifetime(final Response rsp, final CacheControl control) {
+        final long lifetime;
+        final long smax = control.seconds("s-maxage");
+        final long max = control.seconds(RfcCachingWire.MAX_AGE);
+        final List<String> expires =
+            RfcCachingWire.values(rsp.headers(), HttpHeaders.EXPIRES);
+        final long date = RfcCachingWire.date(rsp);
+        final long modified = RfcCachingWire.time(
+            RfcCachingWire.values(rsp.headers(), HttpHeaders.LAST_MODIFIED)
+        );
+        if (this.shared && smax >= 0L) {
+            lifetime = TimeUnit.SECONDS.toMillis(smax);
+        } else if (max >= 0L) {
+            lifetime = TimeUnit.SECONDS.toMillis(max);
+        } else if (!expires.isEmpty()) {
+            lifetime = Math.max(0L, RfcCachingWire.time(expires) - date);
+        } else if (modified > 0L && modified < date) {
+            lifetime = (date - modified) / RfcCachingWire.HEURISTIC;
+        } else {
+            lifetime = 0L;
+        }
+        return lifetime;
+    }
+
+    /**
+     * Key of a response.
+     * @param home URI
+     * @return Key
+     */
+    private static Fingerprint key(final String home) {
+        return new Fingerprint(
+            Request.GET, home,
+            Collections.<Map.Entry<String, String>>emptyList()
+        );
+    }
+
+    /**
+     * Corrected initial age of a response (RFC 9111 §4.2.3).
+     * @param rsp The response
+     * @param requested When the request was sent
+     * @param received When the response was received
+     * @return Milliseconds
+     */
+    private static long age(final Response rsp, final long requested,
+        final long received) {
+        final long apparent = Math.max(0L, received - RfcCachingWire.date(rsp));
+        long header = 0L;
+        for (final String value
+            : RfcCachingWire.values(rsp.headers(), RfcCachingWire.AGE)) {
+            try {
+                header = TimeUnit.SECONDS.toMillis(
+                    Math.max(0L, Long.parseLong(value.trim()))
+                );
+            } catch (final NumberFormatException ex) {
+                header = 0L;
+            }
+        }
+        return Math.max(apparent, header + received - requested);
+    }
+
+    /**
+     * Value of {@code Date} header, or the current time if it's absent.
+     * @param rsp The response
+     * @return Milliseconds since epoch
+     */
+    private static long date(final Response rsp) {
+        long date = RfcCachingWire.time(
+            RfcCachingWire.values(rsp.headers(), HttpHeaders.DATE)
+        );
+        if (date <= 0L) {
+            date = System.currentTimeMillis();
+        }
+        return date;
+    }
+
+    /**
+     * Parse HTTP date.
+     * @param values Header values, only the first one is used
+     * @return Milliseconds since epoch, or zero if it's absent or invalid
+     */
+    private static long time(final List<String> values) {
+        long time = 0L;
+        if (!values.isEmpty()) {
+            try {
+                time = ZonedDateTime.parse(
+                    values.get(0).trim(), DateTimeFormatter.RFC_1123_DATE_TIME
+                ).toInstant().toEpochMilli();
+            } catch (final DateTimeParseException ex) {
+                time = 0L;
+            }
+        }
+        return time;
+    }
+
+    /**
+     * Values of request headers selected by {@code Vary}.
+     * @param headers Request headers
+     * @param vary Names of headers
+     * @return Values by lower-case names
+     */
+    private static Map<String, List<String>> selected(
+        final Collection<Map.Entry<String, String>> headers,
+        final List<String> vary) {
+        final Map<String, List<String>> selected =
+            new ConcurrentHashMap<>(vary.size());
+        for (final String name : vary) {
+            selected.put(name, RfcCachingWire.values(headers, name));
+        }
+        return selected;
+    }
+
+    /**
+     * Split a comma-separated list of header names.
+     * @param values Header values
+     * @return Lower-case names
+     */
+    private static List<String> names(final List<String> values) {
+        final List<String> names = new LinkedList<>();
+        for (final String value : values) {
+            for (final String name : value.split(",")) {
+                if (!name.trim().isEmpty()) {
+                    names.add(name.trim().toLowerCase(Locale.ENGLISH));
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Values of a response header.
+     * @param headers Response headers
+     * @param name Name of the header, case-insensitive
+     * @return Values
+     */
+    private static List<String> values(
+        final Map<String, List<String>> headers, final String name) {
+        final List<String> values = new LinkedList<>();
+        for (final Map.Entry<String, List<String>> header
+            : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                values.addAll(header.getValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Values of a request header.
+     * @param headers Request headers
+     * @param name Name of the header, case-insensitive
+     * @return Values
+     */
+    private static List<String> values(
+        final Collection<Map.Entry<String, String>> headers,
+        final String name) {
+        final List<String> values = new LinkedList<>();
+        for (final Map.Entry<String, String> header : headers) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                values.add(header.getValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Arguments of a GET call.
+     *
+     * @since 2.0
+     */
+    private static final class Call {
+        /**
+         * Request.
+         */
+        private final transient Request req;
+
+        /**
+         * URI.
+         */
+        private final transient String home;
+
+        /**
+         * Headers.
+         */
+        private final transient Collection<Map.Entry<String, String>> headers;
+
+        /**
+         * Body.
+         */
+        private final transient InputStream content;
+
+        /**
+         * Connect timeout.
+         */
+        private final transient int connect;
+
+        /**
+         * Read timeout.
+         */
+        private final transient int read;
+
+        /**
+         * Request cache directives.
+         */
+        private final transient CacheControl control;
+
+        /**
+         * Ctor.
+         * @param request Request
+         * @param uri URI
+         * @param hdrs Headers
+         * @param body Body
+         * @param cnct Connect timeout
+         * @param rdd Read timeout
+         * @param directives Request cache directives
+         * @checkstyle ParameterNumber (5 lines)
+         */
+        Call(final Request request, final String uri,
+            final Collection<Map.Entry<String, String>> hdrs,
+            final InputStream body, final int cnct, final int rdd,
+            final CacheControl directives) {
+            this.req = request;
+            this.home = uri;
+            this.headers = hdrs;
+            this.content = body;
+            this.connect = cnct;
+            this.read = rdd;
+            this.control = directives;
+        }
+    }
+
+    /**
+     * Stored responses of one wire.
+     *
+     * @since 2.0
+     */
+    private static final class Store {
+        /**
+         * Entries.
+         */
+        private final transient Cache<Fingerprint, RfcCachingWire.Entry>
+            entries;
+
+        /**
+         * Keys being revalidated in background.
+         */
+        private final transient Set<Fingerprint> pending;
+
+        /**
+         * Statistics of the entries.
+         */
+        private final transient CacheStats stats;
+
+        /**
+         * Ctor.
+         * @param max Maximum number of entries
+         */
+        Store(final long max) {
+            this.entries = CacheBuilder.newBuilder().maximumSize(max)
+                .recordStats().build();
+            this.pending = ConcurrentHashMap.newKeySet();
+            this.stats = new CacheStats(
+                this::bytes, () -> this.entries.stats().evictionCount()
+            );
+        }
+
+        /**
+         * Find an entry, which matches request headers.
+         * @param key The key
+         * @param headers Request headers
+         * @return Entry or NULL
+         */
+        public RfcCachingWire.Entry get(final Fingerprint key,
+            final Collection<Map.Entry<String, String>> headers) {
+            RfcCachingWire.Entry entry = this.entries.getIfPresent(key);
+            if (entry != null && !entry.matches(headers)) {
+                entry = null;
+            }
+            return entry;
+        }
+
+        /**
+         * Store an entry.
+         * @param key The key
+         * @param entry The entry
+         */
+        public void put(final Fingerprint key,
+            final RfcCachingWire.Entry entry) {
+            this.entries.put(key, entry);
+        }
+
+        /**
+         * Remove an entry.
+         * @param key The key
+         */
+        public void remove(final Fingerprint key) {
+            this.entries.invalidate(key);
+        }
+
+        /**
+         * Total size of bodies of all entries.
+         * @return Bytes
+         */
+        public long bytes() {
+            long bytes = 0L;
+            for (final RfcCachingWire.Entry entry
+                : this.entries.asMap().values()) {
+                bytes += CacheStats.length(entry.response());
+            }
+            return bytes;
+        }
+
+        /**
+         * Mark the key as being revalidated.
+         * @param key The key
+         * @return TRUE if it wasn't marked yet
+         */
+        public boolean lock(final Fingerprint key) {
+            return this.pending.add(key);
+        }
+
+        /**
+         * Mark the key as not being revalidated anymore.
+         * @param key The key
+         */
+        public void unlock(final Fingerprint key) {
+            this.pending.remove(key);
+        }
+    }
+
+    /**
+     * Stored response with its freshness information.
+     *
+     * @since 2.0
+     */
+    private static final class Entry {
+        /**
+         * The response.
+         */
+        private final transient Response rsp;
+
+        /**
+         * Its cache directives.
+         */
+        private final transient CacheControl control;
+
+        /**
+         * Freshness lifetime, in milliseconds.
+         */
+        private final transient long lifetime;
+
+        /**
+         * Corrected initial age, in milliseconds.
+         */
+        private final transient long initial;
+
+        /**
+         * When the response was received, in milliseconds since epoch.
+         */
+        private final transient long received;
+
+        /**
+         * Request headers selected by {@code Vary}.
+         */
+        private final transient Map<String, List<String>> vary;
+
+        /**
+         * Ctor.
+         * @param response The response
+         * @param directives Its cache directives
+         * @param life Freshness lifetime
+         * @param age Corrected initial age
+         * @param time When it was received
+         * @param selected Request headers selected by {@code Vary}
+         * @checkstyle ParameterNumber (4 lines)
+         */
+        Entry(final Response response, final CacheControl directives,
+            final long life, final long age, final long time,
+            final Map<String, List<String>> selected) {
+            this.rsp = response;
+            this.control = directives;
+            this.lifetime = life;
+            this.initial = age;
+            this.received = time;
+            this.vary = selected;
+        }
+
+        /**
+         * The response.
+         * @return Response
+         */
+        public Response response() {
+            return this.rsp;
+        }
+
+        /**
+         * Does it match the headers of a new request?
+         * @param headers Request headers
+         * @return TRUE if it does
+         */
+        public boolean matches(
+            final Collection<Map.Entry<String, String>> headers) {
+            boolean matches = true;
+            for (final Map.Entry<String, List<String>> sel
+                : this.vary.entrySet()) {
+                if (!sel.getValue().equals(
+                    RfcCachingWire.values(headers, sel.getKey())
+                )) {
+                    matches = false;
+                    break;
+                }
+            }
+            return matches;
+        }
+
+        /**
+         * Can it be returned without contacting the server?
+         * @param now Current time
+         * @param req Request cache directives
+         * @return TRUE if it can
+         */
+        public boolean usable(final long now, final CacheControl req) {
+            final long age = this.age(now);
+            boolean usable = this.acceptable(now, req);
+            if (usable && age >= this.lifetime) {
+                usable = req.has("max-stale")
+                    && !this.control.has("must-revalidate")
+                    && (req.seconds("max-stale") < 0L
+                    || age - this.lifetime
+                    <= TimeUnit.SECONDS.toMillis(req.seconds("max-stale")));
+            }
+            return usable;
+        }
+
+        /**
+         * Can it be returned while being revalidated in background?
+         * @param now Current time
+         * @param req Request cache directives
+         * @return TRUE if it can
+         */
+        public boolean revalidating(final long now, final CacheControl req) {
+            return this.stale(now, "stale-while-revalidate", req);
+        }
+
+        /**
+         * Can it be returned if the server fails?
+         * @param now Current time
+         * @param req Request cache directives
+         * @return TRUE if it can
+         */
+        public boolean fallback(final long now, final CacheControl req) {
+            return this.stale(now, "stale-if-error", req);
+        }
+
+        /**
+         * Make conditional request headers.
+         * @param headers Original request headers
+         * @return Headers with validators
+         */
+        public Collection<Map.Entry<String, String>> conditional(
+            final Collection<Map.Entry<String, String>> headers) {
+            final Collection<Map.Entry<String, String>> hdrs =
+                new LinkedList<>();
+            for (final Map.Entry<String, String> header : headers) {
+                if (!header.getKey().equalsIgnoreCase(HttpHeaders.IF_NONE_MATCH)
+                    && !header.getKey().equalsIgnoreCase(
+                        HttpHeaders.IF_MODIFIED_SINCE
+                    )) {
+                    hdrs.add(header);
+                }
+            }
+            for (final String etag
+                : RfcCachingWire.values(this.rsp.headers(), HttpHeaders.ETAG)) {
+                hdrs.add(new ImmutableHeader(HttpHeaders.IF_NONE_MATCH, etag));
+            }
+            for (final String modified : RfcCachingWire.values(
+                this.rsp.headers(), HttpHeaders.LAST_MODIFIED
+            )) {
+                hdrs.add(
+                    new ImmutableHeader(
+                        HttpHeaders.IF_MODIFIED_SINCE, modified
+                    )
+                );
+            }
+            return hdrs;
+        }
+
+        /**
+         * Merge headers of a {@code 304} response into the stored one
+         * (RFC 9111 §3.2).
+         * @param fresh The 304 response
+         * @return Updated response
+         */
+        public Response merged(final Response fresh) {
+            final Map<String, List<String>> updated = fresh.headers();
+            final Collection<Map.Entry<String, String>> merged =
+                new LinkedList<>();
+            for (final Map.Entry<String, List<String>> header
+                : this.rsp.headers().entrySet()) {
+                if (RfcCachingWire.values(updated, header.getKey()).isEmpty()
+                    || header.getKey().equalsIgnoreCase(
+                        HttpHeaders.CONTENT_LENGTH
+                    )) {
+                    for (final String value : header.getValue()) {
+                        merged.add(new ImmutableHeader(header.getKey(), value));
+                    }
+                }
+            }
+            for (final Map.Entry<String, List<String>> header
+                : updated.entrySet()) {
+                if (!header.getKey().equalsIgnoreCase(
+                    HttpHeaders.CONTENT_LENGTH
+                )) {
+                    for (final String value : header.getValue()) {
+                        merged.add(new ImmutableHeader(header.getKey(), value));
+                    }
+                }
+            }
+            return new DefaultResponse(
+                this.rsp.back(), this.rsp.status(), this.rsp.reason(),
+                new Array<>(merged), this.rsp.binary()
+            );
+        }
+
+        /**
+         * Is it stale, but still within the window of the directive, and
+         * does the request accept it?
+         * @param now Current time
+         * @param directive Name of the directive
+         * @param req Request cache directives
+         * @return TRUE if it is
+         */
+        private boolean stale(final long now, final String directive,
+            final CacheControl req) {
+            final long window = this.control.seconds(directive);
+            final long age = this.age(now);
+            return window >= 0L
+                && age >= this.lifetime
+                && !this.control.has("must-revalidate")
+                && !this.control.has("proxy-revalidate")
+                && age - this.lifetime <= TimeUnit.SECONDS.toMillis(window)
+                && this.acceptable(now, req);
+        }
+
+        /**
+         * Does the request accept it, by its {@code no-cache},
+         * {@code max-age} and {@code min-fresh} (RFC 9111 §5.2.1)?
+         * @param now Current time
+         * @param req Request cache directives
+         * @return TRUE if it does
+         */
+        private boolean acceptable(final long now, final CacheControl req) {
+            final long age = this.age(now);
+            final long max = req.seconds(RfcCachingWire.MAX_AGE);
+            final long fresh = req.seconds("min-fresh");
+            return !req.has(RfcCachingWire.NO_CACHE)
+                && !this.control.has(RfcCachingWire.NO_CACHE)
+                && (max < 0L || age <= TimeUnit.SECONDS.toMillis(max))
+                && (fresh < 0L || this.lifetime - age
+                >= TimeUnit.SECONDS.toMillis(fresh));
+        }
+
+        /**
+         * Current age (RFC 9111 §4.2.3).
+         * @param now Current time
+         * @return Milliseconds
+         */
+        private long age(final long now) {
+            return this.initial + now - this.received;
+        }
+    }
+
+}
@@ -0,0 +1,265 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Slab allocator of direct memory.
+ *
+ * <p>Memory is allocated in slabs of 4Mb, each of them is cut into chunks
+ * of one size class, from 1Kb to 1Mb, powers of two. A chunk is
+ * given away inside a {@link Slabs.Chunk}, and it goes back to the free
+ * list of its class when the {@link Slabs.Chunk} is not reachable anymore.
+ * Slabs are never released, their total size is limited by the capacity.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 2.0
+ */
+final class Slabs {
+
+    /**
+     * Power of two of the smallest class.
+     */
+    private static final int MIN = 10;
+
+    /**
+     * Power of two of the largest class.
+     */
+    private static final int MAX = 20;
+
+    /**
+     * Size of a slab.
+     */
+    private static final long SLAB = 1L << 22;
+
+    /**
+     * Maximum total size of slabs.
+     */
+    private final transient long capacity;
+
+    /**
+     * Total size of slabs allocated.
+     */
+    private final transient AtomicLong allocated;
+
+    /**
+     * Free chunks, by classes.
+     */
+    private final transient List<Queue<ByteBuffer>> free;
+
+    /**
+     * Queue of chunks nobody can reach anymore.
+     */
+    private final transient ReferenceQueue<Slabs.Chunk> queue;
+
+    /**
+     * References to chunks given away.
+     */
+    private final transient Set<Slabs.Lease> leases;
+
+    /**
+     * Ctor.
+     * @param bytes Maximum total size of slabs
+     */
+    Slabs(final long bytes) {
+        this.capacity = bytes;
+        this.allocated = new AtomicLong();
+        this.free = new ArrayList<>(Slabs.MAX - Slabs.MIN + 1);
+        for (int cls = Slabs.MIN; cls <= Slabs.MAX; ++cls) {
+            this.free.add(new ConcurrentLinkedQueue<>());
+        }
+        this.queue = new ReferenceQueue<>();
+        this.leases = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Copy bytes into a chunk.
+     * @param bytes The bytes
+     * @return Chunk or NULL if they are too big or there is no room
+     */
+    public Slabs.Chunk copy(final byte[] bytes) {
+        this.reclaim();
+        int cls = Slabs.MIN;
+        while (cls <= Slabs.MAX && 1 << cls < bytes.length) {
+            ++cls;
+        }
+        Slabs.Chunk chunk = null;
+        if (cls <= Slabs.MAX) {
+            ByteBuffer raw = this.free.get(cls - Slabs.MIN).poll();
+            if (raw == null) {
+                raw = this.carve(cls);
+            }
+            if (raw != null) {
+                final ByteBuffer dup = raw.duplicate();
+                dup.put(bytes);
+                chunk = new Slabs.Chunk(raw, bytes.length);
+                this.leases.add(
+                    new Slabs.Lease(chunk, this.queue, raw, cls - Slabs.MIN)
+                );
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Total size of slabs allocated.
+     * @return Bytes
+     */
+    public long allocated() {
+        return this.allocated.get();
+    }
+
+    /**
+     * Chunks in use.
+     * @return Number of chunks
+     */
+    public int used() {
+        this.reclaim();
+        return this.leases.size();
+    }
+
+    /**
+     * Put chunks nobody can reach back to the free lists.
+     */
+    private void reclaim() {
+        Reference<? extends Slabs.Chunk> ref = this.queue.poll();
+        while (ref != null) {
+            final Slabs.Lease lease = (Slabs.Lease) ref;
+            this.leases.remove(lease);
+            this.free.get(lease.cls).offer(lease.raw);
+            ref = this.queue.poll();
+        }
+    }
+
+    /**
+     * Allocate a new slab for the class and cut it into chunks.
+     * @param cls Power of two of the class
+     * @return One of the chunks, others go to the free list, or NULL
+     *  if there is no room
+     */
+    private synchronized ByteBuffer carve(final int cls) {
+        ByteBuffer first = this.free.get(cls - Slabs.MIN).poll();
+        final long size = Math.max(
+            1L << cls, Math.min(Slabs.SLAB, this.capacity)
+        );
+        if (first == null && this.allocated.get() + size <= this.capacity) {
+            final ByteBuffer slab = ByteBuffer.allocateDirect((int) size);
+            this.allocated.addAndGet(size);
+            final int chunk = 1 << cls;
+            for (int pos = 0; pos + chunk <= size; pos += chunk) {
+                final ByteBuffer dup = slab.duplicate();
+                dup.position(pos);
+                dup.limit(pos + chunk);
+                if (first == null) {
+                    first = dup.slice();
+                } else {
+                    this.free.get(cls - Slabs.MIN).offer(dup.slice());
+                }
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Chunk of direct memory with some bytes in it.
+     *
+     * <p>Keep a reference to it as long as the buffer is used.
+     *
+     * @since 2.0
+     */
+    static final class Chunk {
+        /**
+         * The memory.
+         */
+        private final transient ByteBuffer raw;
+
+        /**
+         * Number of bytes in it.
+         */
+        private final transient int length;
+
+        /**
+         * Was it touched, see {@link #touch()}.
+         */
+        private transient volatile boolean touched;
+
+        /**
+         * Ctor.
+         * @param buf The memory
+         * @param len Number of bytes in it
+         */
+        Chunk(final ByteBuffer buf, final int len) {
+            this.raw = buf;
+            this.length = len;
+        }
+
+        /**
+         * The bytes, from position to limit.
+         * @return Buffer, read-only
+         */
+        public ByteBuffer bytes() {
+            final ByteBuffer dup = this.raw.asReadOnlyBuffer();
+            dup.limit(this.length);
+            return dup;
+        }
+
+        /**
+         * Keep the chunk reachable at least up to this call.
+         *
+         * <p>Call it after reading the buffer. Java 8 has no
+         * {@code Reference.reachabilityFence()}, and without a volatile
+         * write to the chunk it may be collected, and its memory reused,
+         * while the buffer is still being read.
+         */
+        public void touch() {
+            this.touched = true;
+        }
+    }
+
+    /**
+     * Reference to a chunk given away.
+     *
+     * @since 2.0
+     */
+    private static final class Lease extends PhantomReference<Slabs.Chunk> {
+        /**
+         * The memory.
+         */
+        private final transient ByteBuffer raw;
+
+        /**
+         * Index of the class.
+         */
+        private final transient int cls;
+
+        /**
+         * Ctor.
+         * @param chunk The chunk
+         * @param queue Where to go when the chunk is not reachable
+         * @param buf The memory of the chunk
+         * @param idx Index of the class
+         */
+        Lease(final Slabs.Chunk chunk,
+            final ReferenceQueue<Slabs.Chunk> queue,
+            final ByteBuffer buf, final int idx) {
+            super(chunk, queue);
+            this.raw = buf;
+            this.cls = idx;
+        }
+    }
+
+}
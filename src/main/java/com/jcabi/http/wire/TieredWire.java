@@ -0,0 +1,564 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.log.Logger;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Wire that caches GET requests in memory and on disk.
+ *
+ * <p>Responses are looked up in memory first, without any disk I/O, then
+ * in files, the same way {@link FcWire} keeps them, and only then they are
+ * fetched from the server:
+ *
+ * <pre> String html = new JdkRequest("http://goggle.com")
+ *   .through(TieredWire.class, "/var/cache/http", 1000L)
+ *   .fetch()
+ *   .body();</pre>
+ *
+ * <p>The memory holds up to the given number of entries. Responses found
+ * on disk are promoted into memory. Responses fetched from the server are
+ * written through to disk by a background thread, right away, and so are
+ * the entries evicted from memory, if their files are gone by then. Files
+ * survive restarts of the JVM, except those still waiting to be written.
+ * The total size of
+ * files can be bounded, see {@link FcWire}, and the flushing regular
+ * expression works the same way as in {@link CachingWire}, in both tiers:
+ *
+ * <pre>new JdkRequest(uri)
+ *   .through(TieredWire.class, "POST (?&lt;path&gt;/users/[^/?]+).*",
+ *     "/var/cache/http", 1000L, 1L &lt;&lt; 30)
+ *   .fetch();</pre>
+ *
+ * <p>Entries are keyed by HTTP method, path and query of the URI, the
+ * same way as in {@link FcWire}. Equal wires share their tiers.
+ *
+ * <p>{@link #await()} waits until the responses queued for disk are
+ * written, and {@link #close()} does the same and stops writing to disk
+ * for good. The wire still serves responses from both tiers after that.
+ * Equal wires share their tiers, so closing one closes them all.
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = { "origin", "path" })
+@EqualsAndHashCode(of = { "origin", "regex", "path", "entries", "disk" })
+public final class TieredWire implements Wire, Measured, Closeable {
+
+    /**
+     * Default number of entries in memory.
+     */
+    private static final long ENTRIES = 1000L;
+
+    /**
+     * Tiers of all wires.
+     */
+    private static final LoadingCache<TieredWire, TieredWire.Tiers> TIERS =
+        CacheBuilder.newBuilder().build(
+            new CacheLoader<TieredWire, TieredWire.Tiers>() {
+                @Override
+                public TieredWire.Tiers load(final TieredWire key) {
+                    return new TieredWire.Tiers(
+                        key.entries, new FcCache(key.path, key.disk, 0L)
+                    );
+                }
+            }
+        );
+
+    /**
+     * Background demoter of all wires.
+     */
+    private static final ExecutorService DEMOTER =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("TieredWire-demoter-%d")
+                .build()
+        );
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Flushing regular expression.
+     */
+    private final transient String regex;
+
+    /**
+     * Compiled flushing regular expression.
+     */
+    private final transient Flush flush;
+
+    /**
+     * Directory for the files.
+     */
+    private final transient String path;
+
+    /**
+     * Maximum number of entries in memory.
+     */
+    private final transient long entries;
+
+    /**
+     * Maximum total size of files in bytes, zero if unbounded.
+     */
+    private final transient long disk;
+
+    /**
+     * The tiers.
+     */
+    private final transient TieredWire.Tiers tiers;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param dir Directory for the files
+     */
+    public TieredWire(final Wire wire, final String dir) {
+        this(wire, dir, TieredWire.ENTRIES);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param dir Directory for the files
+     * @param max Maximum number of entries in memory
+     */
+    public TieredWire(final Wire wire, final String dir, final long max) {
+        this(wire, "$never", dir, max, 0L);
+    }
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     * @param flsh Flushing regular expression
+     * @param dir Directory for the files
+     * @param max Maximum number of entries in memory
+     * @param size Maximum total size of files in bytes, zero if unbounded
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public TieredWire(final Wire wire, final String flsh, final String dir,
+        final long max, final long size) {
+        this.origin = wire;
+        this.regex = flsh;
+        this.flush = new Flush(flsh);
+        this.path = dir;
+        this.entries = max;
+        this.disk = size;
+        this.tiers = TieredWire.TIERS.getUnchecked(this);
+    }
+
+    // @checkstyle ParameterNumber (5 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content,
+        final int connect,
+        final int read) throws IOException {
+        final URI uri = req.uri().get();
+        final StringBuilder label = new StringBuilder(100)
+            .append(method).append(' ').append(uri.getPath());
+        if (uri.getQuery() != null) {
+            label.append('?').append(uri.getQuery());
+        }
+        final String target = this.flush.path(label.toString());
+        if (this.flush.everything(target)) {
+            this.tiers.invalidate();
+        } else if (!target.isEmpty()) {
+            this.tiers.invalidate(target);
+        }
+        final Response rsp;
+        if (method.equals(Request.GET)) {
+            final String key = label.toString();
+            this.tiers.stats.request();
+            final Response cached = this.tiers.memory.getIfPresent(key);
+            if (cached == null) {
+                this.tiers.misses.increment();
+                try {
+                    rsp = this.tiers.memory.get(
+                        key,
+                        () -> this.load(
+                            key, req, home, headers, content, connect, read
+                        )
+                    );
+                } catch (final ExecutionException ex) {
+                    throw new IOException(ex.getCause());
+                }
+            } else {
+                this.tiers.hits.increment();
+                rsp = cached;
+            }
+        } else {
+            rsp = this.origin.send(
+                req, home, method, headers, content, connect, read
+            );
+        }
+        return rsp;
+    }
+
+    @Override
+    public CacheStats stats() {
+        return this.tiers.stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.tiers.close();
+        TieredWire.TIERS.asMap().remove(this, this.tiers);
+    }
+
+    /**
+     * Wait until all responses queued for disk are written.
+     * @throws IOException If interrupted
+     */
+    public void await() throws IOException {
+        this.tiers.await();
+    }
+
+    /**
+     * How many requests were served from memory, since the start.
+     * @return Number of hits
+     */
+    public long memoryHits() {
+        return this.tiers.hits.sum();
+    }
+
+    /**
+     * How many requests were not found in memory, since the start.
+     * @return Number of misses
+     */
+    public long memoryMisses() {
+        return this.tiers.misses.sum();
+    }
+
+    /**
+     * How many responses were promoted from disk, since the start.
+     * @return Number of hits
+     */
+    public long diskHits() {
+        return this.tiers.promoted.sum();
+    }
+
+    /**
+     * How many responses were not found on disk, since the start.
+     * @return Number of misses
+     */
+    public long diskMisses() {
+        return this.tiers.fetched.sum();
+    }
+
+    /**
+     * How many responses were written to disk, since the start, not
+     * counting those that were there already.
+     * @return Number of responses
+     */
+    public long demoted() {
+        return this.tiers.demoted.sum();
+    }
+
+    /**
+     * Load the response from disk or from the server.
+     * @param key Label of the request
+     * @param req Request
+     * @param home URI to fetch
+     * @param headers Headers
+     * @param content HTTP body
+     * @param connect The connect timeout
+     * @param read The read timeout
+     * @return Response
+     * @throws IOException If fails
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    private Response load(final String key, final Request req,
+        final String home, final Collection<Map.Entry<String, String>> headers,
+        final InputStream content, final int connect, final int read)
+        throws IOException {
+        final long generation = this.tiers.epoch.get();
+        Response rsp = this.tiers.files.cached(key, req);
+        if (rsp == null) {
+            this.tiers.fetched.increment();
+            final long start = System.nanoTime();
+            try {
+                rsp = this.origin.send(
+                    req, home, Request.GET, headers, content, connect, read
+                );
+            } finally {
+                this.tiers.stats.miss(System.nanoTime() - start);
+            }
+            this.tiers.demote(key, rsp, generation);
+        } else {
+            this.tiers.promoted.increment();
+        }
+        return rsp;
+    }
+
+    /**
+     * Memory and disk tiers of one wire, with their counters.
+     *
+     * @since 2.0
+     */
+    private static final class Tiers {
+        /**
+         * Entries in memory.
+         */
+        private final Cache<String, Response> memory;
+
+        /**
+         * Files.
+         */
+        private final FcCache files;
+
+        /**
+         * Generation of the tiers, changed on every flush.
+         */
+        private final AtomicLong epoch = new AtomicLong();
+
+        /**
+         * Lock of the generation, taken for writing by flushes and for
+         * reading by writes to disk.
+         */
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /**
+         * Responses queued for disk and not written yet.
+         */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        /**
+         * Monitor of threads waiting for the queued responses.
+         */
+        private final Object written = new Object();
+
+        /**
+         * Requests served from memory.
+         */
+        private final LongAdder hits = new LongAdder();
+
+        /**
+         * Requests not found in memory.
+         */
+        private final LongAdder misses = new LongAdder();
+
+        /**
+         * Responses promoted from disk.
+         */
+        private final LongAdder promoted = new LongAdder();
+
+        /**
+         * Responses fetched from the server.
+         */
+        private final LongAdder fetched = new LongAdder();
+
+        /**
+         * Responses demoted to disk.
+         */
+        private final LongAdder demoted = new LongAdder();
+
+        /**
+         * Statistics of both tiers.
+         */
+        private final CacheStats stats =
+            new CacheStats(this::bytes, () -> 0L);
+
+        /**
+         * Nothing is written to disk any more.
+         */
+        private volatile boolean closed;
+
+        /**
+         * Ctor.
+         * @param max Maximum number of entries in memory
+         * @param fcc Files
+         */
+        Tiers(final long max, final FcCache fcc) {
+            this.files = fcc;
+            this.memory = CacheBuilder.newBuilder()
+                .maximumSize(max)
+                .removalListener(this::evicted)
+                .build();
+        }
+
+        /**
+         * Invalidate all entries, in both tiers.
+         * @throws IOException If fails
+         */
+        void invalidate() throws IOException {
+            this.lock.writeLock().lock();
+            try {
+                this.epoch.incrementAndGet();
+                this.memory.invalidateAll();
+                this.files.invalidate();
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Invalidate entries with this path or paths below it, in both tiers.
+         * @param path URI path
+         * @throws IOException If fails
+         */
+        void invalidate(final String path) throws IOException {
+            final String base = String.format("%s %s", Request.GET, path);
+            this.lock.writeLock().lock();
+            try {
+                this.epoch.incrementAndGet();
+                this.memory.asMap().keySet().removeIf(
+                    key -> key.equals(base)
+                        || key.startsWith(String.format("%s/", base))
+                        || key.startsWith(String.format("%s?", base))
+                );
+                this.files.invalidate(path);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Write the response to disk, in background, unless it's there
+         * already.
+         *
+         * <p>Nothing is written if the tiers were flushed since the given
+         * generation, or closed. The generation is checked and the file
+         * is written under the read lock, so a flush can't slip in
+         * between.
+         *
+         * @param key Label of the request
+         * @param rsp The response
+         * @param generation Generation the response belongs to
+         */
+        void demote(final String key, final Response rsp,
+            final long generation) {
+            if (!this.closed) {
+                this.pending.incrementAndGet();
+                TieredWire.DEMOTER.execute(
+                    () -> {
+                        this.lock.readLock().lock();
+                        try {
+                            if (generation == this.epoch.get()
+                                && this.files.offer(key, rsp)) {
+                                this.demoted.increment();
+                            }
+                        } catch (final IOException ex) {
+                            Logger.warn(
+                                this, "failed to demote %s: %[exception]s",
+                                key, ex
+                            );
+                        } finally {
+                            this.lock.readLock().unlock();
+                            this.done();
+                        }
+                    }
+                );
+            }
+        }
+
+        /**
+         * Wait until all responses queued for disk are written.
+         * @throws InterruptedIOException If interrupted
+         */
+        void await() throws InterruptedIOException {
+            synchronized (this.written) {
+                while (this.pending.get() > 0) {
+                    try {
+                        this.written.wait();
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        final InterruptedIOException error =
+                            new InterruptedIOException(
+                                "interrupted while waiting for demotions"
+                            );
+                        error.initCause(ex);
+                        throw error;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Stop writing to disk and wait for the responses queued already.
+         * @throws InterruptedIOException If interrupted
+         */
+        void close() throws InterruptedIOException {
+            this.closed = true;
+            this.await();
+        }
+
+        /**
+         * Total size of bodies in memory and of files on disk.
+         * @return Bytes
+         */
+        private long bytes() {
+            long bytes = this.files.size();
+            for (final Response rsp : this.memory.asMap().values()) {
+                bytes += CacheStats.length(rsp);
+            }
+            return bytes;
+        }
+
+        /**
+         * Count the queued response as written, and wake up the waiting
+         * threads if it was the last one.
+         */
+        private void done() {
+            if (this.pending.decrementAndGet() == 0) {
+                synchronized (this.written) {
+                    this.written.notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Demote the entry evicted from memory, in background, in case
+         * its file is gone.
+         *
+         * <p>Entries invalidated explicitly are not demoted, and neither
+         * are those evicted before a flush and not yet written.
+         *
+         * @param removal Removal of the entry
+         */
+        private void evicted(
+            final RemovalNotification<String, Response> removal) {
+            if (removal.wasEvicted()) {
+                this.demote(
+                    removal.getKey(), removal.getValue(), this.epoch.get()
+                );
+            }
+        }
+    }
+
+}
@@ -4,7 +4,11 @@
  */
 package com.jcabi.http;
 
+import jakarta.ws.rs.core.HttpHeaders;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -29,4 +33,60 @@ final class ImmutableHeaderTest {
         );
     }
 
+    /**
+     * ImmutableHeader can reuse canonical instances of well-known names.
+     */
+    @Test
+    void reusesWellKnownHeaderNames() {
+        MatcherAssert.assertThat(
+            "should be the same instance as HttpHeaders.CACHE_CONTROL",
+            new ImmutableHeader("cache-control", "no-cache").getKey(),
+            Matchers.sameInstance(HttpHeaders.CACHE_CONTROL)
+        );
+    }
+
+    /**
+     * ImmutableHeader can normalize well-known names exactly as other names.
+     */
+    @Test
+    void normalizesWellKnownNamesAsBefore() {
+        MatcherAssert.assertThat(
+            "should keep upper-case letters and not canonicalize",
+            new String[] {
+                ImmutableHeader.normalize("etag"),
+                ImmutableHeader.normalize("CONTENT-TYPE"),
+                ImmutableHeader.normalize("x-custom-header"),
+            },
+            Matchers.arrayContaining(
+                "Etag", "CONTENT-TYPE", "X-Custom-Header"
+            )
+        );
+    }
+
+    /**
+     * ImmutableHeader can normalize all headers of many header-heavy
+     * responses into a few shared instances.
+     */
+    @Test
+    void sharesNamesAcrossHeaderHeavyResponses() {
+        final String[] names = {
+            "date", "server", "content-type", "content-length",
+            "cache-control", "last-modified", "vary", "set-cookie",
+            "access-control-allow-origin", "strict-transport-security",
+        };
+        final Set<String> keys =
+            Collections.newSetFromMap(new IdentityHashMap<>());
+        // @checkstyle MagicNumber (1 line)
+        for (int rsp = 0; rsp < 1000; ++rsp) {
+            for (final String name : names) {
+                keys.add(new ImmutableHeader(name, "").getKey());
+            }
+        }
+        MatcherAssert.assertThat(
+            "should produce one instance per name",
+            keys,
+            Matchers.hasSize(names.length)
+        );
+    }
+
 }
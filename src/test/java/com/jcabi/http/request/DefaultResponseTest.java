@@ -4,10 +4,15 @@
  */
 package com.jcabi.http.request;
 
+import com.jcabi.http.ImmutableHeader;
 import com.jcabi.http.Request;
 import com.jcabi.immutable.Array;
+import java.io.BufferedReader;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -36,4 +41,95 @@ final class DefaultResponseTest {
         );
     }
 
+    /**
+     * DefaultResponse can report the position of broken text without
+     * printing the entire body.
+     */
+    @Test
+    void reportsPositionOfBrokenText() {
+        final IllegalStateException ex = Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> new DefaultResponse(
+                Mockito.mock(Request.class),
+                HttpURLConnection.HTTP_OK,
+                "OK",
+                new Array<Map.Entry<String, String>>(),
+                // @checkstyle MagicNumber (1 line)
+                new byte[]{'a', '\n', 'b', (byte) 0xFF}
+            ).body()
+        );
+        MatcherAssert.assertThat(
+            "should point to the broken byte",
+            ex.getMessage(),
+            Matchers.containsString("byte #3, line #2")
+        );
+    }
+
+    /**
+     * DefaultResponse can decode the body with the charset declared
+     * in Content-Type header.
+     */
+    @Test
+    void decodesWithDeclaredCharset() {
+        MatcherAssert.assertThat(
+            "should decode ISO-8859-1 body",
+            new DefaultResponse(
+                Mockito.mock(Request.class),
+                HttpURLConnection.HTTP_OK,
+                "OK",
+                new Array<Map.Entry<String, String>>().with(
+                    new ImmutableHeader(
+                        "Content-Type", "text/plain; charset=\"ISO-8859-1\""
+                    )
+                ),
+                "caf\u00e9".getBytes(StandardCharsets.ISO_8859_1)
+            ).body(),
+            Matchers.equalTo("caf\u00e9")
+        );
+    }
+
+    /**
+     * DefaultResponse can decode the body only once.
+     */
+    @Test
+    void decodesBodyOnlyOnce() {
+        final DefaultResponse response = new DefaultResponse(
+            Mockito.mock(Request.class),
+            HttpURLConnection.HTTP_OK,
+            "OK",
+            new Array<Map.Entry<String, String>>(),
+            "\u0432\u0441\u0435 \u043e\u043a".getBytes(StandardCharsets.UTF_8)
+        );
+        MatcherAssert.assertThat(
+            "should return the same string",
+            response.body(),
+            Matchers.sameInstance(response.body())
+        );
+    }
+
+    /**
+     * DefaultResponse can stream the body through a reader.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void readsBodyThroughReader() throws Exception {
+        final DefaultResponse response = new DefaultResponse(
+            Mockito.mock(Request.class),
+            HttpURLConnection.HTTP_OK,
+            "OK",
+            new Array<Map.Entry<String, String>>(),
+            "first\n\u0432\u0442\u043e\u0440\u0430\u044f".getBytes(
+                StandardCharsets.UTF_8
+            )
+        );
+        try (BufferedReader reader = new BufferedReader(response.reader())) {
+            reader.readLine();
+            MatcherAssert.assertThat(
+                "should read the second line",
+                reader.readLine(),
+                Matchers.equalTo("\u0432\u0442\u043e\u0440\u0430\u044f")
+            );
+        }
+    }
+
 }
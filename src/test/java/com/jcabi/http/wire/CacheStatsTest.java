@@ -0,0 +1,229 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.immutable.Array;
+import jakarta.ws.rs.core.HttpHeaders;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import javax.management.ObjectName;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link CacheStats}.
+ * @since 2.0
+ */
+final class CacheStatsTest {
+
+    /**
+     * Home URI of the requests.
+     */
+    private static final String HOME = "http://localhost/stats";
+
+    /**
+     * CacheStats can count hits, misses and bytes of CachingWire.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void countsHitsAndMissesOfCachingWire() throws Exception {
+        final CachingWire wire = new CachingWire(
+            CacheStatsTest.server(HttpURLConnection.HTTP_OK),
+            CacheBuilder.newBuilder().recordStats().build(
+                new CacheLoader<Callable<Response>, Response>() {
+                    @Override
+                    public Response load(final Callable<Response> query)
+                        throws Exception {
+                        return query.call();
+                    }
+                }
+            )
+        );
+        for (int idx = 0; idx < 3; ++idx) {
+            CacheStatsTest.get(wire);
+        }
+        final CacheStats.Snapshot stats = wire.stats().snapshot();
+        MatcherAssert.assertThat(
+            "hits and misses must be counted",
+            new long[] {stats.getHits(), stats.getMisses()},
+            Matchers.equalTo(new long[] {2L, 1L})
+        );
+        MatcherAssert.assertThat(
+            "hit rate must be calculated",
+            stats.getHitRate(),
+            Matchers.closeTo(2.0 / 3.0, 0.001)
+        );
+        MatcherAssert.assertThat(
+            "bytes of the body must be counted",
+            stats.getBytes(),
+            Matchers.equalTo((long) "body".length())
+        );
+    }
+
+    /**
+     * CacheStats can count revalidations of ETagCachingWire.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void countsRevalidationsOfEtagCachingWire() throws Exception {
+        final ETagCachingWire wire = new ETagCachingWire(
+            CacheStatsTest.server(HttpURLConnection.HTTP_NOT_MODIFIED)
+        );
+        CacheStatsTest.get(wire);
+        CacheStatsTest.get(wire);
+        final CacheStats.Snapshot stats = wire.stats().snapshot();
+        MatcherAssert.assertThat(
+            "revalidation with 304 must be counted as a hit",
+            new long[] {
+                stats.getHits(), stats.getMisses(), stats.getRevalidations(),
+            },
+            Matchers.equalTo(new long[] {1L, 1L, 1L})
+        );
+    }
+
+    /**
+     * CacheStats can keep statistics of FcWire by its directory.
+     * @param dir Temporary directory
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void keepsStatisticsOfFcWireByDirectory(@TempDir final Path dir)
+        throws Exception {
+        final Wire server = CacheStatsTest.server(HttpURLConnection.HTTP_OK);
+        final String first = dir.resolve("first").toString();
+        final FcWire wire = new FcWire(server, "$never", first);
+        CacheStatsTest.get(wire);
+        MatcherAssert.assertThat(
+            "misses in another directory must not be counted",
+            new FcWire(server, "$never", dir.resolve("second").toString())
+                .stats().getMisses(),
+            Matchers.equalTo(0L)
+        );
+        final CacheStats same = new FcWire(server, "$never", first).stats();
+        MatcherAssert.assertThat(
+            "statistics of the same directory must be shared",
+            same,
+            Matchers.sameInstance(wire.stats())
+        );
+        MatcherAssert.assertThat(
+            "misses in the same directory must be counted",
+            same.getMisses(),
+            Matchers.equalTo(1L)
+        );
+    }
+
+    /**
+     * CacheStats can count failed requests as misses, not as hits.
+     * @param dir Temporary directory
+     */
+    @Test
+    void countsFailuresAsMisses(@TempDir final Path dir) {
+        final Wire broken =
+            (req, home, method, headers, content, cnct, rdd) -> {
+                throw new IOException("origin is down");
+            };
+        for (final Measured wire : new Measured[] {
+            // @checkstyle MagicNumber (1 line)
+            new CachingWire(broken, "$never", 100L, 0L, 0L, 0L),
+            new FcWire(broken, "$never", dir.toString()),
+        }) {
+            Assertions.assertThrows(
+                IOException.class, () -> CacheStatsTest.get((Wire) wire)
+            );
+            final CacheStats.Snapshot stats = wire.stats().snapshot();
+            MatcherAssert.assertThat(
+                "failed request must be a miss",
+                new long[] {stats.getHits(), stats.getMisses()},
+                Matchers.equalTo(new long[] {0L, 1L})
+            );
+        }
+    }
+
+    /**
+     * CacheStats can be registered as an MBean.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void registersInJmx() throws Exception {
+        final CachingWire wire = new CachingWire(
+            CacheStatsTest.server(HttpURLConnection.HTTP_OK), "$never",
+            // @checkstyle MagicNumber (1 line)
+            100L, 0L, 0L, 0L
+        );
+        CacheStatsTest.get(wire);
+        final ObjectName name = wire.stats().register("stats-test");
+        try {
+            MatcherAssert.assertThat(
+                "misses must be seen in JMX",
+                ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(name, "Misses"),
+                Matchers.equalTo(1L)
+            );
+        } finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+
+    /**
+     * Server with ETags, which responds with this status when the
+     * request has a condition.
+     * @param status Status of conditional responses
+     * @return Wire
+     */
+    private static Wire server(final int status) {
+        return (req, home, method, headers, content, connect, read) -> {
+            int code = HttpURLConnection.HTTP_OK;
+            for (final Map.Entry<String, String> header : headers) {
+                if (HttpHeaders.IF_NONE_MATCH.equals(header.getKey())) {
+                    code = status;
+                }
+            }
+            return new DefaultResponse(
+                req, code, "",
+                new Array<>(
+                    Collections.singletonList(
+                        new AbstractMap.SimpleImmutableEntry<>(
+                            HttpHeaders.ETAG, "\"1\""
+                        )
+                    )
+                ),
+                "body".getBytes(StandardCharsets.UTF_8)
+            );
+        };
+    }
+
+    /**
+     * Make a GET request through the wire.
+     * @param wire The wire
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response get(final Wire wire) throws IOException {
+        return wire.send(
+            new JdkRequest(CacheStatsTest.HOME), CacheStatsTest.HOME,
+            Request.GET, Collections.emptyList(),
+            new ByteArrayInputStream(new byte[0]), 0, 0
+        );
+    }
+
+}
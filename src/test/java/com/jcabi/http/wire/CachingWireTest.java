@@ -9,17 +9,30 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.jcabi.http.Request;
 import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
 import com.jcabi.http.mock.MkAnswer;
 import com.jcabi.http.mock.MkContainer;
 import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.ApacheRequest;
+import com.jcabi.http.request.DefaultResponse;
 import com.jcabi.http.request.JdkRequest;
 import com.jcabi.http.response.RestResponse;
+import com.jcabi.immutable.Array;
 import jakarta.ws.rs.core.HttpHeaders;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Test case for {@link CachingWire}.
@@ -98,6 +111,44 @@ final class CachingWireTest {
         );
     }
 
+    /**
+     * CachingWire can flush only the entries below the captured path.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void flushesOnlyEntriesBelowCapturedPath() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple("user"))
+            .next(new MkAnswer.Simple("photos"))
+            .next(new MkAnswer.Simple("other"))
+            .next(new MkAnswer.Simple(""))
+            .next(new MkAnswer.Simple("user again"))
+            .next(new MkAnswer.Simple("photos again"))
+            .start();
+        final Request req = new JdkRequest(container.home()).through(
+            CachingWire.class, "POST (?<path>/users/[^/?]+).*"
+        );
+        req.uri().path("/users/42").back().fetch();
+        req.uri().path("/users/42/photos").back().fetch();
+        req.uri().path("/users/420").back().fetch();
+        req.method(Request.POST).uri().path("/users/42").back().fetch();
+        req.uri().path("/users/42").back().fetch()
+            .as(RestResponse.class)
+            .assertBody(Matchers.equalTo("user again"));
+        req.uri().path("/users/42/photos").back().fetch()
+            .as(RestResponse.class)
+            .assertBody(Matchers.equalTo("photos again"));
+        req.uri().path("/users/420").back().fetch()
+            .as(RestResponse.class)
+            .assertBody(Matchers.equalTo("other"));
+        container.stop();
+        MatcherAssert.assertThat(
+            "only entries below the path must be flushed",
+            container.queries(),
+            Matchers.equalTo(6)
+        );
+    }
+
     /**
      * CachingWire bypasses the cache on every request that carries
      * a {@code Cache-Control: no-cache} directive (RFC 7234 §5.2.1.4),
@@ -209,4 +260,348 @@ final class CachingWireTest {
         MatcherAssert.assertThat("should be equal 1", container.queries(), Matchers.equalTo(1));
     }
 
+    /**
+     * CachingWire can evict entries when there are too many of them.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void evictsEntriesAboveMaximum() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple("a"))
+            .next(new MkAnswer.Simple("b"))
+            .next(new MkAnswer.Simple("a"))
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(CachingWire.class, "$never", 1L, 0L, 0L, 0L);
+        req.uri().path("a").back().fetch();
+        req.uri().path("b").back().fetch();
+        req.uri().path("a").back().fetch();
+        container.stop();
+        MatcherAssert.assertThat(
+            "evicted entry must be fetched again",
+            container.queries(),
+            Matchers.equalTo(3)
+        );
+    }
+
+    /**
+     * CachingWire can refuse to keep bodies above the size limit.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void doesNotKeepBodiesAboveMaximumWeight() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple("this body is too large"))
+            .next(new MkAnswer.Simple("this body is too large"))
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(CachingWire.class, "$never", 0L, 8L, 0L, 0L);
+        req.fetch();
+        req.fetch();
+        container.stop();
+        MatcherAssert.assertThat(
+            "heavy entry must not be cached",
+            container.queries(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    /**
+     * CachingWire can weigh compressed bodies by their compressed size.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void weighsCompressedBodiesByCompressedSize() throws Exception {
+        // @checkstyle MagicNumber (3 lines)
+        final char[] body = new char[4096];
+        Arrays.fill(body, 'x');
+        final int paths = 24;
+        final MkContainer container = new MkGrizzlyContainer();
+        for (int idx = 0; idx < paths * 2; ++idx) {
+            container.next(new MkAnswer.Simple(new String(body)));
+        }
+        container.start();
+        final Request req = new JdkRequest(container.home())
+            .through(CompressingWire.class)
+            .through(CachingWire.class, "$never", 0L, 48L << 10, 0L, 0L);
+        for (int round = 0; round < 2; ++round) {
+            for (int idx = 0; idx < paths; ++idx) {
+                req.uri().path(Integer.toString(idx)).back().fetch();
+            }
+        }
+        container.stop();
+        MatcherAssert.assertThat(
+            "all compressed entries must fit into the limit",
+            container.queries(),
+            Matchers.equalTo(paths)
+        );
+    }
+
+    /**
+     * CachingWire can ignore the order of query parameters and headers
+     * that are not significant.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void ignoresInsignificantDifferences() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple("cached"))
+            .start();
+        final LoadingCache<Callable<Response>, Response> cache =
+            CacheBuilder.newBuilder().build(
+                new CacheLoader<Callable<Response>, Response>() {
+                    @Override
+                    public Response load(final Callable<Response> query)
+                        throws Exception {
+                        return query.call();
+                    }
+                }
+            );
+        final Request req = new JdkRequest(container.home()).through(
+            CachingWire.class, "$never", cache, new String[] {"Accept"}
+        );
+        req.uri().queryParam("a", "1").queryParam("b", "2").back()
+            .header(HttpHeaders.ACCEPT, "text/plain")
+            .header(HttpHeaders.USER_AGENT, "first")
+            .fetch();
+        req.uri().queryParam("b", "2").queryParam("a", "1").back()
+            .header(HttpHeaders.ACCEPT, "text/plain")
+            .header(HttpHeaders.USER_AGENT, "second")
+            .fetch()
+            .as(RestResponse.class)
+            .assertBody(Matchers.equalTo("cached"));
+        container.stop();
+        MatcherAssert.assertThat(
+            "should be served from the cache",
+            container.queries(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * CachingWire can save a snapshot and load it into another cache.
+     * @param dir Temporary directory
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void savesAndLoadsSnapshot(@TempDir final Path dir) throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple("snapshot").withHeader("X-Cached", "yes")
+            )
+            .start();
+        final LoadingCache<Callable<Response>, Response> before =
+            CachingWireTest.storage();
+        new JdkRequest(container.home())
+            .through(CachingWire.class, "$never", before)
+            .uri().queryParam("q", "1").back()
+            .fetch();
+        final Path file = dir.resolve("snapshot.bin");
+        final Wire unused = (req, home, method, headers, content, cnct, rdd) -> {
+            throw new IOException("must not be called");
+        };
+        MatcherAssert.assertThat(
+            "one entry must be saved",
+            new CachingWire(unused, "$never", before).save(file),
+            Matchers.equalTo(1)
+        );
+        final LoadingCache<Callable<Response>, Response> after =
+            CachingWireTest.storage();
+        final CachingWire loaded = new CachingWire(unused, "$never", after);
+        MatcherAssert.assertThat(
+            "one entry must be loaded",
+            loaded.load(file),
+            Matchers.equalTo(1)
+        );
+        final Response rsp = new JdkRequest(container.home())
+            .through(loaded)
+            .uri().queryParam("q", "1").back()
+            .fetch();
+        container.stop();
+        MatcherAssert.assertThat(
+            "response must be loaded with its headers",
+            rsp.headers().get("X-Cached"),
+            Matchers.contains("yes")
+        );
+        MatcherAssert.assertThat(
+            "response must be served from the loaded cache",
+            new Object[] {rsp.body(), container.queries()},
+            Matchers.arrayContaining("snapshot", 1)
+        );
+    }
+
+    /**
+     * CachingWire can expire loaded entries by the time they were written.
+     * @param dir Temporary directory
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void expiresLoadedEntriesByTimeWritten(@TempDir final Path dir)
+        throws Exception {
+        final Path file = dir.resolve("expiring.bin");
+        final CachingWire before = new CachingWire(
+            CachingWireTest.counting(new AtomicInteger()), "$never",
+            0L, 0L, 2L, 0L
+        );
+        CachingWireTest.get(before);
+        // @checkstyle MagicNumber (1 line)
+        TimeUnit.MILLISECONDS.sleep(1500L);
+        before.save(file);
+        final AtomicInteger calls = new AtomicInteger();
+        final CachingWire after = new CachingWire(
+            CachingWireTest.counting(calls), "$never", 0L, 0L, 2L, 0L
+        );
+        after.load(file);
+        CachingWireTest.get(after);
+        MatcherAssert.assertThat(
+            "loaded entry must be served while it's fresh",
+            calls.get(),
+            Matchers.equalTo(0)
+        );
+        // @checkstyle MagicNumber (1 line)
+        TimeUnit.MILLISECONDS.sleep(800L);
+        CachingWireTest.get(after);
+        MatcherAssert.assertThat(
+            "loaded entry must expire two seconds after it was written",
+            calls.get(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * CachingWire can let its storage refresh entries by their keys.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void refreshesEntriesByKeys() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple("first"))
+            .next(new MkAnswer.Simple("second"))
+            .start();
+        final LoadingCache<Callable<Response>, Response> cache =
+            CachingWireTest.storage();
+        final Request req = new JdkRequest(container.home())
+            .through(CachingWire.class, cache);
+        req.fetch();
+        for (final Callable<Response> key : cache.asMap().keySet()) {
+            cache.refresh(key);
+        }
+        final String body = req.fetch().body();
+        container.stop();
+        MatcherAssert.assertThat(
+            "entry must be refreshed through its key",
+            new Object[] {body, container.queries()},
+            Matchers.arrayContaining("second", 2)
+        );
+    }
+
+    /**
+     * CachingWire can keep responses of different origin wires apart in
+     * one storage.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void keepsResponsesOfOriginsApart() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple("jdk"))
+            .next(new MkAnswer.Simple("apache"))
+            .start();
+        final LoadingCache<Callable<Response>, Response> cache =
+            CachingWireTest.storage();
+        new JdkRequest(container.home())
+            .through(CachingWire.class, cache)
+            .fetch()
+            .as(RestResponse.class)
+            .assertBody(Matchers.equalTo("jdk"));
+        new ApacheRequest(container.home())
+            .through(CachingWire.class, cache)
+            .fetch()
+            .as(RestResponse.class)
+            .assertBody(Matchers.equalTo("apache"));
+        container.stop();
+    }
+
+    /**
+     * CachingWire can let its storage refresh entries with the timeouts
+     * of the original request.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void refreshesEntriesWithTimeoutsOfRequest() throws Exception {
+        final AtomicInteger timeout = new AtomicInteger();
+        final LoadingCache<Callable<Response>, Response> cache =
+            CachingWireTest.storage();
+        new JdkRequest("http://localhost/timed")
+            .through(
+                new CachingWire(
+                    (req, home, method, headers, content, connect, read) -> {
+                        timeout.set(read);
+                        return new DefaultResponse(
+                            req, HttpURLConnection.HTTP_OK, "OK",
+                            new Array<>(), new byte[0]
+                        );
+                    },
+                    cache
+                )
+            )
+            // @checkstyle MagicNumber (1 line)
+            .timeout(500, 700)
+            .fetch();
+        timeout.set(0);
+        for (final Callable<Response> key : cache.asMap().keySet()) {
+            cache.refresh(key);
+        }
+        MatcherAssert.assertThat(
+            "entry must be refreshed with the read timeout of the request",
+            timeout.get(),
+            // @checkstyle MagicNumber (1 line)
+            Matchers.equalTo(700)
+        );
+    }
+
+    /**
+     * Wire that counts its calls.
+     * @param calls Counter of calls
+     * @return Wire
+     */
+    private static Wire counting(final AtomicInteger calls) {
+        return (req, home, method, headers, content, connect, read) -> {
+            calls.incrementAndGet();
+            return new DefaultResponse(
+                req, HttpURLConnection.HTTP_OK, "OK", new Array<>(),
+                "counted".getBytes(StandardCharsets.UTF_8)
+            );
+        };
+    }
+
+    /**
+     * Make a GET request through the wire.
+     * @param wire The wire
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response get(final Wire wire) throws IOException {
+        final String home = "http://localhost/counted";
+        return wire.send(
+            new JdkRequest(home), home, Request.GET, Collections.emptyList(),
+            new ByteArrayInputStream(new byte[0]), 0, 0
+        );
+    }
+
+    /**
+     * Make an empty storage.
+     * @return Storage
+     */
+    private static LoadingCache<Callable<Response>, Response> storage() {
+        return CacheBuilder.newBuilder().build(
+            new CacheLoader<Callable<Response>, Response>() {
+                @Override
+                public Response load(final Callable<Response> query)
+                    throws Exception {
+                    return query.call();
+                }
+            }
+        );
+    }
+
 }
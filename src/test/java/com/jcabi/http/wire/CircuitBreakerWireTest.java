@@ -0,0 +1,125 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.http.response.RestResponse;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link CircuitBreakerWire}.
+ * @since 2.0
+ */
+final class CircuitBreakerWireTest {
+
+    /**
+     * CircuitBreakerWire can open after failures and fail fast.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void opensAfterFailures() throws IOException {
+        final MkContainer container = new MkGrizzlyContainer();
+        // @checkstyle MagicNumber (1 line)
+        for (int idx = 0; idx < 5; ++idx) {
+            container.next(
+                new MkAnswer.Simple(HttpURLConnection.HTTP_INTERNAL_ERROR)
+            );
+        }
+        container.start();
+        final Request req = new JdkRequest(container.home()).through(
+            CircuitBreakerWire.class,
+            // @checkstyle MagicNumber (1 line)
+            10, 50, 100, 10_000L, 60_000L, false
+        );
+        // @checkstyle MagicNumber (1 line)
+        for (int idx = 0; idx < 5; ++idx) {
+            req.fetch();
+        }
+        Assertions.assertThrows(IOException.class, req::fetch);
+        container.stop();
+        MatcherAssert.assertThat(
+            "requests must not go to the server while open",
+            container.queries(),
+            // @checkstyle MagicNumber (1 line)
+            Matchers.equalTo(5)
+        );
+    }
+
+    /**
+     * CircuitBreakerWire can respond with 503 while open.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void respondsWithFallback() throws IOException {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_INTERNAL_ERROR))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_INTERNAL_ERROR))
+            .start();
+        final Request req = new JdkRequest(container.home()).through(
+            CircuitBreakerWire.class,
+            // @checkstyle MagicNumber (1 line)
+            2, 50, 100, 10_000L, 60_000L, true
+        );
+        req.fetch();
+        req.fetch()
+            .as(RestResponse.class)
+            .assertStatus(HttpURLConnection.HTTP_UNAVAILABLE)
+            .assertHeader("Retry-After", "60");
+        container.stop();
+        MatcherAssert.assertThat(
+            "fallback must not go to the server",
+            container.queries(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * CircuitBreakerWire can close after a successful probe.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void closesAfterProbe() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_INTERNAL_ERROR))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_INTERNAL_ERROR))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK))
+            .start();
+        final Request req = new JdkRequest(container.home()).through(
+            CircuitBreakerWire.class,
+            // @checkstyle MagicNumber (1 line)
+            4, 50, 100, 10_000L, 50L, false
+        );
+        req.fetch();
+        req.fetch();
+        Assertions.assertThrows(IOException.class, req::fetch);
+        // @checkstyle MagicNumber (1 line)
+        TimeUnit.MILLISECONDS.sleep(100L);
+        req.fetch()
+            .as(RestResponse.class)
+            .assertStatus(HttpURLConnection.HTTP_OK);
+        req.fetch()
+            .as(RestResponse.class)
+            .assertStatus(HttpURLConnection.HTTP_OK);
+        container.stop();
+        MatcherAssert.assertThat(
+            "requests must go to the server once the circuit is closed",
+            container.queries(),
+            // @checkstyle MagicNumber (1 line)
+            Matchers.equalTo(4)
+        );
+    }
+
+}
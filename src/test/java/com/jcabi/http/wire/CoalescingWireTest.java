@@ -0,0 +1,243 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.immutable.Array;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link CoalescingWire}.
+ * @since 2.0
+ */
+final class CoalescingWireTest {
+
+    /**
+     * Home URI of the requests.
+     */
+    private static final String HOME = "http://localhost/coalesced";
+
+    /**
+     * CoalescingWire can merge concurrent identical requests.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void mergesConcurrentIdenticalRequests() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        final CoalescingWire wire = new CoalescingWire(
+            (req, home, method, headers, content, connect, read) -> {
+                calls.incrementAndGet();
+                CoalescingWireTest.await(latch);
+                return new DefaultResponse(
+                    req, HttpURLConnection.HTTP_OK, "OK",
+                    new Array<>(), new byte[0]
+                );
+            }
+        );
+        final ExecutorService threads = Executors.newFixedThreadPool(5);
+        final List<Future<Response>> futures = new ArrayList<>(5);
+        for (int idx = 0; idx < 5; ++idx) {
+            futures.add(threads.submit(() -> CoalescingWireTest.get(wire)));
+        }
+        CoalescingWireTest.waitFor(wire, 4L);
+        latch.countDown();
+        final Response first = futures.get(0).get();
+        for (final Future<Response> future : futures) {
+            MatcherAssert.assertThat(
+                "all threads must get the same response",
+                future.get(),
+                Matchers.sameInstance(first)
+            );
+        }
+        threads.shutdown();
+        MatcherAssert.assertThat(
+            "only one request must go to the server",
+            calls.get(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * CoalescingWire can deliver failure to all waiting threads.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void deliversFailureToAllWaiters() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CoalescingWire wire = new CoalescingWire(
+            (req, home, method, headers, content, connect, read) -> {
+                CoalescingWireTest.await(latch);
+                throw new IOException("refused");
+            }
+        );
+        final ExecutorService threads = Executors.newFixedThreadPool(3);
+        final List<Future<Response>> futures = new ArrayList<>(3);
+        for (int idx = 0; idx < 3; ++idx) {
+            futures.add(threads.submit(() -> CoalescingWireTest.get(wire)));
+        }
+        CoalescingWireTest.waitFor(wire, 2L);
+        latch.countDown();
+        for (final Future<Response> future : futures) {
+            try {
+                future.get();
+                MatcherAssert.assertThat("must fail", false);
+            } catch (final ExecutionException ex) {
+                MatcherAssert.assertThat(
+                    "failure must reach every thread",
+                    ex.getCause(),
+                    Matchers.allOf(
+                        Matchers.instanceOf(IOException.class),
+                        Matchers.hasProperty(
+                            "message", Matchers.equalTo("refused")
+                        )
+                    )
+                );
+            }
+        }
+        threads.shutdown();
+    }
+
+    /**
+     * CoalescingWire can stop waiting on interruption without affecting
+     * the request in flight.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void stopsWaitingOnInterruption() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CoalescingWire wire = new CoalescingWire(
+            (req, home, method, headers, content, connect, read) -> {
+                CoalescingWireTest.await(latch);
+                return new DefaultResponse(
+                    req, HttpURLConnection.HTTP_OK, "OK",
+                    new Array<>(), new byte[0]
+                );
+            }
+        );
+        final ExecutorService threads = Executors.newFixedThreadPool(2);
+        final Future<Response> leader =
+            threads.submit(() -> CoalescingWireTest.get(wire));
+        final long start = System.currentTimeMillis();
+        while (wire.upstream() < 1L
+            && System.currentTimeMillis() - start
+            < TimeUnit.SECONDS.toMillis(10L)) {
+            TimeUnit.MILLISECONDS.sleep(10L);
+        }
+        final Future<Response> follower =
+            threads.submit(() -> CoalescingWireTest.get(wire));
+        CoalescingWireTest.waitFor(wire, 1L);
+        follower.cancel(true);
+        latch.countDown();
+        MatcherAssert.assertThat(
+            "leader must complete",
+            leader.get().status(),
+            Matchers.equalTo(HttpURLConnection.HTTP_OK)
+        );
+        threads.shutdown();
+        MatcherAssert.assertThat(
+            "must terminate",
+            threads.awaitTermination(1L, TimeUnit.MINUTES),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * CoalescingWire can pass sequential and unsafe requests through.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void passesSequentialAndUnsafeRequestsThrough() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(""))
+            .next(new MkAnswer.Simple(""))
+            .next(new MkAnswer.Simple(""))
+            .next(new MkAnswer.Simple(""))
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(CoalescingWire.class);
+        req.fetch();
+        req.fetch();
+        req.method(Request.POST).fetch();
+        req.method(Request.POST).fetch();
+        container.stop();
+        MatcherAssert.assertThat(
+            "every request must go to the server",
+            container.queries(),
+            Matchers.equalTo(4)
+        );
+    }
+
+    /**
+     * Make a GET request through the wire.
+     * @param wire The wire
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response get(final Wire wire) throws IOException {
+        final Collection<Map.Entry<String, String>> headers =
+            Collections.emptyList();
+        return wire.send(
+            new JdkRequest(CoalescingWireTest.HOME),
+            CoalescingWireTest.HOME, Request.GET, headers,
+            new ByteArrayInputStream(new byte[0]), 0, 0
+        );
+    }
+
+    /**
+     * Wait for the latch, in the server.
+     * @param latch The latch
+     * @throws IOException If interrupted
+     */
+    private static void await(final CountDownLatch latch) throws IOException {
+        try {
+            latch.await(1L, TimeUnit.MINUTES);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Wait until the given number of requests is merged.
+     * @param wire The wire
+     * @param merged How many requests must be merged
+     * @throws InterruptedException If interrupted
+     */
+    private static void waitFor(final CoalescingWire wire, final long merged)
+        throws InterruptedException {
+        final long start = System.currentTimeMillis();
+        while (wire.coalesced() < merged
+            && System.currentTimeMillis() - start
+            < TimeUnit.SECONDS.toMillis(10L)) {
+            TimeUnit.MILLISECONDS.sleep(10L);
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.immutable.Array;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link CompressingWire}.
+ * @since 2.0
+ */
+final class CompressingWireTest {
+
+    /**
+     * CompressingWire can keep bodies compressed.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void keepsBodiesCompressed() throws Exception {
+        // @checkstyle MagicNumber (1 line)
+        final String body = CompressingWireTest.json(500);
+        final CompressingWire wire = new CompressingWire(
+            CompressingWireTest.server(body)
+        );
+        final Response rsp = CompressingWireTest.get(wire);
+        MatcherAssert.assertThat(
+            "body must be inflated as it was",
+            rsp.body(),
+            Matchers.equalTo(body)
+        );
+        MatcherAssert.assertThat(
+            "body must be compressed at least twice",
+            wire.ratio(),
+            Matchers.lessThan(0.5)
+        );
+        MatcherAssert.assertThat(
+            "time of compression must be counted",
+            wire.deflating(),
+            Matchers.greaterThan(0L)
+        );
+    }
+
+    /**
+     * CompressingWire can leave small bodies as they are.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void leavesSmallBodiesAsTheyAre() throws Exception {
+        MatcherAssert.assertThat(
+            "small body must not be compressed",
+            CompressingWireTest.get(
+                new CompressingWire(
+                    CompressingWireTest.server(CompressingWireTest.json(1))
+                )
+            ),
+            Matchers.not(Matchers.instanceOf(Deflated.class))
+        );
+    }
+
+    /**
+     * CompressingWire can keep bodies compressed in files of FcWire.
+     * @param dir Temporary directory
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void keepsBodiesCompressedInFiles(@TempDir final Path dir)
+        throws Exception {
+        // @checkstyle MagicNumber (1 line)
+        final String body = CompressingWireTest.json(500);
+        try (MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(body))
+            .start()) {
+            final Request req = new JdkRequest(container.home())
+                .through(CompressingWire.class)
+                .through(FcWire.class, "$never", dir.toString());
+            for (int idx = 0; idx < 2; ++idx) {
+                MatcherAssert.assertThat(
+                    "cached body must be inflated as it was",
+                    req.fetch().body(),
+                    Matchers.equalTo(body)
+                );
+            }
+            MatcherAssert.assertThat(
+                "only one request must reach the server",
+                container.queries(),
+                Matchers.equalTo(1)
+            );
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            MatcherAssert.assertThat(
+                "file must be smaller than the body",
+                files.filter(Files::isRegularFile).map(Path::toFile)
+                    .map(File::length).collect(Collectors.toList()),
+                Matchers.contains(
+                    Matchers.lessThan((long) body.length() / 2L)
+                )
+            );
+        }
+    }
+
+    /**
+     * Server responding with this body.
+     * @param body The body
+     * @return Wire
+     */
+    private static Wire server(final String body) {
+        return (req, home, method, headers, content, connect, read) ->
+            new DefaultResponse(
+                req, HttpURLConnection.HTTP_OK, "OK", new Array<>(),
+                body.getBytes(StandardCharsets.UTF_8)
+            );
+    }
+
+    /**
+     * Make a GET request through the wire.
+     * @param wire The wire
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response get(final Wire wire) throws IOException {
+        final String home = "http://localhost/compressed";
+        return wire.send(
+            new JdkRequest(home), home, Request.GET, Collections.emptyList(),
+            new ByteArrayInputStream(new byte[0]), 0, 0
+        );
+    }
+
+    /**
+     * JSON array of objects.
+     * @param count How many objects
+     * @return JSON
+     */
+    private static String json(final int count) {
+        final StringBuilder json = new StringBuilder("[");
+        for (int idx = 0; idx < count; ++idx) {
+            if (idx > 0) {
+                json.append(',');
+            }
+            json.append(
+                String.format("{\"id\":%d,\"name\":\"user %d\"}", idx, idx)
+            );
+        }
+        return json.append(']').toString();
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.request.JdkRequest;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link ConcurrencyLimitingWire}.
+ * @since 2.0
+ */
+final class ConcurrencyLimitingWireTest {
+
+    /**
+     * ConcurrencyLimitingWire can reject a request when the limit is
+     * reached.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void rejectsWhenLimitIsReached() throws Exception {
+        final String home = "http://localhost/bulkhead";
+        final ConcurrencyLimitingWire wire = new ConcurrencyLimitingWire(
+            // @checkstyle MagicNumber (1 line)
+            new SlowWire(HttpURLConnection.HTTP_OK, 1, 500L), 1, 1, 0L
+        );
+        final Request req = new JdkRequest(home).through(wire);
+        final ExecutorService service = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Response> first = service.submit(
+                () -> req.fetch()
+            );
+            while (wire.inflight(home) == 0) {
+                TimeUnit.MILLISECONDS.sleep(1L);
+            }
+            Assertions.assertThrows(IOException.class, req::fetch);
+            MatcherAssert.assertThat(
+                "request in flight must be served",
+                first.get().status(),
+                Matchers.equalTo(HttpURLConnection.HTTP_OK)
+            );
+        } finally {
+            service.shutdownNow();
+        }
+        MatcherAssert.assertThat(
+            "rejection must be counted",
+            wire.rejected(),
+            Matchers.equalTo(1L)
+        );
+    }
+
+    /**
+     * ConcurrencyLimitingWire can decrease the limit when the host is
+     * overloaded.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void decreasesLimitOnOverload() throws IOException {
+        final String home = "http://localhost/overloaded";
+        final ConcurrencyLimitingWire wire = new ConcurrencyLimitingWire(
+            new SlowWire(HttpURLConnection.HTTP_UNAVAILABLE, 0, 0L),
+            // @checkstyle MagicNumber (1 line)
+            10, 100, 0L
+        );
+        final Request req = new JdkRequest(home).through(wire);
+        // @checkstyle MagicNumber (1 line)
+        for (int idx = 0; idx < 5; ++idx) {
+            req.fetch();
+        }
+        MatcherAssert.assertThat(
+            "limit must be decreased",
+            wire.limit(home),
+            // @checkstyle MagicNumber (1 line)
+            Matchers.lessThan(10)
+        );
+    }
+
+    /**
+     * ConcurrencyLimitingWire can increase the limit when the host is
+     * fast.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void increasesLimitWhenFast() throws IOException {
+        final String home = "http://localhost/fast";
+        final ConcurrencyLimitingWire wire = new ConcurrencyLimitingWire(
+            // @checkstyle MagicNumber (1 line)
+            new SlowWire(HttpURLConnection.HTTP_OK, Integer.MAX_VALUE, 5L),
+            // @checkstyle MagicNumber (1 line)
+            1, 100, 0L
+        );
+        final Request req = new JdkRequest(home).through(wire);
+        // @checkstyle MagicNumber (1 line)
+        for (int idx = 0; idx < 20; ++idx) {
+            req.fetch();
+        }
+        MatcherAssert.assertThat(
+            "limit must be increased",
+            wire.limit(home),
+            Matchers.greaterThan(1)
+        );
+    }
+
+}
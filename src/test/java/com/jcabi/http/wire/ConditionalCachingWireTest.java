@@ -0,0 +1,261 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.immutable.Array;
+import jakarta.ws.rs.core.HttpHeaders;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link ConditionalCachingWire}.
+ * @since 2.0
+ */
+final class ConditionalCachingWireTest {
+
+    /**
+     * Home URI of the requests.
+     */
+    private static final String HOME = "http://localhost/conditional";
+
+    /**
+     * Last-Modified of all responses.
+     */
+    private static final String MODIFIED = "Tue, 15 Nov 1994 12:45:26 GMT";
+
+    /**
+     * ConditionalCachingWire can send both validators and merge headers
+     * of 304 responses.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void sendsBothValidatorsAndMergesHeaders() throws Exception {
+        final List<Collection<Map.Entry<String, String>>> sent =
+            new CopyOnWriteArrayList<>();
+        final AtomicReference<String> version = new AtomicReference<>("1");
+        final Wire wire = new ConditionalCachingWire(
+            ConditionalCachingWireTest.server(version, sent)
+        );
+        ConditionalCachingWireTest.get(wire);
+        final Response rsp = ConditionalCachingWireTest.get(wire);
+        MatcherAssert.assertThat(
+            "both validators must be sent",
+            sent.get(1),
+            Matchers.hasItems(
+                ConditionalCachingWireTest.header(
+                    HttpHeaders.IF_NONE_MATCH, "W/\"1\""
+                ),
+                ConditionalCachingWireTest.header(
+                    HttpHeaders.IF_MODIFIED_SINCE,
+                    ConditionalCachingWireTest.MODIFIED
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "cached body must be returned",
+            rsp.body(),
+            Matchers.equalTo("1")
+        );
+        MatcherAssert.assertThat(
+            "headers of 304 response must be merged",
+            rsp.headers().get("X-Served"),
+            Matchers.contains("2")
+        );
+    }
+
+    /**
+     * ConditionalCachingWire can refetch when the ETag of 304 response
+     * doesn't match.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void refetchesWhenValidatorDoesNotMatch() throws Exception {
+        final List<Collection<Map.Entry<String, String>>> sent =
+            new CopyOnWriteArrayList<>();
+        final AtomicReference<String> version = new AtomicReference<>("1");
+        final Wire wire = new ConditionalCachingWire(
+            (req, home, method, headers, content, connect, read) -> {
+                sent.add(headers);
+                final Response rsp;
+                if (sent.size() == 2) {
+                    rsp = ConditionalCachingWireTest.response(
+                        req, HttpURLConnection.HTTP_NOT_MODIFIED, "other", 2
+                    );
+                } else {
+                    rsp = ConditionalCachingWireTest.response(
+                        req, HttpURLConnection.HTTP_OK, version.get(),
+                        sent.size()
+                    );
+                }
+                return rsp;
+            }
+        );
+        ConditionalCachingWireTest.get(wire);
+        MatcherAssert.assertThat(
+            "fresh response must be fetched",
+            ConditionalCachingWireTest.get(wire).headers().get("X-Served"),
+            Matchers.contains("3")
+        );
+        MatcherAssert.assertThat(
+            "unconditional request must be sent again",
+            sent.get(2),
+            Matchers.not(
+                Matchers.hasItem(
+                    ConditionalCachingWireTest.header(
+                        HttpHeaders.IF_NONE_MATCH, "W/\"1\""
+                    )
+                )
+            )
+        );
+    }
+
+    /**
+     * ConditionalCachingWire can revalidate in background.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void revalidatesInBackground() throws Exception {
+        final AtomicReference<String> version = new AtomicReference<>("1");
+        final Wire wire = new ConditionalCachingWire(
+            ConditionalCachingWireTest.server(
+                version, new CopyOnWriteArrayList<>()
+            ),
+            true
+        );
+        ConditionalCachingWireTest.get(wire);
+        version.set("2");
+        MatcherAssert.assertThat(
+            "stale response must be returned right away",
+            ConditionalCachingWireTest.get(wire).body(),
+            Matchers.equalTo("1")
+        );
+        final long start = System.currentTimeMillis();
+        String body = ConditionalCachingWireTest.get(wire).body();
+        while ("1".equals(body) && System.currentTimeMillis() - start
+            < TimeUnit.SECONDS.toMillis(10L)) {
+            TimeUnit.MILLISECONDS.sleep(10L);
+            body = ConditionalCachingWireTest.get(wire).body();
+        }
+        MatcherAssert.assertThat(
+            "fresh response must be returned after revalidation",
+            body,
+            Matchers.equalTo("2")
+        );
+    }
+
+    /**
+     * Server with weak ETags, which are versions of the resource.
+     * @param version Current version of the resource
+     * @param sent Headers of all requests received
+     * @return Wire
+     */
+    private static Wire server(final AtomicReference<String> version,
+        final List<Collection<Map.Entry<String, String>>> sent) {
+        return (req, home, method, headers, content, connect, read) -> {
+            sent.add(new ArrayList<>(headers));
+            final Response rsp;
+            if (headers.contains(
+                ConditionalCachingWireTest.header(
+                    HttpHeaders.IF_NONE_MATCH,
+                    String.format("W/\"%s\"", version.get())
+                )
+            )) {
+                rsp = ConditionalCachingWireTest.response(
+                    req, HttpURLConnection.HTTP_NOT_MODIFIED, version.get(),
+                    sent.size()
+                );
+            } else {
+                rsp = ConditionalCachingWireTest.response(
+                    req, HttpURLConnection.HTTP_OK, version.get(), sent.size()
+                );
+            }
+            return rsp;
+        };
+    }
+
+    /**
+     * Response of the server.
+     * @param req Request
+     * @param status Status
+     * @param version Version of the resource
+     * @param served Number of requests served
+     * @return Response
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    private static Response response(final Request req, final int status,
+        final String version, final int served) {
+        final Collection<Map.Entry<String, String>> headers =
+            new ArrayList<>(3);
+        headers.add(
+            ConditionalCachingWireTest.header(
+                HttpHeaders.ETAG, String.format("W/\"%s\"", version)
+            )
+        );
+        headers.add(
+            ConditionalCachingWireTest.header(
+                HttpHeaders.LAST_MODIFIED, ConditionalCachingWireTest.MODIFIED
+            )
+        );
+        headers.add(
+            ConditionalCachingWireTest.header(
+                "X-Served", Integer.toString(served)
+            )
+        );
+        String body = version;
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            body = "";
+        }
+        return new DefaultResponse(
+            req, status, "", new Array<>(headers),
+            body.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Make a GET request through the wire.
+     * @param wire The wire
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response get(final Wire wire) throws IOException {
+        return wire.send(
+            new JdkRequest(ConditionalCachingWireTest.HOME),
+            ConditionalCachingWireTest.HOME, Request.GET,
+            Collections.emptyList(), new ByteArrayInputStream(new byte[0]),
+            0, 0
+        );
+    }
+
+    /**
+     * Make a header.
+     * @param name Name
+     * @param value Value
+     * @return Header
+     */
+    private static Map.Entry<String, String> header(final String name,
+        final String value) {
+        return new AbstractMap.SimpleImmutableEntry<>(name, value);
+    }
+
+}
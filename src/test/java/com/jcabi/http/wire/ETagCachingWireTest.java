@@ -4,7 +4,11 @@
  */
 package com.jcabi.http.wire;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.jcabi.http.Request;
+import com.jcabi.http.Response;
 import com.jcabi.http.mock.MkAnswer;
 import com.jcabi.http.mock.MkContainer;
 import com.jcabi.http.mock.MkGrizzlyContainer;
@@ -13,6 +17,8 @@ import com.jcabi.http.response.RestResponse;
 import jakarta.ws.rs.core.HttpHeaders;
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.util.concurrent.Callable;
+import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 
@@ -87,4 +93,75 @@ final class ETagCachingWireTest {
             .assertBody(Matchers.equalTo(after));
         container.stop();
     }
+
+    /**
+     * ETagCachingWire can evict least recently used entries.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void evictsLeastRecentlyUsedEntries() throws IOException {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple("a").withHeader(HttpHeaders.ETAG, "1"))
+            .next(new MkAnswer.Simple("b").withHeader(HttpHeaders.ETAG, "2"))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_NOT_MODIFIED))
+            .next(new MkAnswer.Simple("c").withHeader(HttpHeaders.ETAG, "3"))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_NOT_MODIFIED))
+            .next(new MkAnswer.Simple("b").withHeader(HttpHeaders.ETAG, "2"))
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(ETagCachingWire.class, 2L, 0L);
+        for (final String path : new String[] {"a", "b", "a", "c", "a", "b"}) {
+            req.uri().path(path).back().fetch();
+        }
+        container.stop();
+        for (int idx = 0; idx < 4; ++idx) {
+            container.take();
+        }
+        MatcherAssert.assertThat(
+            "recently used entry must be revalidated",
+            container.take().headers(),
+            Matchers.hasKey(HttpHeaders.IF_NONE_MATCH)
+        );
+        MatcherAssert.assertThat(
+            "least recently used entry must be evicted",
+            container.take().headers(),
+            Matchers.not(Matchers.hasKey(HttpHeaders.IF_NONE_MATCH))
+        );
+    }
+
+    /**
+     * ETagCachingWire can share its storage with CachingWire.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void sharesStorageWithCachingWire() throws IOException {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple("plain"))
+            .next(
+                new MkAnswer.Simple("tagged").withHeader(HttpHeaders.ETAG, "7")
+            )
+            .start();
+        final LoadingCache<Callable<Response>, Response> storage =
+            CacheBuilder.newBuilder().build(
+                new CacheLoader<Callable<Response>, Response>() {
+                    @Override
+                    public Response load(final Callable<Response> key)
+                        throws Exception {
+                        return key.call();
+                    }
+                }
+            );
+        new JdkRequest(container.home())
+            .through(CachingWire.class, storage)
+            .fetch()
+            .as(RestResponse.class)
+            .assertBody(Matchers.equalTo("plain"));
+        new JdkRequest(container.home())
+            .through(ETagCachingWire.class, storage)
+            .fetch()
+            .as(RestResponse.class)
+            .assertStatus(HttpURLConnection.HTTP_OK)
+            .assertBody(Matchers.equalTo("tagged"));
+        container.stop();
+    }
 }
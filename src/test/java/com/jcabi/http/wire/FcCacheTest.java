@@ -0,0 +1,132 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.immutable.Array;
+import java.io.ByteArrayInputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link FcCache}.
+ * @since 2.0
+ */
+final class FcCacheTest {
+
+    /**
+     * FcCache can fetch every missing entry only once and never show
+     * partial files, when many threads read and write.
+     * @param dir Directory for the cache
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void fetchesOnceUnderConcurrentLoad(@TempDir final Path dir)
+        throws Exception {
+        final FcCache cache = new FcCache(dir.toString());
+        final ConcurrentMap<String, AtomicInteger> fetches =
+            new ConcurrentHashMap<>(0);
+        final Wire wire = (req, home, method, headers, content, cnct, rdd) -> {
+            fetches.computeIfAbsent(home, key -> new AtomicInteger())
+                .incrementAndGet();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5L));
+            return new DefaultResponse(
+                req, HttpURLConnection.HTTP_OK, "OK", new Array<>(),
+                FcCacheTest.body(home)
+            );
+        };
+        final int threads = 16;
+        final ExecutorService service = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Integer>> futures = new ArrayList<>(threads);
+        for (int thread = 0; thread < threads; ++thread) {
+            final int seed = thread;
+            futures.add(
+                service.submit(
+                    () -> {
+                        start.await();
+                        int mismatches = 0;
+                        for (int idx = 0; idx < 200; ++idx) {
+                            final String home = String.format(
+                                "http://localhost/%d", (idx + seed) % 20
+                            );
+                            final Response rsp = cache.get(
+                                String.format("GET %s", home), wire,
+                                new JdkRequest(home), home, Request.GET,
+                                Collections.emptyList(),
+                                new ByteArrayInputStream(new byte[0]), 0, 0
+                            );
+                            if (!Arrays.equals(
+                                rsp.binary(), FcCacheTest.body(home)
+                            )) {
+                                ++mismatches;
+                            }
+                        }
+                        return mismatches;
+                    }
+                )
+            );
+        }
+        start.countDown();
+        for (final Future<Integer> future : futures) {
+            MatcherAssert.assertThat(
+                "every read must see a complete entry",
+                future.get(1L, TimeUnit.MINUTES),
+                Matchers.equalTo(0)
+            );
+        }
+        service.shutdown();
+        MatcherAssert.assertThat(
+            "all entries must be fetched",
+            fetches.size(),
+            Matchers.equalTo(20)
+        );
+        for (final AtomicInteger count : fetches.values()) {
+            MatcherAssert.assertThat(
+                "every entry must be fetched once",
+                count.get(),
+                Matchers.equalTo(1)
+            );
+        }
+    }
+
+    /**
+     * Body for this URI, big enough to be memory-mapped.
+     * @param home The URI
+     * @return Body
+     */
+    private static byte[] body(final String home) {
+        final byte[] line = String.format("%s\n", home)
+            .getBytes(StandardCharsets.UTF_8);
+        final byte[] body = new byte[line.length * 1024];
+        for (int idx = 0; idx < body.length; ++idx) {
+            body[idx] = line[idx % line.length];
+        }
+        return body;
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.immutable.Array;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link FcSegments}.
+ * @since 2.0
+ */
+final class FcSegmentsTest {
+
+    /**
+     * Wire that must never be called.
+     */
+    private static final Wire FAILING =
+        (req, home, method, headers, content, connect, read) -> {
+            throw new IOException("must be served from the store");
+        };
+
+    /**
+     * FcSegments can recover entries and tombstones after restart.
+     * @param dir Directory for the segments
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void recoversEntriesAfterRestart(@TempDir final Path dir)
+        throws Exception {
+        final FcSegments store = new FcSegments(dir, 1L << 20);
+        FcSegmentsTest.get(store, "GET /a", FcSegmentsTest.answer("alpha"));
+        FcSegmentsTest.get(store, "GET /b", FcSegmentsTest.answer("beta"));
+        store.invalidate("/b");
+        final FcSegments reopened = new FcSegments(dir, 1L << 20);
+        MatcherAssert.assertThat(
+            "entry must survive restart",
+            FcSegmentsTest.get(reopened, "GET /a", FcSegmentsTest.FAILING)
+                .body(),
+            Matchers.equalTo("alpha")
+        );
+        MatcherAssert.assertThat(
+            "invalidated entry must stay invalidated",
+            FcSegmentsTest.get(reopened, "GET /b", FcSegmentsTest.answer("new"))
+                .body(),
+            Matchers.equalTo("new")
+        );
+    }
+
+    /**
+     * FcSegments can truncate a record torn by a crash.
+     * @param dir Directory for the segments
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void truncatesTornRecord(@TempDir final Path dir) throws Exception {
+        final FcSegments store = new FcSegments(dir, 1L << 20);
+        FcSegmentsTest.get(store, "GET /x", FcSegmentsTest.answer("intact"));
+        final Path segment = FcSegmentsTest.segments(dir).get(0);
+        final long size = Files.size(segment);
+        Files.write(
+            segment, new byte[] {0x4a, 0x43, 0x52, 0x31, 0, 0, 1, 0, 7},
+            StandardOpenOption.APPEND
+        );
+        final FcSegments reopened = new FcSegments(dir, 1L << 20);
+        MatcherAssert.assertThat(
+            "torn record must be cut off",
+            Files.size(segment),
+            Matchers.equalTo(size)
+        );
+        MatcherAssert.assertThat(
+            "records before the torn one must be kept",
+            FcSegmentsTest.get(reopened, "GET /x", FcSegmentsTest.FAILING)
+                .body(),
+            Matchers.equalTo("intact")
+        );
+    }
+
+    /**
+     * FcSegments can compact dead records away.
+     * @param dir Directory for the segments
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void compactsDeadRecords(@TempDir final Path dir) throws Exception {
+        final FcSegments store = new FcSegments(dir, 512L);
+        for (int idx = 0; idx < 50; ++idx) {
+            FcSegmentsTest.get(
+                store, "GET /keep", FcSegmentsTest.answer("kept")
+            );
+            store.invalidate("/hot");
+            FcSegmentsTest.get(
+                store, "GET /hot", FcSegmentsTest.answer(
+                    String.format("version %d", idx)
+                )
+            );
+        }
+        final int before = FcSegmentsTest.segments(dir).size();
+        store.compact();
+        MatcherAssert.assertThat(
+            "dead segments must be deleted",
+            FcSegmentsTest.segments(dir).size(),
+            Matchers.lessThan(before)
+        );
+        final FcSegments reopened = new FcSegments(dir, 512L);
+        MatcherAssert.assertThat(
+            "latest version must survive compaction",
+            FcSegmentsTest.get(reopened, "GET /hot", FcSegmentsTest.FAILING)
+                .body(),
+            Matchers.equalTo("version 49")
+        );
+        MatcherAssert.assertThat(
+            "live entry must survive compaction",
+            FcSegmentsTest.get(reopened, "GET /keep", FcSegmentsTest.FAILING)
+                .body(),
+            Matchers.equalTo("kept")
+        );
+    }
+
+    /**
+     * Get through the store.
+     * @param store The store
+     * @param label Label of the entry
+     * @param wire Wire to use on miss
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response get(final FcStore store, final String label,
+        final Wire wire) throws IOException {
+        final Request req = new JdkRequest("http://localhost/");
+        return store.get(
+            label, wire, req, "http://localhost/", Request.GET,
+            Collections.emptyList(), new ByteArrayInputStream(new byte[0]),
+            0, 0
+        );
+    }
+
+    /**
+     * Wire that answers with this body.
+     * @param body The body
+     * @return Wire
+     */
+    private static Wire answer(final String body) {
+        return (req, home, method, headers, content, connect, read) ->
+            new DefaultResponse(
+                req, HttpURLConnection.HTTP_OK, "OK", new Array<>(),
+                body.getBytes(StandardCharsets.UTF_8)
+            );
+    }
+
+    /**
+     * Segment files in the directory.
+     * @param dir The directory
+     * @return Files
+     * @throws IOException If fails
+     */
+    private static List<Path> segments(final Path dir)
+        throws IOException {
+        final List<Path> files = new ArrayList<>(0);
+        try (DirectoryStream<Path> stream =
+            Files.newDirectoryStream(dir, "*.seg")) {
+            for (final Path file : stream) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link FcUsage}.
+ * @since 2.0
+ */
+final class FcUsageTest {
+
+    /**
+     * FcUsage can evict least recently read files first.
+     * @param dir Directory with files
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void evictsLeastRecentlyReadFiles(@TempDir final Path dir)
+        throws Exception {
+        final FcUsage usage = new FcUsage(dir, 250L, 0L);
+        final Path first = FcUsageTest.file(usage, dir.resolve("a.bin"));
+        final Path second = FcUsageTest.file(usage, dir.resolve("b.bin"));
+        final Path third = FcUsageTest.file(usage, dir.resolve("c.bin"));
+        TimeUnit.MILLISECONDS.sleep(10L);
+        usage.accessed(first);
+        usage.evict();
+        MatcherAssert.assertThat(
+            "least recently read file must be evicted",
+            Files.exists(second),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            "recently read file must be kept",
+            Files.exists(first) && Files.exists(third),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            "usage must be tracked",
+            usage.size(),
+            Matchers.equalTo(200L)
+        );
+    }
+
+    /**
+     * FcUsage can evict files older than TTL.
+     * @param dir Directory with files
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void evictsExpiredFiles(@TempDir final Path dir) throws Exception {
+        final FcUsage usage = new FcUsage(dir, 0L, 1L);
+        final Path file = FcUsageTest.file(usage, dir.resolve("x.bin"));
+        MatcherAssert.assertThat(
+            "fresh file must not expire",
+            usage.expired(file),
+            Matchers.is(false)
+        );
+        TimeUnit.MILLISECONDS.sleep(1100L);
+        MatcherAssert.assertThat(
+            "old file must expire",
+            usage.expired(file),
+            Matchers.is(true)
+        );
+        usage.evict();
+        MatcherAssert.assertThat(
+            "expired file must be deleted",
+            Files.exists(file),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * FcUsage can forget deleted files and directories.
+     * @param dir Directory with files
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void forgetsDeletedFilesAndDirectories(@TempDir final Path dir)
+        throws Exception {
+        final FcUsage usage = new FcUsage(dir, 1000L, 0L);
+        final Path sub = Files.createDirectory(dir.resolve("sub"));
+        final Path file = FcUsageTest.file(usage, dir.resolve("x.bin"));
+        FcUsageTest.file(usage, sub.resolve("y.bin"));
+        FcUsageTest.file(usage, sub.resolve("z.bin"));
+        usage.deleted(file);
+        MatcherAssert.assertThat(
+            "deleted file must be forgotten",
+            usage.size(),
+            Matchers.equalTo(200L)
+        );
+        usage.deleted(sub);
+        MatcherAssert.assertThat(
+            "files of deleted directory must be forgotten",
+            usage.size(),
+            Matchers.equalTo(0L)
+        );
+    }
+
+    /**
+     * FcUsage can refuse to open a directory again with other limits.
+     * @param dir Directory with files
+     */
+    @Test
+    void refusesToOpenWithOtherLimits(@TempDir final Path dir) {
+        FcUsage.open(dir.toString(), 1000L, 0L);
+        FcUsage.open(dir.toString(), 1000L, 0L);
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> FcUsage.open(dir.toString(), 0L, 0L)
+        );
+    }
+
+    /**
+     * FcUsage can open a directory with limits after it was opened
+     * without them.
+     * @param dir Directory with files
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void opensWithLimitsAfterOpenWithout(@TempDir final Path dir)
+        throws Exception {
+        FcUsageTest.file(
+            FcUsage.open(dir.toString(), 0L, 0L), dir.resolve("free.bin")
+        );
+        MatcherAssert.assertThat(
+            "files must be found when opened with limits",
+            FcUsage.open(dir.toString(), 1000L, 0L).size(),
+            // @checkstyle MagicNumber (1 line)
+            Matchers.equalTo(100L)
+        );
+    }
+
+    /**
+     * Make a file of 100 bytes and track it.
+     * @param usage Usage to track it in
+     * @param file The file
+     * @return The file
+     * @throws Exception If something goes wrong inside
+     */
+    private static Path file(final FcUsage usage, final Path file)
+        throws Exception {
+        Files.write(file, new byte[100]);
+        usage.written(file, Files.size(file));
+        TimeUnit.MILLISECONDS.sleep(10L);
+        return file;
+    }
+
+}
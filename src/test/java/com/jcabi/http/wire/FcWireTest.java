@@ -10,10 +10,17 @@ import com.jcabi.http.mock.MkContainer;
 import com.jcabi.http.mock.MkGrizzlyContainer;
 import com.jcabi.http.request.JdkRequest;
 import com.jcabi.http.response.RestResponse;
+import com.jcabi.immutable.Array;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Test case for {@link FcWire}.
@@ -92,4 +99,187 @@ final class FcWireTest {
         );
     }
 
+    /**
+     * FcWire can flush only the entries below the captured path.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void flushesOnlyEntriesBelowCapturedPath() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple("user"))
+            .next(new MkAnswer.Simple("photos"))
+            .next(new MkAnswer.Simple("other"))
+            .next(new MkAnswer.Simple(""))
+            .next(new MkAnswer.Simple("user again"))
+            .next(new MkAnswer.Simple("photos again"))
+            .start();
+        final Request req = new JdkRequest(container.home()).through(
+            FcWire.class, "POST (?<path>/users/[^/?]+).*"
+        );
+        req.uri().path("/users/42").back().fetch();
+        req.uri().path("/users/42/photos").back().fetch();
+        req.uri().path("/users/420").back().fetch();
+        req.method(Request.POST).uri().path("/users/42").back().fetch();
+        req.uri().path("/users/42").back().fetch()
+            .as(RestResponse.class)
+            .assertBody(Matchers.equalTo("user again"));
+        req.uri().path("/users/42/photos").back().fetch()
+            .as(RestResponse.class)
+            .assertBody(Matchers.equalTo("photos again"));
+        req.uri().path("/users/420").back().fetch()
+            .as(RestResponse.class)
+            .assertBody(Matchers.equalTo("other"));
+        container.stop();
+        MatcherAssert.assertThat(
+            "only entries below the path must be flushed",
+            container.queries(),
+            Matchers.equalTo(6)
+        );
+    }
+
+    /**
+     * FcWire can keep binary bodies intact, small and large ones.
+     * @param dir Directory for the cache
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void keepsBinaryBodiesIntact(@TempDir final Path dir) throws Exception {
+        final byte[] small = {(byte) 0xff, 0, (byte) 0xc3, 0x28, '\n'};
+        final byte[] large = new byte[100_000];
+        for (int idx = 0; idx < large.length; ++idx) {
+            large[idx] = (byte) (idx * 31);
+        }
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK,
+                    new Array<Map.Entry<String, String>>(), small
+                )
+            )
+            .next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK,
+                    new Array<Map.Entry<String, String>>(), large
+                )
+            )
+            .start();
+        final Request req = new JdkRequest(container.home()).through(
+            FcWire.class, "$never", dir.toString()
+        );
+        for (int idx = 0; idx < 2; ++idx) {
+            MatcherAssert.assertThat(
+                "small binary body must be cached intact",
+                req.uri().path("small").back().fetch().binary(),
+                Matchers.equalTo(small)
+            );
+            MatcherAssert.assertThat(
+                "large binary body must be cached intact",
+                req.uri().path("large").back().fetch().binary(),
+                Matchers.equalTo(large)
+            );
+        }
+        container.stop();
+        MatcherAssert.assertThat(
+            "should be equal 2",
+            container.queries(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    /**
+     * FcWire can read and convert entries saved in JSON format.
+     * @param dir Directory for the cache
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void readsEntriesInJsonFormat(@TempDir final Path dir) throws Exception {
+        final Path json = dir.resolve("GET_").resolve("_2F.json");
+        Files.createDirectories(json.getParent());
+        Files.write(
+            json,
+            String.join(
+                "",
+                "{\"status\":200,\"reason\":\"OK\",",
+                "\"headers\":{\"X-Old\":[\"yes\"]},",
+                "\"body\":\"from json\"}"
+            ).getBytes(StandardCharsets.UTF_8)
+        );
+        final MkContainer container = new MkGrizzlyContainer().start();
+        final Request req = new JdkRequest(container.home()).through(
+            FcWire.class, "$never", dir.toString()
+        );
+        for (int idx = 0; idx < 2; ++idx) {
+            req.fetch().as(RestResponse.class)
+                .assertStatus(HttpURLConnection.HTTP_OK)
+                .assertHeader("X-Old", "yes")
+                .assertBody(Matchers.equalTo("from json"));
+        }
+        container.stop();
+        MatcherAssert.assertThat(
+            "JSON entry must be converted",
+            Files.exists(json.resolveSibling("_2F.bin")),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            "should be equal 0",
+            container.queries(),
+            Matchers.equalTo(0)
+        );
+    }
+
+    /**
+     * FcWire can cache GET requests in segment files.
+     * @param dir Directory for the segments
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void cachesGetRequestInSegments(@TempDir final Path dir)
+        throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple("first"))
+            .next(new MkAnswer.Simple("second"))
+            .start();
+        final Request req = new JdkRequest(container.home()).through(
+            FcWire.class, "POST (?<path>/[^/?]+).*", dir.toString(), 1L << 20
+        );
+        for (int idx = 0; idx < 5; ++idx) {
+            req.uri().path("/item").back().fetch().as(RestResponse.class)
+                .assertBody(Matchers.equalTo("first"));
+        }
+        req.method(Request.POST).uri().path("/item").back().fetch();
+        container.stop();
+        MatcherAssert.assertThat(
+            "should be equal 2",
+            container.queries(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    /**
+     * FcWire can evict files in background, when they are too big.
+     * @param dir Directory for the cache
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void evictsFilesAboveMaximumSize(@TempDir final Path dir)
+        throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple("first"))
+            .next(new MkAnswer.Simple("second"))
+            .start();
+        final Request req = new JdkRequest(container.home()).through(
+            FcWire.class, "$never", dir.toString(), 1L, 0L
+        );
+        req.fetch();
+        final long start = System.currentTimeMillis();
+        while (Files.exists(dir.resolve("GET_").resolve("_2F.bin"))
+            && System.currentTimeMillis() - start
+            < TimeUnit.SECONDS.toMillis(10L)) {
+            TimeUnit.MILLISECONDS.sleep(10L);
+        }
+        req.fetch().as(RestResponse.class)
+            .assertBody(Matchers.equalTo("second"));
+        container.stop();
+    }
+
 }
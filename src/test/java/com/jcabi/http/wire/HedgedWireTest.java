@@ -0,0 +1,102 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.http.response.RestResponse;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link HedgedWire}.
+ * @since 2.0
+ */
+final class HedgedWireTest {
+
+    /**
+     * HedgedWire can send a second copy of a slow request.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void sendsHedgeWhenSlow() throws IOException {
+        final HedgedWire wire = new HedgedWire(
+            // @checkstyle MagicNumber (1 line)
+            new SlowWire(HttpURLConnection.HTTP_OK, 1, 10_000L), 50L
+        );
+        final long start = System.nanoTime();
+        new JdkRequest("http://localhost/hedged").through(wire)
+            .fetch()
+            .as(RestResponse.class)
+            .assertStatus(HttpURLConnection.HTTP_OK);
+        MatcherAssert.assertThat(
+            "slow request must not be waited for",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+            // @checkstyle MagicNumber (1 line)
+            Matchers.lessThan(5000L)
+        );
+        MatcherAssert.assertThat(
+            "hedge must be counted",
+            new long[] {wire.hedged(), wire.won()},
+            Matchers.equalTo(new long[] {1L, 1L})
+        );
+    }
+
+    /**
+     * HedgedWire can send requests other than GET only once.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void doesNotHedgeUnsafeRequests() throws IOException {
+        final SlowWire origin = new SlowWire(
+            // @checkstyle MagicNumber (1 line)
+            HttpURLConnection.HTTP_OK, 1, 100L
+        );
+        new JdkRequest("http://localhost/unsafe")
+            .through(new HedgedWire(origin, 1L))
+            .method(Request.POST)
+            .fetch();
+        MatcherAssert.assertThat(
+            "POST must be sent once",
+            origin.calls(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * HedgedWire can take its threshold from latencies.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void takesThresholdFromLatencies() throws IOException {
+        final HedgedWire wire = new HedgedWire(
+            new SlowWire(HttpURLConnection.HTTP_OK, 0, 0L),
+            // @checkstyle MagicNumber (1 line)
+            60_000L, 50, 5
+        );
+        final Request req = new JdkRequest("http://localhost/fast")
+            .through(wire);
+        // @checkstyle MagicNumber (1 line)
+        for (int idx = 0; idx < 128; ++idx) {
+            req.fetch();
+        }
+        MatcherAssert.assertThat(
+            "threshold must be the median of latencies",
+            wire.threshold(),
+            // @checkstyle MagicNumber (1 line)
+            Matchers.lessThan(1000L)
+        );
+        MatcherAssert.assertThat(
+            "fast requests must not be hedged",
+            wire.hedged(),
+            Matchers.equalTo(0L)
+        );
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.http.response.RestResponse;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link NegativeCachingWire}.
+ * @since 2.0
+ */
+final class NegativeCachingWireTest {
+
+    /**
+     * NegativeCachingWire can cache responses of missing resources.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void cachesMissingResources() throws IOException {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_NOT_FOUND))
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(NegativeCachingWire.class);
+        for (int idx = 0; idx < 3; ++idx) {
+            req.fetch()
+                .as(RestResponse.class)
+                .assertStatus(HttpURLConnection.HTTP_NOT_FOUND);
+        }
+        container.stop();
+        MatcherAssert.assertThat(
+            "only one request must reach the server",
+            container.queries(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * NegativeCachingWire can ignore statuses it's not told to cache.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void ignoresOtherStatuses() throws IOException {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_NOT_FOUND))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_NOT_FOUND))
+            .start();
+        final Request req = new JdkRequest(container.home()).through(
+            NegativeCachingWire.class,
+            // @checkstyle MagicNumber (1 line)
+            10L, 10L, new int[] {HttpURLConnection.HTTP_GONE}
+        );
+        req.fetch();
+        req.fetch();
+        container.stop();
+        MatcherAssert.assertThat(
+            "all requests must reach the server",
+            container.queries(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    /**
+     * NegativeCachingWire can forget the missing resource once it's
+     * created.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void forgetsResourceOnceCreated() throws IOException {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_NOT_FOUND))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_CREATED))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK))
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(NegativeCachingWire.class);
+        req.fetch();
+        req.method(Request.PUT).fetch()
+            .as(RestResponse.class)
+            .assertStatus(HttpURLConnection.HTTP_CREATED);
+        req.fetch()
+            .as(RestResponse.class)
+            .assertStatus(HttpURLConnection.HTTP_OK);
+        container.stop();
+    }
+
+}
@@ -0,0 +1,218 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.http.request.FakeRequest;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.immutable.Array;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link OffHeapWire}.
+ * @since 2.0
+ */
+final class OffHeapWireTest {
+
+    /**
+     * OffHeapWire can keep cached bodies intact.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void keepsCachedBodiesIntact() throws Exception {
+        // @checkstyle MagicNumber (1 line)
+        final byte[] body = OffHeapWireTest.bytes(5000);
+        try (MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK, new Array<>(), body
+                )
+            )
+            .start()) {
+            final Request req = new JdkRequest(container.home())
+                .through(OffHeapWire.class)
+                .through(CachingWire.class);
+            for (int idx = 0; idx < 3; ++idx) {
+                MatcherAssert.assertThat(
+                    "cached body must be the same as received",
+                    req.fetch().binary(),
+                    Matchers.equalTo(body)
+                );
+            }
+            MatcherAssert.assertThat(
+                "only one request must reach the server",
+                container.queries(),
+                Matchers.equalTo(1)
+            );
+        }
+    }
+
+    /**
+     * OffHeapWire can reuse memory of unreachable responses.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void reusesMemoryOfUnreachableResponses() throws Exception {
+        // @checkstyle MagicNumber (2 lines)
+        final byte[] body = OffHeapWireTest.bytes(2000);
+        final OffHeapWire wire = new OffHeapWire(
+            (req, home, method, headers, content, connect, read) ->
+                new DefaultResponse(
+                    req, HttpURLConnection.HTTP_OK, "OK",
+                    new Array<>(), body
+                ),
+            8L << 10
+        );
+        final List<Response> responses = new ArrayList<>(5);
+        for (int idx = 0; idx < 5; ++idx) {
+            responses.add(OffHeapWireTest.get(wire));
+        }
+        MatcherAssert.assertThat(
+            "only four bodies must fit into the memory",
+            wire.bodies(),
+            Matchers.equalTo(4)
+        );
+        for (final Response rsp : responses) {
+            MatcherAssert.assertThat(
+                "body must be intact, on heap or off",
+                rsp.binary(),
+                Matchers.equalTo(body)
+            );
+        }
+        responses.clear();
+        final long start = System.nanoTime();
+        while (wire.bodies() > 0
+            && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10L)) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(10L);
+        }
+        MatcherAssert.assertThat(
+            "memory of unreachable responses must be released",
+            wire.bodies(),
+            Matchers.equalTo(0)
+        );
+        MatcherAssert.assertThat(
+            "memory must be reused",
+            OffHeapWireTest.get(wire).binary(),
+            Matchers.equalTo(body)
+        );
+        MatcherAssert.assertThat(
+            "no more memory must be allocated",
+            wire.allocated(),
+            Matchers.equalTo(8L << 10)
+        );
+    }
+
+    /**
+     * OffHeapWire can keep bodies intact while they are read and
+     * the garbage collector reuses memory of other responses.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void keepsBodiesIntactWhileCollectingGarbage() throws Exception {
+        // @checkstyle MagicNumber (3 lines)
+        final byte[] body = OffHeapWireTest.bytes(2000);
+        final byte[] other = new byte[body.length];
+        Arrays.fill(other, (byte) 0x7f);
+        final OffHeapWire wire = new OffHeapWire(
+            (req, home, method, headers, content, connect, read) ->
+                new DefaultResponse(
+                    req, HttpURLConnection.HTTP_OK, "OK", new Array<>(),
+                    home.endsWith("other") ? other : body
+                ),
+            4L << 10
+        );
+        final AtomicBoolean done = new AtomicBoolean();
+        final ExecutorService service = Executors.newSingleThreadExecutor();
+        final Future<?> collector = service.submit(
+            () -> {
+                while (!done.get()) {
+                    System.gc();
+                    OffHeapWireTest.get(wire, "http://localhost/other");
+                }
+                return null;
+            }
+        );
+        int broken = 0;
+        try {
+            // @checkstyle MagicNumber (1 line)
+            for (int idx = 0; idx < 2000; ++idx) {
+                if (!Arrays.equals(
+                    OffHeapWireTest.get(wire).binary(), body
+                )) {
+                    ++broken;
+                }
+            }
+        } finally {
+            done.set(true);
+            collector.get();
+            service.shutdown();
+        }
+        MatcherAssert.assertThat(
+            "bodies must not be overwritten while they are read",
+            broken,
+            Matchers.equalTo(0)
+        );
+    }
+
+    /**
+     * Make a GET request through the wire.
+     * @param wire The wire
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response get(final OffHeapWire wire) throws IOException {
+        return OffHeapWireTest.get(wire, "http://localhost/offheap");
+    }
+
+    /**
+     * Make a GET request through the wire.
+     * @param wire The wire
+     * @param home URI to fetch
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response get(final OffHeapWire wire, final String home)
+        throws IOException {
+        return wire.send(
+            new FakeRequest(), home, Request.GET,
+            Collections.emptyList(), new ByteArrayInputStream(new byte[0]),
+            0, 0
+        );
+    }
+
+    /**
+     * Bytes of all values.
+     * @param length How many of them
+     * @return Bytes
+     */
+    private static byte[] bytes(final int length) {
+        final byte[] bytes = new byte[length];
+        for (int idx = 0; idx < length; ++idx) {
+            bytes[idx] = (byte) idx;
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.JdkRequest;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link RateLimitingWire}.
+ * @since 2.0
+ */
+final class RateLimitingWireTest {
+
+    /**
+     * RateLimitingWire can fail fast when there are no tokens.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void failsFastWithoutTokens() throws IOException {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK))
+            .start();
+        final Request req = new JdkRequest(container.home()).through(
+            // @checkstyle MagicNumber (1 line)
+            RateLimitingWire.class, 2, 60_000L, 0L
+        );
+        req.fetch();
+        req.fetch();
+        Assertions.assertThrows(IOException.class, req::fetch);
+        container.stop();
+        MatcherAssert.assertThat(
+            "rejected request must not reach the server",
+            container.queries(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    /**
+     * RateLimitingWire can wait for the next token.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void waitsForToken() throws IOException {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK))
+            .start();
+        final Request req = new JdkRequest(container.home()).through(
+            // @checkstyle MagicNumber (1 line)
+            RateLimitingWire.class, 1, 200L
+        );
+        final long start = System.nanoTime();
+        req.fetch();
+        req.fetch();
+        container.stop();
+        MatcherAssert.assertThat(
+            "second request must wait for the token",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+            // @checkstyle MagicNumber (1 line)
+            Matchers.greaterThanOrEqualTo(150L)
+        );
+    }
+
+    /**
+     * RateLimitingWire can follow the quota reported by the server.
+     * @throws IOException If something goes wrong inside
+     */
+    @Test
+    void followsQuotaOfServer() throws IOException {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(HttpURLConnection.HTTP_OK)
+                    .withHeader("X-RateLimit-Remaining", "0")
+                    .withHeader("X-RateLimit-Reset", "60")
+            )
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK))
+            .start();
+        final Request req = new JdkRequest(container.home()).through(
+            // @checkstyle MagicNumber (1 line)
+            RateLimitingWire.class, 100, 1000L, 0L
+        );
+        req.fetch();
+        Assertions.assertThrows(IOException.class, req::fetch);
+        container.stop();
+        MatcherAssert.assertThat(
+            "server must not be asked again before the reset",
+            container.queries(),
+            Matchers.equalTo(1)
+        );
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Replayable}.
+ * @since 2.0
+ */
+final class ReplayableTest {
+
+    /**
+     * Replayable can read a stream again, from a temporary file.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void readsStreamAgainFromFile() throws Exception {
+        final String text = "the body of the request";
+        final Replayable body = new Replayable(
+            ReplayableTest.stream(text), 4L, true
+        );
+        try {
+            MatcherAssert.assertThat(
+                "first half must be read",
+                ReplayableTest.read(body, 8),
+                Matchers.equalTo("the body")
+            );
+            MatcherAssert.assertThat(
+                "stream must be rewound",
+                body.rewind(),
+                Matchers.is(true)
+            );
+            MatcherAssert.assertThat(
+                "whole stream must be read again",
+                ReplayableTest.read(body, Integer.MAX_VALUE),
+                Matchers.equalTo(text)
+            );
+            body.rewind();
+            MatcherAssert.assertThat(
+                "whole stream must be read once more",
+                ReplayableTest.read(body, Integer.MAX_VALUE),
+                Matchers.equalTo(text)
+            );
+        } finally {
+            body.release();
+        }
+    }
+
+    /**
+     * Replayable can refuse to read a long stream again without
+     * a temporary file.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void refusesToReadLongStreamAgain() throws Exception {
+        final String text = "too long to be kept in memory";
+        final Replayable body = new Replayable(
+            ReplayableTest.stream(text), 4L, false
+        );
+        MatcherAssert.assertThat(
+            "stream must be read",
+            ReplayableTest.read(body, Integer.MAX_VALUE),
+            Matchers.equalTo(text)
+        );
+        MatcherAssert.assertThat(
+            "stream must not be rewound",
+            body.rewind(),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Replayable can read an array again without recording it.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void readsArrayAgain() throws Exception {
+        final Replayable body = new Replayable(
+            new ByteArrayInputStream("array".getBytes(StandardCharsets.UTF_8)),
+            0L, false
+        );
+        ReplayableTest.read(body, Integer.MAX_VALUE);
+        body.rewind();
+        MatcherAssert.assertThat(
+            "array must be read again",
+            ReplayableTest.read(body, Integer.MAX_VALUE),
+            Matchers.equalTo("array")
+        );
+    }
+
+    /**
+     * Stream of the text, which can't be read again by itself.
+     * @param text The text
+     * @return Stream
+     */
+    private static InputStream stream(final String text) {
+        return new BufferedInputStream(
+            new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)),
+            2
+        );
+    }
+
+    /**
+     * Read bytes from the stream.
+     * @param stream The stream
+     * @param max Maximum number of bytes to read
+     * @return Text read
+     * @throws IOException If fails
+     */
+    private static String read(final InputStream stream, final int max)
+        throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buf = new byte[3];
+        int read = 0;
+        while (read < max) {
+            final int len = stream.read(
+                buf, 0, Math.min(buf.length, max - read)
+            );
+            if (len < 0) {
+                break;
+            }
+            out.write(buf, 0, len);
+            read += len;
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+}
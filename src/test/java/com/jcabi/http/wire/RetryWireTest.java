@@ -4,12 +4,33 @@
  */
 package com.jcabi.http.wire;
 
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
 import com.jcabi.http.mock.MkAnswer;
 import com.jcabi.http.mock.MkContainer;
 import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.DefaultResponse;
 import com.jcabi.http.request.JdkRequest;
 import com.jcabi.http.response.RestResponse;
+import com.jcabi.immutable.Array;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.IOUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -38,4 +59,189 @@ final class RetryWireTest {
             .assertStatus(HttpURLConnection.HTTP_OK);
         container.stop();
     }
+
+    /**
+     * RetryWire can leave requests that are not idempotent alone.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void doesNotRetryUnsafeRequests() throws Exception {
+        final AtomicInteger served = new AtomicInteger();
+        MatcherAssert.assertThat(
+            "response must be returned as it is",
+            RetryWireTest.send(
+                new RetryWire(
+                    RetryWireTest.server(
+                        served, HttpURLConnection.HTTP_INTERNAL_ERROR,
+                        Collections.emptyList()
+                    )
+                ),
+                Request.POST
+            ).status(),
+            Matchers.equalTo(HttpURLConnection.HTTP_INTERNAL_ERROR)
+        );
+        MatcherAssert.assertThat(
+            "request must not be retried",
+            served.get(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * RetryWire can wait as long as Retry-After says.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void waitsForRetryAfter() throws Exception {
+        final List<Long> times = new CopyOnWriteArrayList<>();
+        final Wire wire = new RetryWire(
+            (req, home, method, headers, content, connect, read) -> {
+                times.add(System.nanoTime());
+                int status = HttpURLConnection.HTTP_OK;
+                if (times.size() == 1) {
+                    status = HttpURLConnection.HTTP_UNAVAILABLE;
+                }
+                return RetryWireTest.response(
+                    req, status,
+                    Collections.singletonList(
+                        new AbstractMap.SimpleImmutableEntry<>(
+                            "Retry-After", "1"
+                        )
+                    )
+                );
+            },
+            // @checkstyle MagicNumber (1 line)
+            3, 1L, 5000L
+        );
+        MatcherAssert.assertThat(
+            "request must succeed on retry",
+            RetryWireTest.send(wire, Request.GET).status(),
+            Matchers.equalTo(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(
+            "retry must wait for a second",
+            TimeUnit.NANOSECONDS.toMillis(times.get(1) - times.get(0)),
+            // @checkstyle MagicNumber (1 line)
+            Matchers.greaterThanOrEqualTo(990L)
+        );
+    }
+
+    /**
+     * RetryWire can stop retrying when its budget is empty.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void stopsRetryingWhenBudgetIsEmpty() throws Exception {
+        final AtomicInteger served = new AtomicInteger();
+        final Wire wire = new RetryWire(
+            RetryWireTest.server(
+                served, HttpURLConnection.HTTP_BAD_GATEWAY,
+                Collections.emptyList()
+            ),
+            2, 0L, 0L, false, 0
+        );
+        final Collection<Integer> statuses = new ArrayList<>(0);
+        // @checkstyle MagicNumber (1 line)
+        for (int idx = 0; idx < 12; ++idx) {
+            try {
+                statuses.add(RetryWireTest.send(wire, Request.GET).status());
+            } catch (final IOException ex) {
+                statuses.add(0);
+            }
+        }
+        MatcherAssert.assertThat(
+            "responses must be returned once the budget is empty",
+            statuses,
+            Matchers.hasItem(HttpURLConnection.HTTP_BAD_GATEWAY)
+        );
+        MatcherAssert.assertThat(
+            "only ten retries must be made",
+            served.get(),
+            // @checkstyle MagicNumber (1 line)
+            Matchers.equalTo(22)
+        );
+    }
+
+    /**
+     * RetryWire can send the body again on every retry.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void sendsBodyAgain() throws Exception {
+        final List<String> bodies = new CopyOnWriteArrayList<>();
+        final Wire wire = new RetryWire(
+            (req, home, method, headers, content, connect, read) -> {
+                bodies.add(IOUtils.toString(content, StandardCharsets.UTF_8));
+                int status = HttpURLConnection.HTTP_OK;
+                if (bodies.size() == 1) {
+                    status = HttpURLConnection.HTTP_INTERNAL_ERROR;
+                }
+                return RetryWireTest.response(
+                    req, status, Collections.emptyList()
+                );
+            },
+            2, 0L, 0L
+        );
+        final String home = "http://localhost/retry";
+        wire.send(
+            new JdkRequest(home), home, Request.PUT, Collections.emptyList(),
+            new BufferedInputStream(
+                new ByteArrayInputStream(
+                    "payload".getBytes(StandardCharsets.UTF_8)
+                )
+            ),
+            0, 0
+        );
+        MatcherAssert.assertThat(
+            "body must be sent twice",
+            bodies,
+            Matchers.contains("payload", "payload")
+        );
+    }
+
+    /**
+     * Server responding with this status.
+     * @param served Number of requests served
+     * @param status The status
+     * @param headers Headers of the response
+     * @return Wire
+     */
+    private static Wire server(final AtomicInteger served, final int status,
+        final Collection<Map.Entry<String, String>> headers) {
+        return (req, home, method, hdrs, content, connect, read) -> {
+            served.incrementAndGet();
+            return RetryWireTest.response(req, status, headers);
+        };
+    }
+
+    /**
+     * Response with this status.
+     * @param req Request
+     * @param status The status
+     * @param headers Headers of the response
+     * @return Response
+     */
+    private static Response response(final Request req, final int status,
+        final Collection<Map.Entry<String, String>> headers) {
+        return new DefaultResponse(
+            req, status, "", new Array<>(headers), new byte[0]
+        );
+    }
+
+    /**
+     * Make a request through the wire.
+     * @param wire The wire
+     * @param method HTTP method
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response send(final Wire wire, final String method)
+        throws IOException {
+        final String home = "http://localhost/retry";
+        return wire.send(
+            new JdkRequest(home), home, method, Collections.emptyList(),
+            new ByteArrayInputStream(new byte[0]), 0, 0
+        );
+    }
+
 }
@@ -0,0 +1,356 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.http.response.RestResponse;
+import jakarta.ws.rs.core.HttpHeaders;
+import java.net.HttpURLConnection;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link RfcCachingWire}.
+ * @since 2.0
+ */
+final class RfcCachingWireTest {
+
+    /**
+     * RfcCachingWire can serve fresh response without network calls.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void servesFreshResponseFromCache() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer().next(
+            new MkAnswer.Simple("fresh")
+                .withHeader(HttpHeaders.CACHE_CONTROL, "max-age=60")
+        ).start();
+        final Request req = new JdkRequest(container.home())
+            .through(RfcCachingWire.class);
+        for (int idx = 0; idx < 5; ++idx) {
+            req.fetch().as(RestResponse.class)
+                .assertStatus(HttpURLConnection.HTTP_OK)
+                .assertBody(Matchers.equalTo("fresh"));
+        }
+        container.stop();
+        MatcherAssert.assertThat(
+            "fresh response must be served from the cache",
+            container.queries(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * RfcCachingWire can revalidate stale response conditionally.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void revalidatesStaleResponse() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple("stale")
+                    .withHeader(HttpHeaders.CACHE_CONTROL, "max-age=0")
+                    .withHeader(HttpHeaders.ETAG, "\"v1\"")
+            )
+            .next(
+                new MkAnswer.Simple("")
+                    .withStatus(HttpURLConnection.HTTP_NOT_MODIFIED)
+                    .withHeader(HttpHeaders.CACHE_CONTROL, "max-age=60")
+            )
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(RfcCachingWire.class);
+        for (int idx = 0; idx < 3; ++idx) {
+            req.fetch().as(RestResponse.class)
+                .assertStatus(HttpURLConnection.HTTP_OK)
+                .assertBody(Matchers.equalTo("stale"));
+        }
+        container.stop();
+        MatcherAssert.assertThat(
+            "refreshed response must be fresh",
+            container.queries(),
+            Matchers.equalTo(2)
+        );
+        container.take();
+        MatcherAssert.assertThat(
+            "revalidation must be conditional",
+            container.take().headers(),
+            Matchers.hasEntry(
+                Matchers.equalToIgnoringCase(HttpHeaders.IF_NONE_MATCH),
+                Matchers.contains("\"v1\"")
+            )
+        );
+    }
+
+    /**
+     * RfcCachingWire can take Age header into account.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void takesAgeIntoAccount() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple("old")
+                    .withHeader(HttpHeaders.CACHE_CONTROL, "max-age=60")
+                    .withHeader("Age", "120")
+            )
+            .next(new MkAnswer.Simple("new"))
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(RfcCachingWire.class);
+        req.fetch();
+        req.fetch().as(RestResponse.class)
+            .assertBody(Matchers.equalTo("new"));
+        container.stop();
+        MatcherAssert.assertThat(
+            "response older than max-age must be fetched again",
+            container.queries(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    /**
+     * RfcCachingWire can use Expires header.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void usesExpiresHeader() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer().next(
+            new MkAnswer.Simple("expires").withHeader(
+                HttpHeaders.EXPIRES,
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                    ZonedDateTime.now(ZoneOffset.UTC).plusHours(1L)
+                )
+            )
+        ).start();
+        final Request req = new JdkRequest(container.home())
+            .through(RfcCachingWire.class);
+        req.fetch();
+        req.fetch();
+        container.stop();
+        MatcherAssert.assertThat(
+            "response must be fresh until it expires",
+            container.queries(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * RfcCachingWire can refuse to store no-store responses.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void doesNotStoreNoStoreResponse() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple("secret").withHeader(
+                    HttpHeaders.CACHE_CONTROL, "no-store, max-age=60"
+                )
+            )
+            .next(new MkAnswer.Simple("secret"))
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(RfcCachingWire.class);
+        req.fetch();
+        req.fetch();
+        container.stop();
+        MatcherAssert.assertThat(
+            "no-store response must not be cached",
+            container.queries(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    /**
+     * RfcCachingWire can refuse to store private responses in a shared
+     * cache, and use s-maxage there.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void respectsSharedCacheDirectives() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple("private").withHeader(
+                    HttpHeaders.CACHE_CONTROL, "private, max-age=60"
+                )
+            )
+            .next(
+                new MkAnswer.Simple("public").withHeader(
+                    HttpHeaders.CACHE_CONTROL, "max-age=0, s-maxage=60"
+                )
+            )
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(RfcCachingWire.class, true);
+        req.fetch().as(RestResponse.class)
+            .assertBody(Matchers.equalTo("private"));
+        req.fetch().as(RestResponse.class)
+            .assertBody(Matchers.equalTo("public"));
+        req.fetch().as(RestResponse.class)
+            .assertBody(Matchers.equalTo("public"));
+        container.stop();
+        MatcherAssert.assertThat(
+            "s-maxage response must be served from shared cache",
+            container.queries(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    /**
+     * RfcCachingWire can serve stale response when server fails.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void servesStaleResponseOnError() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple("saved").withHeader(
+                    HttpHeaders.CACHE_CONTROL, "max-age=0, stale-if-error=60"
+                )
+            )
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_UNAVAILABLE))
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(RfcCachingWire.class);
+        req.fetch();
+        req.fetch().as(RestResponse.class)
+            .assertStatus(HttpURLConnection.HTTP_OK)
+            .assertBody(Matchers.equalTo("saved"));
+        container.stop();
+    }
+
+    /**
+     * RfcCachingWire can serve stale response while revalidating it
+     * in background.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void servesStaleWhileRevalidating() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple("first").withHeader(
+                    HttpHeaders.CACHE_CONTROL,
+                    "max-age=0, stale-while-revalidate=60"
+                )
+            )
+            .next(
+                new MkAnswer.Simple("second").withHeader(
+                    HttpHeaders.CACHE_CONTROL, "max-age=60"
+                )
+            )
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(RfcCachingWire.class);
+        req.fetch();
+        req.fetch().as(RestResponse.class)
+            .assertBody(Matchers.equalTo("first"));
+        final long start = System.currentTimeMillis();
+        while (container.queries() < 2
+            && System.currentTimeMillis() - start
+            < TimeUnit.SECONDS.toMillis(10L)) {
+            TimeUnit.MILLISECONDS.sleep(10L);
+        }
+        TimeUnit.MILLISECONDS.sleep(100L);
+        req.fetch().as(RestResponse.class)
+            .assertBody(Matchers.equalTo("second"));
+        container.stop();
+        MatcherAssert.assertThat(
+            "should revalidate exactly once",
+            container.queries(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    /**
+     * RfcCachingWire can respect request directives for stale response.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void respectsRequestDirectivesForStaleResponse() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple("old").withHeader(
+                    HttpHeaders.CACHE_CONTROL,
+                    "max-age=0, stale-while-revalidate=60"
+                )
+            )
+            .next(new MkAnswer.Simple("new"))
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(RfcCachingWire.class);
+        req.fetch();
+        req.header(HttpHeaders.CACHE_CONTROL, "min-fresh=1")
+            .fetch().as(RestResponse.class)
+            .assertBody(Matchers.equalTo("new"));
+        container.stop();
+        MatcherAssert.assertThat(
+            "should go to the server",
+            container.queries(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    /**
+     * RfcCachingWire can return 504 for only-if-cached and stale response.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void returnsGatewayTimeoutForStaleOnlyIfCached() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple("stale").withHeader(
+                    HttpHeaders.CACHE_CONTROL, "max-age=0"
+                )
+            )
+            .next(new MkAnswer.Simple("fresh"))
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(RfcCachingWire.class);
+        req.fetch();
+        req.header(HttpHeaders.CACHE_CONTROL, "only-if-cached")
+            .fetch().as(RestResponse.class)
+            .assertStatus(HttpURLConnection.HTTP_GATEWAY_TIMEOUT);
+        container.stop();
+        MatcherAssert.assertThat(
+            "should not go to the server",
+            container.queries(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * RfcCachingWire can invalidate stored response after unsafe request.
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void invalidatesAfterUnsafeRequest() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple("before").withHeader(
+                    HttpHeaders.CACHE_CONTROL, "max-age=60"
+                )
+            )
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_NO_CONTENT))
+            .next(new MkAnswer.Simple("after"))
+            .start();
+        final Request req = new JdkRequest(container.home())
+            .through(RfcCachingWire.class);
+        req.fetch();
+        req.method(Request.DELETE).fetch();
+        req.fetch().as(RestResponse.class)
+            .assertBody(Matchers.equalTo("after"));
+        container.stop();
+    }
+
+}
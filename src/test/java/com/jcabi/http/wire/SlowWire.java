@@ -0,0 +1,91 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.immutable.Array;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wire which answers without a network, slowly for the first requests.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 2.0
+ */
+final class SlowWire implements Wire {
+
+    /**
+     * Status of responses.
+     */
+    private final transient int status;
+
+    /**
+     * How many first requests are slow.
+     */
+    private final transient int slow;
+
+    /**
+     * Latency of a slow request, in milliseconds.
+     */
+    private final transient long delay;
+
+    /**
+     * Requests received.
+     */
+    private final transient AtomicInteger received;
+
+    /**
+     * Ctor.
+     * @param code Status of responses
+     * @param first How many first requests are slow
+     * @param millis Latency of a slow request, in milliseconds
+     */
+    SlowWire(final int code, final int first, final long millis) {
+        this.status = code;
+        this.slow = first;
+        this.delay = millis;
+        this.received = new AtomicInteger();
+    }
+
+    // @checkstyle ParameterNumber (5 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content,
+        final int connect,
+        final int read) throws IOException {
+        if (this.received.incrementAndGet() <= this.slow) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(this.delay);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(ex.getMessage());
+            }
+        }
+        return new DefaultResponse(
+            req, this.status, "", new Array<>(), new byte[0]
+        );
+    }
+
+    /**
+     * How many requests were received.
+     * @return Number of requests
+     */
+    int calls() {
+        return this.received.get();
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2011-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.http.wire;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.immutable.Array;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link TieredWire}.
+ * @since 2.0
+ */
+final class TieredWireTest {
+
+    /**
+     * TieredWire can serve from memory and promote from disk.
+     * @param dir Temporary directory
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void servesFromMemoryAndPromotesFromDisk(@TempDir final Path dir)
+        throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final TieredWire wire = new TieredWire(
+            TieredWireTest.origin(calls), dir.toString(), 1L
+        );
+        TieredWireTest.get(wire, "/a");
+        TieredWireTest.get(wire, "/a");
+        MatcherAssert.assertThat(
+            "second request must be served from memory",
+            wire.memoryHits(),
+            Matchers.equalTo(1L)
+        );
+        TieredWireTest.get(wire, "/b");
+        wire.await();
+        MatcherAssert.assertThat(
+            "evicted response must be promoted from disk",
+            TieredWireTest.get(wire, "/a").body(),
+            Matchers.equalTo("/a")
+        );
+        MatcherAssert.assertThat(
+            "disk must be hit once",
+            wire.diskHits(),
+            Matchers.equalTo(1L)
+        );
+        MatcherAssert.assertThat(
+            "server must be hit twice",
+            calls.get(),
+            Matchers.equalTo(2)
+        );
+        wire.close();
+    }
+
+    /**
+     * TieredWire can read files demoted before a restart.
+     * @param dir Temporary directory
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void readsFilesDemotedBeforeRestart(@TempDir final Path dir)
+        throws Exception {
+        final AtomicInteger before = new AtomicInteger();
+        final TieredWire first = new TieredWire(
+            TieredWireTest.origin(before), dir.toString(), 1L
+        );
+        TieredWireTest.get(first, "/x");
+        TieredWireTest.get(first, "/y");
+        first.close();
+        final AtomicInteger after = new AtomicInteger();
+        final TieredWire second = new TieredWire(
+            TieredWireTest.origin(after), dir.toString(), 1L
+        );
+        MatcherAssert.assertThat(
+            "response must be read from disk",
+            TieredWireTest.get(second, "/x").body(),
+            Matchers.equalTo("/x")
+        );
+        MatcherAssert.assertThat(
+            "server must not be hit after restart",
+            after.get(),
+            Matchers.equalTo(0)
+        );
+        MatcherAssert.assertThat(
+            "memory must miss and disk must hit",
+            new long[] {second.memoryMisses(), second.diskHits()},
+            Matchers.equalTo(new long[] {1L, 1L})
+        );
+    }
+
+    /**
+     * TieredWire can write fetched responses through to disk, before
+     * they are evicted from memory.
+     * @param dir Temporary directory
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void writesFetchedResponsesThroughToDisk(@TempDir final Path dir)
+        throws Exception {
+        final TieredWire first = new TieredWire(
+            TieredWireTest.origin(new AtomicInteger()), dir.toString(), 10L
+        );
+        TieredWireTest.get(first, "/w");
+        first.close();
+        final AtomicInteger after = new AtomicInteger();
+        final TieredWire second = new TieredWire(
+            TieredWireTest.origin(after), dir.toString(), 10L
+        );
+        TieredWireTest.get(second, "/w");
+        second.close();
+        MatcherAssert.assertThat(
+            "response in memory must be on disk too",
+            after.get(),
+            Matchers.equalTo(0)
+        );
+    }
+
+    /**
+     * TieredWire can stop writing to disk once it's closed.
+     * @param dir Temporary directory
+     * @throws Exception If something goes wrong inside
+     */
+    @Test
+    void stopsWritingToDiskWhenClosed(@TempDir final Path dir)
+        throws Exception {
+        final TieredWire first = new TieredWire(
+            TieredWireTest.origin(new AtomicInteger()), dir.toString(), 10L
+        );
+        first.close();
+        TieredWireTest.get(first, "/z");
+        MatcherAssert.assertThat(
+            "closed wire must still serve from memory",
+            TieredWireTest.get(first, "/z").body(),
+            Matchers.equalTo("/z")
+        );
+        final AtomicInteger after = new AtomicInteger();
+        final TieredWire second = new TieredWire(
+            TieredWireTest.origin(after), dir.toString(), 10L
+        );
+        TieredWireTest.get(second, "/z");
+        second.close();
+        MatcherAssert.assertThat(
+            "response must not be written after close",
+            after.get(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * Origin wire, responding with the path of the URI.
+     * @param calls Counter of calls
+     * @return Wire
+     */
+    private static Wire origin(final AtomicInteger calls) {
+        return (req, home, method, headers, content, connect, read) -> {
+            calls.incrementAndGet();
+            return new DefaultResponse(
+                req, HttpURLConnection.HTTP_OK, "OK", new Array<>(),
+                req.uri().get().getPath().getBytes(StandardCharsets.UTF_8)
+            );
+        };
+    }
+
+    /**
+     * Make a GET request through the wire.
+     * @param wire The wire
+     * @param path Path of the URI
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response get(final Wire wire, final String path)
+        throws IOException {
+        final String home = String.format("http://localhost%s", path);
+        return wire.send(
+            new JdkRequest(home), home, Request.GET, Collections.emptyList(),
+            new ByteArrayInputStream(new byte[0]), 0, 0
+        );
+    }
+
+}